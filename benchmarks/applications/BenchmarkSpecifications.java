@@ -0,0 +1,98 @@
+package applications;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Builds the shops the benchmarks run on. They have the same shape as the
+ * ones {@link SimulationSpecificationGenerator} makes for the properties
+ * (machines picked uniformly, the same ranges of change-over and task
+ * times), but with the machine, job and task counts fixed by the caller
+ * and a fixed seed so every run of a benchmark sees the same shop.
+ */
+final class BenchmarkSpecifications {
+    static final long SEED = 20201017L;
+
+    private BenchmarkSpecifications() {
+    }
+
+    /** @return a shop with tasksPerJob tasks for each of numJobs jobs */
+    static SimulationSpecification random(int numMachines, int numJobs, int tasksPerJob) {
+        Random random = new Random(SEED);
+        SimulationSpecification result = new SimulationSpecification();
+        result.setNumMachines(numMachines);
+        result.setNumJobs(numJobs);
+
+        int[] changeOverTimes = new int[numMachines + 1];
+        for (int i=1; i<=numMachines; ++i) {
+            changeOverTimes[i] = random.nextInt(SimulationSpecificationGenerator.MAX_CHANGEOVER_TIME);
+        }
+        result.setChangeOverTimes(changeOverTimes);
+
+        JobSpecification[] jobSpecifications = new JobSpecification[numJobs + 1];
+        for (int i=1; i<=numJobs; ++i) {
+            jobSpecifications[i] = new JobSpecification();
+            jobSpecifications[i].setNumTasks(tasksPerJob);
+        }
+        result.setJobSpecification(jobSpecifications);
+        for (int i=1; i<=numJobs; ++i) {
+            int[] specificationsForTasks = new int[2 * tasksPerJob + 1];
+            for (int j = 1; j <= tasksPerJob; ++j) {
+                specificationsForTasks[2 * (j - 1) + 1] = random.nextInt(numMachines) + 1;
+                specificationsForTasks[2 * (j - 1) + 2] =
+                        random.nextInt(SimulationSpecificationGenerator.MAX_TASK_TIME) + 1;
+            }
+            result.setSpecificationsForTasks(i, specificationsForTasks);
+        }
+
+        return result;
+    }
+
+    /** @return specification written in the text input format */
+    static String toInputText(SimulationSpecification specification) {
+        StringBuilder builder = new StringBuilder();
+        if (specification.hasStations())
+            builder.append(SpecificationReader.STATIONS).append('\n');
+        boolean releases = specification.hasReleaseTimes();
+        if (releases)
+            builder.append(SpecificationReader.RELEASES).append('\n');
+        builder.append(specification.getNumMachines()).append(' ')
+                .append(specification.getNumJobs()).append('\n');
+        for (int i=1; i<=specification.getNumMachines(); ++i) {
+            builder.append(specification.getChangeOverTimes(i)).append(' ');
+        }
+        builder.append('\n');
+        if (specification.hasStations()) {
+            for (int i=1; i<=specification.getNumMachines(); ++i) {
+                builder.append(specification.getCapacity(i)).append(' ');
+            }
+            builder.append('\n');
+        }
+        for (int i=1; i<=specification.getNumJobs(); ++i) {
+            JobSpecification job = specification.getJobSpecifications(i);
+            if (releases)
+                builder.append(job.getReleaseTime()).append(' ');
+            builder.append(job.getNumTasks());
+            int[] specificationsForTasks = job.getSpecificationsForTasks();
+            for (int j=1; j<specificationsForTasks.length; ++j) {
+                builder.append(' ').append(specificationsForTasks[j]);
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    /** @return a print stream that throws away everything written to it */
+    static PrintStream discardingPrintStream() {
+        return new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+    }
+}
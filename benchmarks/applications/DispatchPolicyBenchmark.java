@@ -0,0 +1,80 @@
+package applications;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole simulation runs under each dispatch policy. Every job starts in
+ * a queue, so with few machines and many jobs the queues are long, and
+ * the cost of the heap queues over the FIFO ring queues shows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchPolicyBenchmark {
+    @Param({"2", "20"})
+    public int numMachines;
+
+    @Param({"10000", "100000"})
+    public int numJobs;
+
+    @Param({"5"})
+    public int tasksPerJob;
+
+    /** FIFO, SPT, EDD with random due dates or PRIORITY with ten random priority classes */
+    @Param({"FIFO", "SPT", "EDD", "PRIORITY"})
+    public String policy;
+
+    private SimulationSpecification specification;
+    private DispatchPolicy dispatchPolicy;
+
+    @Setup
+    public void setUp() {
+        specification = BenchmarkSpecifications.random(numMachines, numJobs, tasksPerJob);
+        Random random = new Random(BenchmarkSpecifications.SEED);
+        switch (policy) {
+        case "FIFO":
+            dispatchPolicy = DispatchPolicy.FIFO;
+            break;
+        case "SPT":
+            dispatchPolicy = DispatchPolicy.SHORTEST_PROCESSING_TIME;
+            break;
+        case "EDD":
+            long[] dueDates = new long[numJobs + 1];
+            for (int i = 1; i <= numJobs; i++)
+                dueDates[i] = random.nextInt(numJobs * tasksPerJob * SimulationSpecificationGenerator.MAX_TASK_TIME);
+            dispatchPolicy = DispatchPolicy.earliestDueDate(dueDates);
+            break;
+        case "PRIORITY":
+            int[] priorities = new int[numJobs + 1];
+            for (int i = 1; i <= numJobs; i++)
+                priorities[i] = random.nextInt(10);
+            dispatchPolicy = DispatchPolicy.priority(priorities);
+            break;
+        default:
+            throw new IllegalArgumentException(policy);
+        }
+    }
+
+    @Benchmark
+    public SimulationResults runSimulation() {
+        MachineShopSimulator simulator = new MachineShopSimulator(EventListType.HEAP);
+        simulator.setDispatchPolicy(dispatchPolicy);
+        return simulator.runSimulation(specification);
+    }
+}
@@ -0,0 +1,59 @@
+package applications;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One simulated event: find the next machine to finish and give it a new
+ * finish time a task or change-over later, the way the simulate loop does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventListBenchmark {
+    private static final int NUM_DELAYS = 1024; // power of two, see nextDelay
+
+    @Param({"10", "100", "1000", "10000"})
+    public int numMachines;
+
+    @Param({"ARRAY", "HEAP"})
+    public EventListType eventListType;
+
+    private EventList eList;
+    private int[] delays; // precomputed task/change-over times
+    private int nextDelay;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkSpecifications.SEED);
+        eList = eventListType.create(numMachines);
+        for (int m = 1; m <= numMachines; m++)
+            eList.setFinishTime(m, random.nextInt(SimulationSpecificationGenerator.MAX_TASK_TIME) + 1);
+        delays = new int[NUM_DELAYS];
+        for (int i = 0; i < NUM_DELAYS; i++)
+            delays[i] = random.nextInt(SimulationSpecificationGenerator.MAX_TASK_TIME) + 1;
+    }
+
+    @Benchmark
+    public int nextEventMachine() {
+        int machine = eList.nextEventMachine();
+        int delay = delays[nextDelay++ & (NUM_DELAYS - 1)];
+        eList.setFinishTime(machine, eList.nextEventTime(machine) + delay);
+        return machine;
+    }
+}
@@ -0,0 +1,70 @@
+package applications;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Printing the results of a simulation, to standard output (thrown away)
+ * and to a file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationResultsBenchmark {
+    @Param({"10", "1000"})
+    public int numMachines;
+
+    @Param({"1000", "100000"})
+    public int numJobs;
+
+    @Param({"5"})
+    public int tasksPerJob;
+
+    private SimulationResults results;
+    private PrintStream originalOut;
+    private File outputFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        SimulationSpecification specification =
+                BenchmarkSpecifications.random(numMachines, numJobs, tasksPerJob);
+        results = new CompactSimulator().runSimulation(specification);
+        originalOut = System.out;
+        System.setOut(BenchmarkSpecifications.discardingPrintStream());
+        outputFile = File.createTempFile("results", ".output");
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+        outputFile.delete();
+    }
+
+    @Benchmark
+    public void print() {
+        results.print();
+    }
+
+    @Benchmark
+    public void printToFile() {
+        results.print(outputFile.getPath());
+    }
+}
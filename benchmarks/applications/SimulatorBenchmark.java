@@ -0,0 +1,83 @@
+package applications;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Whole simulation runs, for each engine, over a range of shop sizes. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulatorBenchmark {
+    @Param({"10", "100", "1000"})
+    public int numMachines;
+
+    @Param({"1000", "10000"})
+    public int numJobs;
+
+    @Param({"5", "20"})
+    public int tasksPerJob;
+
+    /**
+     * ARRAY and HEAP run MachineShopSimulator on that event list, HEAP_METRICS
+     * does so collecting metrics and HEAP_TRACE tracing every event,
+     * COMPACT runs CompactSimulator, REUSABLE runs one ReusableSimulator
+     * over and over on the heap event list and PARALLEL runs
+     * ParallelSimulator with a partition per processor
+     */
+    @Param({"ARRAY", "HEAP", "HEAP_METRICS", "HEAP_TRACE", "COMPACT", "REUSABLE", "PARALLEL"})
+    public String engine;
+
+    private SimulationSpecification specification;
+    private File traceFile;
+    private ReusableSimulator reusableSimulator;
+
+    @Setup
+    public void setUp() throws IOException {
+        specification = BenchmarkSpecifications.random(numMachines, numJobs, tasksPerJob);
+        traceFile = File.createTempFile("trace", ".bin");
+        reusableSimulator = new ReusableSimulator(EventListType.HEAP);
+    }
+
+    @TearDown
+    public void tearDown() {
+        traceFile.delete();
+    }
+
+    @Benchmark
+    public SimulationResults runSimulation() {
+        if (engine.equals("COMPACT"))
+            return new CompactSimulator().runSimulation(specification);
+        if (engine.equals("REUSABLE"))
+            return reusableSimulator.runSimulation(specification);
+        if (engine.equals("PARALLEL"))
+            return new ParallelSimulator().runSimulation(specification);
+        if (engine.equals("HEAP_METRICS")) {
+            MachineShopSimulator simulator = new MachineShopSimulator(EventListType.HEAP);
+            simulator.setMetricsEnabled(true);
+            return simulator.runSimulation(specification);
+        }
+        if (engine.equals("HEAP_TRACE")) {
+            MachineShopSimulator simulator = new MachineShopSimulator(EventListType.HEAP);
+            simulator.setTraceFile(traceFile.getPath());
+            return simulator.runSimulation(specification);
+        }
+        return new MachineShopSimulator(EventListType.valueOf(engine)).runSimulation(specification);
+    }
+}
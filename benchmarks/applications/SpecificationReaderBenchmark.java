@@ -0,0 +1,102 @@
+package applications;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utilities.MyInputStream;
+
+/**
+ * Parsing a specification in the text input format, from memory and from
+ * a file with each of the readers, and loading it from the binary format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecificationReaderBenchmark {
+    @Param({"10", "1000"})
+    public int numMachines;
+
+    @Param({"1000", "10000"})
+    public int numJobs;
+
+    @Param({"5", "20"})
+    public int tasksPerJob;
+
+    private byte[] input;
+    private File inputFile;
+    private File binaryFile;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws IOException {
+        SimulationSpecification specification =
+                BenchmarkSpecifications.random(numMachines, numJobs, tasksPerJob);
+        input = BenchmarkSpecifications.toInputText(specification).getBytes(StandardCharsets.US_ASCII);
+        inputFile = File.createTempFile("benchmark", ".input");
+        try (FileOutputStream out = new FileOutputStream(inputFile)) {
+            out.write(input);
+        }
+        binaryFile = File.createTempFile("benchmark", ".bin");
+        BinarySpecificationWriter.convert(inputFile.getPath(), binaryFile.getPath());
+        // the reader prompts on System.out
+        originalOut = System.out;
+        System.setOut(BenchmarkSpecifications.discardingPrintStream());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+        inputFile.delete();
+        binaryFile.delete();
+    }
+
+    @Benchmark
+    public SimulationSpecification readSpecification() {
+        MyInputStream in = new MyInputStream(new ByteArrayInputStream(input));
+        return new SpecificationReader(in).readSpecification();
+    }
+
+    @Benchmark
+    public SimulationSpecification readSpecificationFromFileWithMyInputStream() {
+        MyInputStream in = new MyInputStream(inputFile.getPath());
+        SimulationSpecification specification = new SpecificationReader(in).readSpecification();
+        in.close();
+        return specification;
+    }
+
+    @Benchmark
+    public SimulationSpecification readSpecificationFromMappedFile() {
+        return new SpecificationReader(inputFile.getPath()).readSpecification();
+    }
+
+    @Benchmark
+    public TaskTable readTaskTableFromMappedFile() {
+        return new SpecificationReader(inputFile.getPath()).readTaskTable();
+    }
+
+    @Benchmark
+    public TaskTable readTaskTableFromBinaryFile() {
+        return new BinarySpecificationReader(binaryFile.getPath()).readTaskTable();
+    }
+}
@@ -0,0 +1,57 @@
+package dataStructures;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A put followed by a remove on a queue holding queueSize elements, for
+ * {@link LinkedQueue} and, for comparison, {@link IntRingQueue}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkedQueueBenchmark {
+    @Param({"0", "16", "1024"})
+    public int queueSize;
+
+    private LinkedQueue linkedQueue;
+    private IntRingQueue ringQueue;
+    private Integer element;
+
+    @Setup
+    public void setUp() {
+        linkedQueue = new LinkedQueue();
+        ringQueue = new IntRingQueue();
+        for (int i = 0; i < queueSize; i++) {
+            linkedQueue.put(i);
+            ringQueue.put(i);
+        }
+        element = queueSize;
+    }
+
+    @Benchmark
+    public Object linkedQueuePutRemove() {
+        linkedQueue.put(element);
+        return linkedQueue.remove();
+    }
+
+    @Benchmark
+    public int intRingQueuePutRemove() {
+        ringQueue.put(queueSize);
+        return ringQueue.remove();
+    }
+}
@@ -0,0 +1,71 @@
+package applications;
+
+import java.util.Arrays;
+
+/**
+ * Event list that keeps the finish times in a plain array and scans the
+ * whole array to find the next event. Cheapest for shops with only a
+ * handful of machines.
+ */
+class ArrayEventList implements EventList {
+    // no finish time reaches this (see EventList), so an idle machine can
+    // be kept in the array and never win the scan
+    private static final long IDLE = Long.MAX_VALUE;
+
+    // data members
+    private long[] finishTime; // finish time array, IDLE for idle machines
+    private int numMachines; // machines in use, at most finishTime.length - 1
+
+    // constructor
+    ArrayEventList(int theNumMachines) {// initialize
+                                        // finish
+                                        // times for
+                                        // m
+                                        // machines
+        if (theNumMachines < 1)
+            throw new IllegalArgumentException(MachineShopSimulator.NUMBER_OF_MACHINES_MUST_BE_AT_LEAST_1);
+        finishTime = new long[theNumMachines + 1];
+        numMachines = theNumMachines;
+
+        // all machines are idle
+        for (int i = 1; i <= theNumMachines; i++)
+            finishTime[i] = IDLE;
+    }
+
+    /** @return machine for next event */
+    public int nextEventMachine() {
+        // find first machine to finish, this is the
+        // machine with smallest finish time
+        int p = 1;
+        long t = finishTime[1];
+        for (int i = 2; i <= numMachines; i++)
+            if (finishTime[i] < t) {// i finishes earlier
+                p = i;
+                t = finishTime[i];
+            }
+        return t == IDLE ? 0 : p;
+    }
+
+    public long nextEventTime(int theMachine) {
+        return finishTime[theMachine];
+    }
+
+    public void setFinishTime(int theMachine, long theTime) {
+        finishTime[theMachine] = theTime;
+    }
+
+    public void setIdle(int theMachine) {
+        finishTime[theMachine] = IDLE;
+    }
+
+    public boolean isIdle(int theMachine) {
+        return finishTime[theMachine] == IDLE;
+    }
+
+    public void clear(int theNumMachines) {
+        if (theNumMachines < 1 || theNumMachines >= finishTime.length)
+            throw new IllegalArgumentException("list holds 1 to " + (finishTime.length - 1) + " machines");
+        numMachines = theNumMachines;
+        Arrays.fill(finishTime, 1, theNumMachines + 1, IDLE);
+    }
+}
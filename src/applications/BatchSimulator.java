@@ -0,0 +1,134 @@
+package applications;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs many independent simulations on a bounded work-stealing pool.
+ * Every run gets its own {@link MachineShopSimulator}, so runs share no
+ * state, and the results always come back in the order of the input no
+ * matter which run finishes first. Given a {@link ResultCache}, a batch
+ * only runs the specifications the cache does not already hold results
+ * for.
+ */
+public class BatchSimulator {
+    /** command line option of {@link MachineShopSimulator} that runs a batch */
+    public static final String BATCH_OPTION = "--batch";
+    /** extension of the specification files read from a directory */
+    public static final String INPUT_FILE_EXTENSION = ".input";
+
+    private final int parallelism; // most runs in progress at once
+    private ResultCache cache; // results of earlier runs, null if none are kept
+
+    /** create a batch simulator that uses all available processors */
+    public BatchSimulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** create a batch simulator that runs at most theParallelism simulations at once */
+    public BatchSimulator(int theParallelism) {
+        if (theParallelism < 1)
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        parallelism = theParallelism;
+    }
+
+    /**
+     * look up the results of each run in theCache, and add them to it, from now on; null for none;
+     * theCache must hold FIFO_VARIANT results, as the runs dispatch first come, first served
+     */
+    public void setResultCache(ResultCache theCache) {
+        if (theCache != null && !theCache.getVariant().equals(ResultCache.FIFO_VARIANT))
+            throw new IllegalArgumentException("cache holds " + theCache.getVariant() + " results");
+        cache = theCache;
+    }
+
+    /**
+     * runs every specification
+     * @param specifications
+     * @return the results, in the order of specifications
+     */
+    public List<SimulationResults> runAll(List<SimulationSpecification> specifications) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<SimulationResults>> runs = new ArrayList<>(specifications.size());
+            for (SimulationSpecification specification : specifications)
+                runs.add(pool.submit(() -> run(specification)));
+            return joinInOrder(runs);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * reads and runs every specification file in directory
+     * @param directory
+     * @return the results, in the order of the file names
+     */
+    public List<SimulationResults> runDirectory(File directory) {
+        return runFiles(inputFiles(directory));
+    }
+
+    /**
+     * reads and runs every specification file; the files are parsed on the
+     * pool as well
+     * @param files
+     * @return the results, in the order of files
+     */
+    public List<SimulationResults> runFiles(File[] files) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<SimulationResults>> runs = new ArrayList<>(files.length);
+            for (File file : files)
+                runs.add(pool.submit(() -> {
+                    SimulationSpecification specification =
+                            new SpecificationReader(file.getPath()).readSpecification();
+                    return run(specification);
+                }));
+            return joinInOrder(runs);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private SimulationResults run(SimulationSpecification specification) {
+        if (cache == null)
+            return new MachineShopSimulator().runSimulation(specification);
+        return cache.getOrRun(specification, s -> new MachineShopSimulator().runSimulation(s));
+    }
+
+    /** @return the specification files in directory, sorted by name */
+    public static File[] inputFiles(File directory) {
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(INPUT_FILE_EXTENSION);
+            }
+        });
+        if (files == null)
+            throw new IllegalArgumentException(directory + " is not a directory");
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static List<SimulationResults> joinInOrder(List<ForkJoinTask<SimulationResults>> runs) {
+        List<SimulationResults> results = new ArrayList<>(runs.size());
+        for (ForkJoinTask<SimulationResults> run : runs)
+            results.add(run.join());
+        return results;
+    }
+
+    /** run every specification file in the directory directoryName and print the results */
+    static void runCommandLine(String directoryName) {
+        File[] files = inputFiles(new File(directoryName));
+        List<SimulationResults> results = new BatchSimulator().runFiles(files);
+        for (int i = 0; i < files.length; i++) {
+            System.out.println("Results for " + files[i].getName());
+            results.get(i).print();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package applications;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import exceptions.MyInputException;
+import utilities.VarInt;
+
+/**
+ * Loads a specification written by {@link BinarySpecificationWriter}. The
+ * file is memory mapped and its varints decoded in place; a task table is
+ * filled straight from the mapping into arrays sized from the header, so
+ * loading involves no text parsing and no growing of arrays.
+ *
+ * The specification is checked just as {@link SpecificationReader} checks
+ * the text format, and a file that is not in the binary format, or is cut
+ * short, is rejected with a MyInputException.
+ */
+public class BinarySpecificationReader {
+    public static final String NOT_A_BINARY_SPECIFICATION = "not a binary machine shop specification";
+    public static final String UNSUPPORTED_VERSION = "unsupported binary specification version";
+    public static final String UNSUPPORTED_FLAGS = "unsupported binary specification flags";
+    public static final String CORRUPT_BINARY_SPECIFICATION = "binary specification is corrupt";
+
+    // data members
+    private final String fileName;
+    private ByteBuffer input; // mapped file, positioned after the header
+    private int numMachines;
+    private int numJobs;
+    private int numTasks; // total number of tasks, from the header
+    private boolean stations; // the file has station capacities
+    private boolean releases; // the file has release times
+
+    public BinarySpecificationReader(String theFileName) {
+        fileName = theFileName;
+    }
+
+    /** @return true if the file fileName starts like a binary specification */
+    public static boolean isBinarySpecification(String fileName) {
+        try (FileChannel channel = new FileInputStream(fileName).getChannel()) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic) >= 0)
+                ;
+            return !magic.hasRemaining() && magic.getInt(0) == BinarySpecificationWriter.MAGIC;
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+    }
+
+    /** map the file and read its header */
+    private void open() {
+        try (FileChannel channel = new FileInputStream(fileName).getChannel()) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new MyInputException(CORRUPT_BINARY_SPECIFICATION);
+            // the mapping stays valid after the channel is closed
+            input = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+        if (input.remaining() < BinarySpecificationWriter.HEADER_SIZE
+                || input.getInt() != BinarySpecificationWriter.MAGIC)
+            throw new MyInputException(NOT_A_BINARY_SPECIFICATION);
+        if (input.getInt() != BinarySpecificationWriter.VERSION)
+            throw new MyInputException(UNSUPPORTED_VERSION);
+        int flags = input.getInt();
+        if ((flags & ~BinarySpecificationWriter.KNOWN_FLAGS) != 0)
+            throw new MyInputException(UNSUPPORTED_FLAGS);
+        stations = (flags & BinarySpecificationWriter.STATIONS_FLAG) != 0;
+        releases = (flags & BinarySpecificationWriter.RELEASES_FLAG) != 0;
+        numMachines = input.getInt();
+        numJobs = input.getInt();
+        numTasks = input.getInt();
+        if (numMachines < 1 || numJobs < 1)
+            throw new MyInputException(MachineShopSimulator.NUMBER_OF_MACHINES_AND_JOBS_MUST_BE_AT_LEAST_1);
+        // every change-over time takes at least a byte, every job has a
+        // task and every task takes at least two bytes
+        if (numMachines > input.remaining() || numTasks < numJobs || numTasks > input.remaining() / 2)
+            throw new MyInputException(CORRUPT_BINARY_SPECIFICATION);
+    }
+
+    private int[] readChangeOverTimes() {
+        int[] changeOverTimes = new int[numMachines + 1];
+        for (int m = 1; m <= numMachines; m++) {
+            int ct = readVarInt();
+            if (ct < 0)
+                throw new MyInputException(MachineShopSimulator.CHANGE_OVER_TIME_MUST_BE_AT_LEAST_0);
+            changeOverTimes[m] = ct;
+        }
+        return changeOverTimes;
+    }
+
+    /** @return the station capacities, null if the file has none */
+    private int[] readCapacities() {
+        if (!stations)
+            return null;
+        int[] capacities = new int[numMachines + 1];
+        for (int m = 1; m <= numMachines; m++) {
+            int c = readVarInt();
+            if (c < 1)
+                throw new MyInputException(MachineShopSimulator.CAPACITY_MUST_BE_AT_LEAST_1);
+            capacities[m] = c;
+        }
+        return capacities;
+    }
+
+    private int readNumTasks() {
+        int tasks = readVarInt();
+        if (tasks < 1)
+            throw new MyInputException(MachineShopSimulator.EACH_JOB_MUST_HAVE_AT_LEAST_1_TASK);
+        if (tasks > input.remaining() / 2)
+            throw new MyInputException(CORRUPT_BINARY_SPECIFICATION);
+        return tasks;
+    }
+
+    private int readReleaseTime() {
+        int releaseTime = readVarInt();
+        if (releaseTime < 0)
+            throw new MyInputException(MachineShopSimulator.RELEASE_TIME_MUST_BE_AT_LEAST_0);
+        return releaseTime;
+    }
+
+    private int readMachine() {
+        int theMachine = readVarInt();
+        if (theMachine < 1 || theMachine > numMachines)
+            throw new MyInputException(MachineShopSimulator.BAD_MACHINE_NUMBER_OR_TASK_TIME);
+        return theMachine;
+    }
+
+    private int readTaskTime() {
+        int theTaskTime = readVarInt();
+        if (theTaskTime < 1)
+            throw new MyInputException(MachineShopSimulator.BAD_MACHINE_NUMBER_OR_TASK_TIME);
+        return theTaskTime;
+    }
+
+    /** check that the tasks read match the header and nothing follows them */
+    private void checkEnd(int tasksRead) {
+        if (tasksRead != numTasks || input.hasRemaining())
+            throw new MyInputException(CORRUPT_BINARY_SPECIFICATION);
+    }
+
+    private int readVarInt() {
+        try {
+            return VarInt.read(input);
+        } catch (BufferUnderflowException e) {
+            throw new MyInputException("End of file");
+        } catch (IllegalArgumentException e) {
+            throw new MyInputException(CORRUPT_BINARY_SPECIFICATION);
+        }
+    }
+
+    /** load machine shop data */
+    public SimulationSpecification readSpecification() {
+        SpecificationBuilder builder = new SpecificationBuilder();
+        readInto(builder);
+        return builder.getSpecification();
+    }
+
+    /** load machine shop data straight into a task table */
+    public TaskTable readTaskTable() {
+        open();
+        try {
+            int[] changeOverTimes = readChangeOverTimes();
+            int[] capacities = readCapacities();
+            int[] releaseTimes = releases ? new int[numJobs + 1] : null;
+            int[] firstTask = new int[numJobs + 2];
+            int[] taskMachine = new int[numTasks];
+            int[] taskTime = new int[numTasks];
+            int task = 0;
+            for (int j = 1; j <= numJobs; j++) {
+                firstTask[j] = task;
+                int tasks = readNumTasks();
+                if (tasks > numTasks - task)
+                    throw new MyInputException(CORRUPT_BINARY_SPECIFICATION);
+                if (releases)
+                    releaseTimes[j] = readReleaseTime();
+                for (int k = 0; k < tasks; k++) {
+                    taskMachine[task] = readMachine();
+                    taskTime[task] = readTaskTime();
+                    task++;
+                }
+            }
+            firstTask[numJobs + 1] = task;
+            checkEnd(task);
+            return new TaskTable(numMachines, numJobs, changeOverTimes, capacities, releaseTimes,
+                    firstTask, taskMachine, taskTime);
+        } finally {
+            input = null;
+        }
+    }
+
+    /** load machine shop data, pushing every piece into sink */
+    public void readInto(SpecificationSink sink) {
+        open();
+        try {
+            sink.setNumMachinesAndJobs(numMachines, numJobs);
+            sink.setChangeOverTimes(readChangeOverTimes());
+            if (stations)
+                sink.setCapacities(readCapacities());
+            int task = 0;
+            for (int j = 1; j <= numJobs; j++) {
+                int tasks = readNumTasks();
+                sink.startJob(j, tasks);
+                if (releases)
+                    sink.setReleaseTime(readReleaseTime());
+                for (int k = 0; k < tasks; k++) {
+                    int theMachine = readMachine();
+                    sink.addTask(theMachine, readTaskTime());
+                }
+                task += tasks;
+            }
+            checkEnd(task);
+        } finally {
+            input = null;
+        }
+    }
+}
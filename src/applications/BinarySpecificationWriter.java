@@ -0,0 +1,158 @@
+package applications;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import utilities.VarInt;
+
+/**
+ * Writes a specification, as it is pushed in, to a file in the binary
+ * specification format read by {@link BinarySpecificationReader}. The
+ * format is a fixed header of six big endian ints, followed by varints
+ * ({@link VarInt}):
+ *
+ * <pre>
+ * header:   MAGIC, VERSION, flags, number of machines, number of jobs, number of tasks
+ * machines: change-over time of machines 1 up to the number of machines
+ * stations: only with STATIONS_FLAG, the capacity of each machine
+ * jobs:     for each job its number of tasks, its release time with
+ *           RELEASES_FLAG, then (machine, time) per task
+ * </pre>
+ *
+ * The flags say which optional parts the file has. They and the total
+ * number of tasks, which lets a loader size its arrays up front, are only
+ * known once every job has been written, so they are filled into the
+ * header when the writer is closed.
+ */
+public class BinarySpecificationWriter implements SpecificationSink {
+    public static final String CONVERT_OPTION = "--convert";
+    public static final int MAGIC = 0x4d535342; // "MSSB"
+    public static final int VERSION = 1;
+    /** flag of a file with the capacity of each machine */
+    public static final int STATIONS_FLAG = 1;
+    /** flag of a file with the release time of each job */
+    public static final int RELEASES_FLAG = 2;
+    static final int KNOWN_FLAGS = STATIONS_FLAG | RELEASES_FLAG;
+    static final int HEADER_SIZE = 6 * Integer.BYTES;
+    private static final int FLAGS_POSITION = 2 * Integer.BYTES;
+    private static final int NUM_TASKS_POSITION = 5 * Integer.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // data members
+    private final FileChannel channel; // file being written
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int count; // number of bytes in buffer
+    private int numMachines;
+    private int numTasks; // tasks written so far
+    private boolean stations; // capacities have been written
+    private boolean releases; // release times have been written
+
+    /** create a writer that writes to the file fileName, replacing its contents */
+    public BinarySpecificationWriter(String fileName) {
+        try {
+            channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * convert the text specification in textFileName to binary in
+     * binaryFileName; no binary file is left behind if the text is bad
+     */
+    public static void convert(String textFileName, String binaryFileName) {
+        BinarySpecificationWriter writer = new BinarySpecificationWriter(binaryFileName);
+        boolean converted = false;
+        try {
+            new SpecificationReader(textFileName).readInto(writer);
+            converted = true;
+        } finally {
+            writer.close();
+            if (!converted)
+                new File(binaryFileName).delete();
+        }
+    }
+
+    public void setNumMachinesAndJobs(int theNumMachines, int theNumJobs) {
+        numMachines = theNumMachines;
+        ByteBuffer header = ByteBuffer.wrap(buffer, count, HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(theNumMachines).putInt(theNumJobs).putInt(0);
+        count += HEADER_SIZE;
+    }
+
+    public void setChangeOverTimes(int[] changeOverTimes) {
+        for (int m = 1; m <= numMachines; m++)
+            append(changeOverTimes[m]);
+    }
+
+    public void setCapacities(int[] capacities) {
+        for (int m = 1; m <= numMachines; m++)
+            append(capacities[m]);
+        stations = true;
+    }
+
+    public void startJob(int theJob, int theNumTasks) {
+        append(theNumTasks);
+    }
+
+    public void setReleaseTime(int theReleaseTime) {
+        append(theReleaseTime);
+        releases = true;
+    }
+
+    public void addTask(int theMachine, int theTime) {
+        append(theMachine);
+        append(theTime);
+        numTasks++;
+    }
+
+    private void append(int value) {
+        if (count + VarInt.MAX_BYTES > buffer.length)
+            flushBuffer();
+        count = VarInt.write(value, buffer, count);
+    }
+
+    private void flushBuffer() {
+        write(ByteBuffer.wrap(buffer, 0, count), -1);
+        count = 0;
+    }
+
+    /** write bytes at position, or at the end of the file if position < 0 */
+    private void write(ByteBuffer bytes, long position) {
+        try {
+            while (bytes.hasRemaining()) {
+                if (position < 0)
+                    channel.write(bytes);
+                else
+                    position += channel.write(bytes, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** write out everything buffered, fill in the flags and the number of tasks and close the file */
+    public void close() {
+        try {
+            flushBuffer();
+            ByteBuffer field = ByteBuffer.allocate(Integer.BYTES);
+            field.putInt((stations ? STATIONS_FLAG : 0) | (releases ? RELEASES_FLAG : 0)).flip();
+            write(field, FLAGS_POSITION);
+            field.clear();
+            field.putInt(numTasks).flip();
+            write(field, NUM_TASKS_POSITION);
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
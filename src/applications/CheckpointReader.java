@@ -0,0 +1,45 @@
+package applications;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import exceptions.MyInputException;
+
+/**
+ * Opens a checkpoint written by {@link CheckpointWriter}. The whole file
+ * is read at once and its header checked; a file that is not a checkpoint
+ * is rejected with a MyInputException.
+ */
+public class CheckpointReader {
+    /** command line option of {@link MachineShopSimulator} that resumes a run from a checkpoint file */
+    public static final String RESUME_OPTION = "--resume";
+
+    public static final String NOT_A_CHECKPOINT = "not a machine shop checkpoint";
+    public static final String UNSUPPORTED_VERSION = "unsupported checkpoint version";
+    public static final String CORRUPT_CHECKPOINT = "checkpoint is corrupt";
+
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    private CheckpointReader() {
+    }
+
+    /** @return the state saved in the checkpoint file fileName, after its header */
+    public static DataInputStream open(String fileName) {
+        byte[] snapshot;
+        try {
+            snapshot = Files.readAllBytes(Paths.get(fileName));
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+        ByteBuffer header = ByteBuffer.wrap(snapshot);
+        if (snapshot.length < HEADER_SIZE || header.getInt() != CheckpointWriter.MAGIC)
+            throw new MyInputException(NOT_A_CHECKPOINT);
+        if (header.getInt() != CheckpointWriter.VERSION)
+            throw new MyInputException(UNSUPPORTED_VERSION);
+        return new DataInputStream(new ByteArrayInputStream(snapshot, HEADER_SIZE, snapshot.length - HEADER_SIZE));
+    }
+}
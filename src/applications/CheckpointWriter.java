@@ -0,0 +1,161 @@
+package applications;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes the checkpoints of a {@link MachineShopSimulator} run to a file
+ * on a background thread, so the event loop only pays for encoding the
+ * snapshot. A snapshot handed over while the previous one is still being
+ * written replaces any snapshot still waiting, so a slow disk costs
+ * freshness rather than simulation time. Each snapshot is written to a
+ * temporary file that is then moved over the checkpoint file, which
+ * therefore always holds a whole snapshot.
+ *
+ * A snapshot is handed over in two parts that are written straight from
+ * the buffers they were encoded in: the state, in a buffer the writer
+ * hands back for reuse once it is done with it, and a prefix of a buffer
+ * of completions, to which the simulator only ever appends.
+ *
+ * A snapshot is a header of two big-endian ints, {@link #MAGIC} and
+ * {@link #VERSION}, followed by the state of the simulator as written by
+ * {@link MachineShopSimulator}; {@link CheckpointReader} checks the header.
+ */
+public class CheckpointWriter {
+    /**
+     * trailing command line option of {@link MachineShopSimulator} that
+     * checkpoints a run to the given file every {@link #DEFAULT_INTERVAL} events
+     */
+    public static final String CHECKPOINT_OPTION = "--checkpoint";
+    public static final long DEFAULT_INTERVAL = 1000000;
+
+    static final int MAGIC = 0x4d534350; // "MSCP"
+    static final int VERSION = 3;
+
+    // data members
+    private final Path file; // the checkpoint file
+    private final Path tempFile; // each snapshot is written here first
+    private final ExecutorService executor; // the thread writing the snapshots
+    private final AtomicReference<Snapshot> pending = new AtomicReference<>(); // next snapshot to write
+    private final ConcurrentLinkedQueue<Buffer> freeBuffers = new ConcurrentLinkedQueue<>(); // written state buffers
+    private volatile IOException failure; // first write that failed
+
+    /** a growable buffer whose bytes are written in place rather than copied out */
+    static final class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(8192);
+        }
+
+        /** @return the array holding the bytes written so far, which a later write may replace */
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    /** a snapshot handed over: the state, then the first completionsLength bytes of completions */
+    private static final class Snapshot {
+        final Buffer state;
+        final byte[] completions;
+        final int completionsLength;
+
+        Snapshot(Buffer theState, byte[] theCompletions, int theCompletionsLength) {
+            state = theState;
+            completions = theCompletions;
+            completionsLength = theCompletionsLength;
+        }
+    }
+
+    /** create a writer that checkpoints to the file fileName */
+    public CheckpointWriter(String fileName) {
+        file = Paths.get(fileName);
+        tempFile = Paths.get(fileName + ".tmp");
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "CheckpointWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** @return an empty buffer to encode the state of the next snapshot in, one already written if there is one */
+    Buffer stateBuffer() {
+        Buffer buffer = freeBuffers.poll();
+        if (buffer == null)
+            return new Buffer();
+        buffer.reset();
+        return buffer;
+    }
+
+    /**
+     * write in the background, in place of any snapshot still waiting, the
+     * snapshot of state followed by the first completionsLength bytes of
+     * completions; state belongs to the writer from now on, and those
+     * bytes of completions must not change, though the bytes after them may
+     */
+    void write(Buffer state, byte[] completions, int completionsLength) {
+        Snapshot replaced = pending.getAndSet(new Snapshot(state, completions, completionsLength));
+        if (replaced == null)
+            executor.execute(this::writePending);
+        else
+            freeBuffers.add(replaced.state);
+    }
+
+    private void writePending() {
+        Snapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null)
+            return;
+        try {
+            if (failure == null)
+                writeFile(snapshot);
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            freeBuffers.add(snapshot.state);
+        }
+    }
+
+    private void writeFile(Snapshot snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = { ByteBuffer.wrap(snapshot.state.array(), 0, snapshot.state.size()),
+                    ByteBuffer.wrap(snapshot.completions, 0, snapshot.completionsLength) };
+            while (buffers[0].hasRemaining() || buffers[1].hasRemaining())
+                channel.write(buffers);
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * wait for the snapshots handed over to be written
+     * @throws UncheckedIOException if writing any of them failed
+     */
+    public void close() {
+        executor.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES))
+                    break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        if (failure != null)
+            throw new UncheckedIOException(failure);
+    }
+}
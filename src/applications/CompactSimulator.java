@@ -0,0 +1,276 @@
+package applications;
+
+import java.util.Arrays;
+
+/**
+ * A machine shop simulator that keeps the whole shop in parallel
+ * primitive arrays instead of {@link Job} and {@link Machine} objects.
+ * Jobs are plain int ids: each job has a cursor into the flattened
+ * {@link TaskTable}, a length and an arrival time, and the machine
+ * queues are intrusive linked lists threaded through a per-job next
+ * array (a job waits in at most one queue at a time). Each unit of a
+ * station has its own slot in the event list, and jobs released after
+ * time 0 join their first queue in release order. It processes
+ * events in exactly the same order as {@link MachineShopSimulator} and
+ * so produces the same {@link SimulationResults}.
+ *
+ * The state arrays and the event list are kept from one run to the next
+ * and only grow, to the size of the largest shop run so far, so once a
+ * simulator has run its largest shop it allocates nothing for its state.
+ * The release order is sorted into a pooled array too.
+ *
+ * {@link #finishesBy} runs a shop only as far as it needs to tell
+ * whether every job completes by a deadline, without recording the job
+ * completions.
+ */
+public class CompactSimulator {
+    /**
+     * command line option of {@link MachineShopSimulator} that streams a
+     * specification file straight into a task table and runs it here
+     */
+    public static final String STREAM_OPTION = "--stream";
+
+    // data members
+    private final EventListType eventListType; // kind of event list to use
+    private TaskTable table; // the jobs being simulated
+    private EventList eList; // finish time of each unit
+    private int eListUnits; // most units eList can hold, the most of any shop run so far
+    private long timeNow; // current time
+    private int numJobsLeft; // jobs not yet completed
+    private long[] releaseKeys = new long[0]; // release time and job of the jobs released after time 0, in release order
+    private int numReleases; // jobs released after time 0
+    private int nextRelease; // index in releaseKeys of the next job to be released
+
+    // per unit state, indexed by event list slot
+    private int[] unitMachine; // machine the unit belongs to
+    private int[] activeJob; // job on the unit, 0 if none
+
+    // per machine state, indexed by machine number
+    private int[] firstUnit; // slot of the machine's first unit, the others following it
+    private int[] queueFront; // first job waiting for the machine, 0 if none
+    private int[] queueRear; // last job waiting for the machine, 0 if none
+    private long[] totalWait; // total delay at the machine
+    private int[] numTasks; // number of tasks processed on the machine
+
+    // per job state, indexed by job id
+    private int[] nextTask; // index in table of the job's next task
+    private long[] length; // sum of scheduled task times
+    private long[] arrivalTime; // arrival time at current queue
+    private int[] nextInQueue; // job behind this one in its queue, 0 if none
+
+    /** create a simulator that uses the array scan event list */
+    public CompactSimulator() {
+        this(EventListType.ARRAY);
+    }
+
+    /** create a simulator that uses the given kind of event list */
+    public CompactSimulator(EventListType theEventListType) {
+        eventListType = theEventListType;
+    }
+
+    /**
+     * runs the simulation described by specification
+     * @param specification
+     * @return the results of running the simulation
+     */
+    public SimulationResults runSimulation(SimulationSpecification specification) {
+        return runSimulation(TaskTable.fromSpecification(specification));
+    }
+
+    /**
+     * runs the simulation of the jobs in theTable
+     * @param theTable
+     * @return the results of running the simulation
+     */
+    public SimulationResults runSimulation(TaskTable theTable) {
+        return runSimulation(theTable, new SimulationResults(theTable.numJobs));
+    }
+
+    /**
+     * runs the simulation of the jobs in theTable, recording it in
+     * simulationResults, which are reset first
+     * @return simulationResults
+     */
+    SimulationResults runSimulation(TaskTable theTable, SimulationResults simulationResults) {
+        startShop(theTable);
+        simulationResults.reset(theTable.numJobs);
+        simulate(simulationResults, Long.MAX_VALUE);
+        outputStatistics(simulationResults);
+        table = null;
+        return simulationResults;
+    }
+
+    /**
+     * runs the simulation of the jobs in theTable until every job has
+     * completed or the next event comes after theDeadline
+     * @return true if every job completes at or before theDeadline
+     */
+    public boolean finishesBy(TaskTable theTable, long theDeadline) {
+        startShop(theTable);
+        boolean finished = simulate(null, theDeadline);
+        table = null;
+        return finished;
+    }
+
+    /** clear the state arrays, growing them if the shop needs it, and load all jobs onto their first machines */
+    private void startShop(TaskTable theTable) {
+        table = theTable;
+        int numMachines = table.numMachines;
+        int numJobs = table.numJobs;
+        int numUnits = table.numUnits;
+        timeNow = 0;
+        numJobsLeft = numJobs;
+
+        if (eList == null || eListUnits < numUnits) {
+            eList = eventListType.create(numUnits);
+            eListUnits = numUnits;
+        } else
+            eList.clear(numUnits);
+        if (unitMachine == null || unitMachine.length < numUnits + 1) {
+            unitMachine = new int[numUnits + 1];
+            activeJob = new int[numUnits + 1];
+        } else
+            Arrays.fill(activeJob, 0, numUnits + 1, 0);
+        if (firstUnit == null || firstUnit.length < numMachines + 2) {
+            firstUnit = new int[numMachines + 2];
+            queueFront = new int[numMachines + 1];
+            queueRear = new int[numMachines + 1];
+            totalWait = new long[numMachines + 1];
+            numTasks = new int[numMachines + 1];
+        } else {
+            Arrays.fill(queueFront, 0, numMachines + 1, 0);
+            Arrays.fill(queueRear, 0, numMachines + 1, 0);
+            Arrays.fill(totalWait, 0, numMachines + 1, 0);
+            Arrays.fill(numTasks, 0, numMachines + 1, 0);
+        }
+        firstUnit[1] = 1;
+        for (int machine = 1; machine <= numMachines; machine++) {
+            firstUnit[machine + 1] = firstUnit[machine] + table.capacities[machine];
+            Arrays.fill(unitMachine, firstUnit[machine], firstUnit[machine + 1], machine);
+        }
+
+        // nextTask and nextInQueue are set as each job is loaded or queued
+        if (nextTask == null || nextTask.length < numJobs + 1) {
+            nextTask = new int[numJobs + 1];
+            length = new long[numJobs + 1];
+            arrivalTime = new long[numJobs + 1];
+            nextInQueue = new int[numJobs + 1];
+        } else {
+            Arrays.fill(length, 0, numJobs + 1, 0);
+            Arrays.fill(arrivalTime, 0, numJobs + 1, 0);
+        }
+
+        for (int job = 1; job <= numJobs; job++) {
+            nextTask[job] = table.firstTask[job];
+            if (table.getReleaseTime(job) == 0)
+                putJobOnMachineQueue(job, table.taskMachine[nextTask[job]]);
+        }
+        if (table.hasReleaseTimes() && releaseKeys.length < numJobs)
+            releaseKeys = new long[numJobs];
+        numReleases = table.releaseOrder(releaseKeys);
+        nextRelease = 0;
+
+        for (int unit = 1; unit <= table.numUnits; unit++)
+            changeState(unit);
+    }
+
+    /**
+     * process the jobs until all have completed or the next event comes
+     * after theDeadline, recording the completions in simulationResults
+     * unless it is null
+     * @return true if every job completed
+     */
+    private boolean simulate(SimulationResults simulationResults, long theDeadline) {
+        while (numJobsLeft > 0) {
+            int nextToFinish = eList.nextEventMachine();
+            // a release comes before the events of the units at the same time
+            if (nextRelease < numReleases && (nextToFinish == 0
+                    || releaseKeys[nextRelease] >>> 32 <= eList.nextEventTime(nextToFinish))) {
+                long releaseTime = releaseKeys[nextRelease] >>> 32;
+                if (releaseTime > theDeadline)
+                    return false;
+                timeNow = releaseTime;
+                arriveAtNextMachine((int) releaseKeys[nextRelease++]);
+                continue;
+            }
+            long eventTime = eList.nextEventTime(nextToFinish);
+            if (eventTime > theDeadline)
+                return false;
+            timeNow = eventTime;
+            int job = changeState(nextToFinish);
+            if (job != 0)
+                moveToNextMachine(job, simulationResults);
+        }
+        return true;
+    }
+
+    private void outputStatistics(SimulationResults simulationResults) {
+        simulationResults.setFinishTime(timeNow);
+        // the arrays are the simulator's own and are reused by its next run
+        simulationResults.copyMachineStatistics(table.numMachines, totalWait, numTasks);
+    }
+
+    /**
+     * change the state of theUnit
+     * @return last job run on the unit, 0 if none
+     */
+    private int changeState(int theUnit) {
+        int theMachine = unitMachine[theUnit];
+        int lastJob = activeJob[theUnit];
+        if (lastJob == 0) {
+            int job = queueFront[theMachine];
+            if (job == 0)
+                eList.setIdle(theUnit);
+            else {
+                // take the front job off the queue and start its next task
+                queueFront[theMachine] = nextInQueue[job];
+                if (queueFront[theMachine] == 0)
+                    queueRear[theMachine] = 0;
+                activeJob[theUnit] = job;
+                totalWait[theMachine] += timeNow - arrivalTime[job];
+                numTasks[theMachine]++;
+                int t = table.taskTime[nextTask[job]];
+                nextTask[job]++;
+                length[job] += t;
+                eList.setFinishTime(theUnit, timeNow + t);
+            }
+        } else {
+            activeJob[theUnit] = 0;
+            eList.setFinishTime(theUnit, timeNow + table.changeOverTimes[theMachine]);
+        }
+        return lastJob;
+    }
+
+    /** move theJob to the machine of its next task, or record its completion unless simulationResults is null */
+    private void moveToNextMachine(int theJob, SimulationResults simulationResults) {
+        if (nextTask[theJob] == table.firstTask[theJob + 1]) {
+            if (simulationResults != null)
+                simulationResults.setJobCompletionData(theJob, timeNow,
+                        timeNow - table.getReleaseTime(theJob) - length[theJob]);
+            numJobsLeft--;
+        } else
+            arriveAtNextMachine(theJob);
+    }
+
+    /** put theJob in the queue of the machine of its next task and start an idle unit of it */
+    private void arriveAtNextMachine(int theJob) {
+        int p = table.taskMachine[nextTask[theJob]];
+        putJobOnMachineQueue(theJob, p);
+        arrivalTime[theJob] = timeNow;
+        // start the lowest numbered idle unit, if any
+        for (int unit = firstUnit[p]; unit < firstUnit[p + 1]; unit++)
+            if (eList.isIdle(unit)) {
+                changeState(unit);
+                break;
+            }
+    }
+
+    private void putJobOnMachineQueue(int theJob, int theMachine) {
+        nextInQueue[theJob] = 0;
+        if (queueFront[theMachine] == 0)
+            queueFront[theMachine] = theJob;
+        else
+            nextInQueue[queueRear[theMachine]] = theJob;
+        queueRear[theMachine] = theJob;
+    }
+}
@@ -0,0 +1,36 @@
+package applications;
+
+/**
+ * Decides the order in which a machine of a {@link MachineShopSimulator}
+ * takes the jobs waiting for it. A job joining a queue is given a key,
+ * and the machine always takes the job with the smallest key next, the
+ * one that has waited longest if several have it. Under {@link #FIFO}
+ * every key is the same, and its queues are plain ring queues; under any
+ * other policy they are binary heaps, so taking the next job costs
+ * O(log n) in the length of the queue.
+ */
+@FunctionalInterface
+public interface DispatchPolicy {
+    /** first come, first served */
+    DispatchPolicy FIFO = (theJob, theTaskTime) -> 0;
+
+    /** shortest task first */
+    DispatchPolicy SHORTEST_PROCESSING_TIME = (theJob, theTaskTime) -> theTaskTime;
+
+    /**
+     * @param theJob job joining the queue
+     * @param theTaskTime time of its task on the machine
+     * @return the key of theJob in the queue
+     */
+    long key(int theJob, int theTaskTime);
+
+    /** @return policy taking the job with the earliest due date first, dueDates indexed by job */
+    static DispatchPolicy earliestDueDate(long[] dueDates) {
+        return (theJob, theTaskTime) -> dueDates[theJob];
+    }
+
+    /** @return policy taking the job with the smallest priority number first, priorities indexed by job */
+    static DispatchPolicy priority(int[] priorities) {
+        return (theJob, theTaskTime) -> priorities[theJob];
+    }
+}
@@ -1,45 +1,38 @@
 package applications;
 
-class EventList {
-    // data members
-    private int[] finishTime; // finish time array
+/**
+ * The event list of the machine shop. It keeps the finish time of the
+ * current activity of every busy machine, knows which machines are idle,
+ * and reports which busy machine has the next event. A station of
+ * several units has a machine number here for each unit.
+ *
+ * Times are longs. A finish time is at most the sum of every task time
+ * and change-over time of the shop, and with fewer than 2^31 tasks, each
+ * with an int time and change-over time, that sum is below
+ * Long.MAX_VALUE, so times cannot overflow.
+ */
+interface EventList {
+    /**
+     * @return busy machine with the earliest finish time, the smallest
+     *         numbered one if several finish then; 0 if all machines are idle
+     */
+    int nextEventMachine();
 
-    // constructor
-    EventList(int theNumMachines, int theLargeTime) {// initialize
-                                                             // finish
-                                                             // times for
-                                                             // m
-                                                             // machines
-        if (theNumMachines < 1)
-            throw new IllegalArgumentException(MachineShopSimulator.NUMBER_OF_MACHINES_MUST_BE_AT_LEAST_1);
-        finishTime = new int[theNumMachines + 1];
+    /** @return the finish time of theMachine, which must be busy */
+    long nextEventTime(int theMachine);
 
-        // all machines are idle, initialize with
-        // large finish time
-        for (int i = 1; i <= theNumMachines; i++)
-            finishTime[i] = theLargeTime;
-    }
+    /** make theMachine busy until theTime */
+    void setFinishTime(int theMachine, long theTime);
 
-    /** @return machine for next event */
-    public int nextEventMachine() {
-        // find first machine to finish, this is the
-        // machine with smallest finish time
-        int p = 1;
-        int t = finishTime[1];
-        for (int i = 2; i < finishTime.length; i++)
-            if (finishTime[i] < t) {// i finishes earlier
-                p = i;
-                t = finishTime[i];
-            }
-        return p;
-    }
+    /** make theMachine idle; it has no event until it is given a finish time */
+    void setIdle(int theMachine);
 
-    public int nextEventTime(int theMachine) {
-        return finishTime[theMachine];
-    }
-
-    public void setFinishTime(int theMachine, int theTime) {
-        finishTime[theMachine] = theTime;
-    }
+    boolean isIdle(int theMachine);
 
+    /**
+     * make machines 1..theNumMachines idle and drop the rest, so the list
+     * can be used for another run of at most as many machines as it was
+     * created for
+     */
+    void clear(int theNumMachines);
 }
@@ -0,0 +1,21 @@
+package applications;
+
+/** The event list implementations a {@link MachineShopSimulator} can run on. */
+public enum EventListType {
+    /** linear scan over an array of finish times, O(machines) per event */
+    ARRAY {
+        EventList create(int theNumMachines) {
+            return new ArrayEventList(theNumMachines);
+        }
+    },
+
+    /** indexed binary heap of finish times, O(log machines) per event */
+    HEAP {
+        EventList create(int theNumMachines) {
+            return new HeapEventList(theNumMachines);
+        }
+    };
+
+    /** @return a new event list with all theNumMachines machines idle */
+    abstract EventList create(int theNumMachines);
+}
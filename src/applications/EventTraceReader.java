@@ -0,0 +1,157 @@
+package applications;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import exceptions.MyInputException;
+
+/**
+ * Reads a trace written by {@link EventTraceWriter}. The file is memory
+ * mapped in chunks, and any record can be read directly. The main
+ * method exports a trace as CSV, optionally only the records of one
+ * machine or one job:
+ *
+ * <pre>EventTraceReader traceFile [--machine m] [--job j]</pre>
+ */
+public class EventTraceReader {
+    public static final String NOT_A_TRACE = "not a machine shop event trace";
+    public static final String UNSUPPORTED_VERSION = "unsupported event trace version";
+    public static final String CORRUPT_TRACE = "event trace is corrupt";
+
+    public static final String MACHINE_OPTION = "--machine";
+    public static final String JOB_OPTION = "--job";
+
+    private static final MachineTransition[] TRANSITIONS = MachineTransition.values();
+
+    // data members
+    private final MappedByteBuffer[] chunks; // chunks[c] maps the records from c * RECORDS_PER_CHUNK on
+    private final long numRecords;
+
+    /** open the trace file fileName */
+    public EventTraceReader(String fileName) {
+        try (FileInputStream in = new FileInputStream(fileName)) {
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(EventTraceWriter.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0)
+                ;
+            header.flip();
+            if (header.remaining() < EventTraceWriter.HEADER_SIZE || header.getInt() != EventTraceWriter.MAGIC)
+                throw new MyInputException(NOT_A_TRACE);
+            if (header.getInt() != EventTraceWriter.VERSION)
+                throw new MyInputException(UNSUPPORTED_VERSION);
+            numRecords = header.getLong();
+            if (numRecords < 0 || (size - EventTraceWriter.HEADER_SIZE) / EventTraceWriter.RECORD_SIZE < numRecords)
+                throw new MyInputException(CORRUPT_TRACE);
+            int numChunks = (int) ((numRecords + EventTraceWriter.RECORDS_PER_CHUNK - 1)
+                    / EventTraceWriter.RECORDS_PER_CHUNK);
+            chunks = new MappedByteBuffer[numChunks];
+            // map every chunk now; the mappings stay valid after the channel is closed
+            for (int c = 0; c < numChunks; c++) {
+                long start = EventTraceWriter.HEADER_SIZE + c * EventTraceWriter.CHUNK_SIZE;
+                long length = Math.min(EventTraceWriter.CHUNK_SIZE,
+                        (numRecords - (long) c * EventTraceWriter.RECORDS_PER_CHUNK) * EventTraceWriter.RECORD_SIZE);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+    }
+
+    /** @return number of events in the trace */
+    public long getNumRecords() {
+        return numRecords;
+    }
+
+    private MappedByteBuffer chunkOf(long theRecord) {
+        if (theRecord < 0 || theRecord >= numRecords)
+            throw new IndexOutOfBoundsException("record = " + theRecord + " records = " + numRecords);
+        return chunks[(int) (theRecord / EventTraceWriter.RECORDS_PER_CHUNK)];
+    }
+
+    private static int offsetOf(long theRecord) {
+        return (int) (theRecord % EventTraceWriter.RECORDS_PER_CHUNK) * EventTraceWriter.RECORD_SIZE;
+    }
+
+    public long getTime(long theRecord) {
+        return chunkOf(theRecord).getLong(offsetOf(theRecord));
+    }
+
+    public int getMachine(long theRecord) {
+        return chunkOf(theRecord).getInt(offsetOf(theRecord) + 8);
+    }
+
+    /** @return job the record is about, 0 for a machine going idle */
+    public int getJob(long theRecord) {
+        return chunkOf(theRecord).getInt(offsetOf(theRecord) + 12);
+    }
+
+    /** @return task time or change-over time the record starts, 0 for a machine going idle */
+    public int getDuration(long theRecord) {
+        return chunkOf(theRecord).getInt(offsetOf(theRecord) + 16);
+    }
+
+    public int getQueueLength(long theRecord) {
+        return chunkOf(theRecord).getInt(offsetOf(theRecord) + 20);
+    }
+
+    public MachineTransition getTransition(long theRecord) {
+        int ordinal = chunkOf(theRecord).getInt(offsetOf(theRecord) + 24);
+        if (ordinal < 0 || ordinal >= TRANSITIONS.length)
+            throw new MyInputException(CORRUPT_TRACE);
+        return TRANSITIONS[ordinal];
+    }
+
+    /**
+     * write the records of theMachine and theJob to out as CSV, with a
+     * header line; 0 selects every machine or every job
+     */
+    public void writeCsv(OutputStream out, int theMachine, int theJob) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 1 << 16);
+            writer.write("time,machine,job,transition,duration,queueLength\n");
+            for (long i = 0; i < numRecords; i++) {
+                int machine = getMachine(i);
+                int job = getJob(i);
+                if ((theMachine != 0 && machine != theMachine) || (theJob != 0 && job != theJob))
+                    continue;
+                writer.write(getTime(i) + "," + machine + "," + job + "," + getTransition(i) + ","
+                        + getDuration(i) + "," + getQueueLength(i) + "\n");
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** export the trace file args[0] to standard output as CSV */
+    public static void main(String[] args) {
+        int machine = 0;
+        int job = 0;
+        int i = 1;
+        for (; args.length > 0 && i + 1 < args.length; i += 2) {
+            if (args[i].equals(MACHINE_OPTION))
+                machine = Integer.parseInt(args[i + 1]);
+            else if (args[i].equals(JOB_OPTION))
+                job = Integer.parseInt(args[i + 1]);
+            else
+                break;
+        }
+        if (args.length == 0 || i != args.length)
+            throw new IllegalArgumentException(
+                    MachineShopSimulator.UNKNOWN_COMMAND_LINE_OPTIONS + ": " + Arrays.toString(args));
+        new EventTraceReader(args[0]).writeCsv(System.out, machine, job);
+    }
+}
@@ -0,0 +1,127 @@
+package applications;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records every state change of the machines of a
+ * {@link MachineShopSimulator} run to a file, as fixed width records
+ * appended to a memory mapped region of the file. Recording an event
+ * stores six numbers into the mapping and allocates nothing; a new region
+ * is mapped only when the last one is full. The first region holds
+ * {@link #FIRST_CHUNK_RECORDS} records and each one after it twice as
+ * many as the one before, up to {@link #RECORDS_PER_CHUNK}, so short
+ * runs leave short files.
+ *
+ * The file is little-endian: a header of {@link #MAGIC}, {@link #VERSION}
+ * and the number of records as a long, then the records, each the time
+ * (long), the machine, the job, the duration, the queue length and the
+ * transition ordinal (ints), as passed to
+ * {@link MachineStateListener#stateChanged}. {@link EventTraceReader}
+ * reads it back.
+ *
+ * The file is never cut back while a chunk is mapped, which not every
+ * platform allows, so it runs on to the end of the last chunk, at most
+ * as far again as the records before it or one full chunk; readers go
+ * by the number of records in the header and ignore the rest. Each
+ * chunk is forced to disk once it is full, and on closing the last one
+ * is forced before the header that counts its records is written.
+ */
+public class EventTraceWriter implements MachineStateListener {
+    /** trailing command line option of {@link MachineShopSimulator} that traces a run to the given file */
+    public static final String TRACE_OPTION = "--trace";
+
+    static final int MAGIC = 0x5254534d; // "MSTR" in little-endian order
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 28;
+    static final int FIRST_CHUNK_RECORDS = 1 << 10;
+    static final int RECORDS_PER_CHUNK = 1 << 21;
+    static final long CHUNK_SIZE = (long) RECORD_SIZE * RECORDS_PER_CHUNK;
+
+    // data members
+    private final FileChannel channel;
+    private MappedByteBuffer chunk; // mapping the records are appended to
+    private int numChunkRecords = FIRST_CHUNK_RECORDS; // number of records the next chunk holds
+    private long numRecords; // number of records written
+
+    /** create the trace file fileName, replacing any file of that name */
+    public EventTraceWriter(String fileName) {
+        try {
+            channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            writeHeader();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(numRecords).flip();
+        while (header.hasRemaining())
+            channel.write(header, header.position());
+    }
+
+    public void stateChanged(int theMachine, MachineTransition transition, long time, int queueLength,
+            int theJob, int duration) {
+        if (chunk == null || !chunk.hasRemaining())
+            mapNextChunk();
+        chunk.putLong(time);
+        chunk.putInt(theMachine);
+        chunk.putInt(theJob);
+        chunk.putInt(duration);
+        chunk.putInt(queueLength);
+        chunk.putInt(transition.ordinal());
+        numRecords++;
+    }
+
+    private void mapNextChunk() {
+        try {
+            if (chunk != null)
+                chunk.force();
+            // the chunks so far are full, so the next one starts after the last record
+            chunk = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + numRecords * RECORD_SIZE,
+                    (long) numChunkRecords * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.order(ByteOrder.LITTLE_ENDIAN);
+        numChunkRecords = Math.min(2 * numChunkRecords, RECORDS_PER_CHUNK);
+    }
+
+    /** @return number of events recorded so far */
+    public long getNumRecords() {
+        return numRecords;
+    }
+
+    /**
+     * force the records to disk and record their number in the header;
+     * the header is written even if forcing the records fails
+     */
+    public void close() {
+        try {
+            try {
+                if (chunk != null)
+                    chunk.force();
+            } finally {
+                try {
+                    writeHeader();
+                    channel.force(true);
+                } finally {
+                    channel.close();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            chunk = null;
+        }
+    }
+}
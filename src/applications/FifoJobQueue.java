@@ -0,0 +1,32 @@
+package applications;
+
+import dataStructures.IntRingQueue;
+
+/** A {@link JobQueue} that takes the jobs in the order they arrive. */
+class FifoJobQueue implements JobQueue {
+    // data members
+    private final IntRingQueue jobs = new IntRingQueue();
+
+    public boolean isEmpty() {
+        return jobs.isEmpty();
+    }
+
+    public int size() {
+        return jobs.size();
+    }
+
+    public void put(int theJob, int theTaskTime) {
+        jobs.put(theJob);
+    }
+
+    public int remove() {
+        return jobs.remove();
+    }
+
+    public int[] toArray() {
+        int[] result = new int[jobs.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = jobs.get(i);
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package applications;
+
+import java.util.Arrays;
+
+/**
+ * Bounds on the finish time of a shop, worked out from its specification
+ * in one pass over the tasks without simulating it.
+ *
+ * The lower bound is the larger of two bounds. No job completes before
+ * its release time plus the sum of its task times. And the units of a
+ * machine cannot start before the earliest release of a job that visits
+ * it, and between them they must run every task of the machine with a
+ * change-over between consecutive tasks on a unit, so the busiest unit
+ * is busy for at least an even share of that.
+ *
+ * The upper bound holds because a unit never idles while a job waits for
+ * its machine. From the last release until the finish time some unit is
+ * therefore always running a task or changing over, so the finish time
+ * is at most the last release time plus the sum over all tasks of the
+ * task time and the change-over that follows it.
+ */
+public class FinishTimeBounds {
+    // data members
+    private final long jobLengthBound; // longest release time plus job length
+    private final long machineLoadBound; // largest machine load bound
+    private final long upperBound;
+
+    private FinishTimeBounds(long theJobLengthBound, long theMachineLoadBound, long theUpperBound) {
+        jobLengthBound = theJobLengthBound;
+        machineLoadBound = theMachineLoadBound;
+        upperBound = theUpperBound;
+    }
+
+    /** @return the bounds on the finish time of specification */
+    public static FinishTimeBounds of(SimulationSpecification specification) {
+        int numMachines = specification.getNumMachines();
+        long[] load = new long[numMachines + 1]; // sum of the task times on each machine
+        int[] numTasks = new int[numMachines + 1];
+        long[] firstRelease = new long[numMachines + 1]; // earliest release of a job visiting each machine
+        Arrays.fill(firstRelease, Long.MAX_VALUE);
+        long jobLengthBound = 0;
+        long lastRelease = 0;
+        long totalWork = 0; // task and change-over times of all the tasks
+
+        for (int j = 1; j <= specification.getNumJobs(); j++) {
+            JobSpecification job = specification.getJobSpecifications(j);
+            long releaseTime = job.getReleaseTime();
+            int[] specificationsForTasks = job.getSpecificationsForTasks();
+            long length = 0;
+            for (int k = 1; k < specificationsForTasks.length; k += 2) {
+                int machine = specificationsForTasks[k];
+                int time = specificationsForTasks[k + 1];
+                length += time;
+                load[machine] += time;
+                numTasks[machine]++;
+                if (releaseTime < firstRelease[machine])
+                    firstRelease[machine] = releaseTime;
+                totalWork += (long) time + specification.getChangeOverTimes(machine);
+            }
+            jobLengthBound = Math.max(jobLengthBound, releaseTime + length);
+            lastRelease = Math.max(lastRelease, releaseTime);
+        }
+
+        long machineLoadBound = 0;
+        for (int m = 1; m <= numMachines; m++) {
+            if (numTasks[m] == 0)
+                continue;
+            int capacity = specification.getCapacity(m);
+            // a unit changes over between its tasks, but not after its last one
+            long busy = load[m] + (long) Math.max(0, numTasks[m] - capacity) * specification.getChangeOverTimes(m);
+            long bound = firstRelease[m] + (busy + capacity - 1) / capacity;
+            machineLoadBound = Math.max(machineLoadBound, bound);
+        }
+        return new FinishTimeBounds(jobLengthBound, machineLoadBound, lastRelease + totalWork);
+    }
+
+    /** @return the longest time from time 0 to the completion of a job run on its own */
+    public long getJobLengthBound() {
+        return jobLengthBound;
+    }
+
+    /** @return the largest lower bound on the time the units of a machine need for its tasks */
+    public long getMachineLoadBound() {
+        return machineLoadBound;
+    }
+
+    /** @return a time the shop cannot finish before */
+    public long getLowerBound() {
+        return Math.max(jobLengthBound, machineLoadBound);
+    }
+
+    /** @return a time the shop is sure to have finished by */
+    public long getUpperBound() {
+        return upperBound;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + getLowerBound() + ", " + upperBound + "]";
+    }
+}
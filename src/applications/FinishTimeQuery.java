@@ -0,0 +1,71 @@
+package applications;
+
+/**
+ * Answers whether a shop finishes by a deadline, doing as little work as
+ * it can. The {@link FinishTimeBounds} of the shop settle most such
+ * questions without simulating it at all. Only when the deadline falls
+ * between the bounds is the shop run, on a {@link CompactSimulator} kept
+ * from query to query, and then only until every job has completed or
+ * the deadline has passed, without recording the job completions.
+ *
+ * A query may only be used by one thread at a time.
+ */
+public class FinishTimeQuery {
+    /**
+     * command line option of {@link MachineShopSimulator} that asks
+     * whether a specification file finishes by a deadline
+     */
+    public static final String FINISHES_BY_OPTION = "--finishes-by";
+
+    // data members
+    private final CompactSimulator simulator; // runs the shops the bounds do not settle
+    private long numSettledByBounds; // queries answered from the bounds alone
+    private long numSimulated; // queries that needed a run
+
+    /** create a query that uses the array scan event list */
+    public FinishTimeQuery() {
+        this(EventListType.ARRAY);
+    }
+
+    /** create a query that uses the given kind of event list */
+    public FinishTimeQuery(EventListType theEventListType) {
+        simulator = new CompactSimulator(theEventListType);
+    }
+
+    /** @return true if every job of specification completes at or before theDeadline */
+    public boolean finishesBy(SimulationSpecification specification, long theDeadline) {
+        FinishTimeBounds bounds = FinishTimeBounds.of(specification);
+        long lowerBound = bounds.getLowerBound();
+        long upperBound = bounds.getUpperBound();
+        if (lowerBound > theDeadline) {
+            numSettledByBounds++;
+            return false;
+        }
+        // an upper bound below the lower one cannot be trusted, so the shop is run
+        if (upperBound >= lowerBound && upperBound <= theDeadline) {
+            numSettledByBounds++;
+            return true;
+        }
+        numSimulated++;
+        return simulator.finishesBy(TaskTable.fromSpecification(specification), theDeadline);
+    }
+
+    /** @return number of queries answered from the bounds alone */
+    public long getNumSettledByBounds() {
+        return numSettledByBounds;
+    }
+
+    /** @return number of queries that needed the shop to be run */
+    public long getNumSimulated() {
+        return numSimulated;
+    }
+
+    /** print the finish time bounds of the specification file fileName and whether it finishes by theDeadline */
+    static void runCommandLine(long theDeadline, String fileName) {
+        SimulationSpecification specification = SpecificationFiles.readSpecification(fileName);
+        FinishTimeBounds bounds = FinishTimeBounds.of(specification);
+        System.out.println("Finish time is in " + bounds);
+        System.out.println("Finishes by " + theDeadline + ": "
+                + (new FinishTimeQuery().finishesBy(specification, theDeadline) ? "yes" : "no"));
+    }
+}
@@ -0,0 +1,50 @@
+package applications;
+
+import dataStructures.IndexedMinHeap;
+
+/**
+ * Event list that keeps the busy machines in an indexed min heap ordered
+ * by finish time; idle machines are not in the heap at all. Finding the
+ * next event and changing a finish time both cost O(log machines), which
+ * pays off for shops with many machines. Machines with equal finish
+ * times come out smallest machine number first, exactly like
+ * {@link ArrayEventList}.
+ */
+class HeapEventList implements EventList {
+    // data members
+    private IndexedMinHeap finishTimes; // busy machines keyed by finish time
+
+    // constructor
+    HeapEventList(int theNumMachines) {
+        if (theNumMachines < 1)
+            throw new IllegalArgumentException(MachineShopSimulator.NUMBER_OF_MACHINES_MUST_BE_AT_LEAST_1);
+        // all machines are idle, so the heap starts empty
+        finishTimes = new IndexedMinHeap(theNumMachines);
+    }
+
+    /** @return machine for next event */
+    public int nextEventMachine() {
+        return finishTimes.getMinId();
+    }
+
+    public long nextEventTime(int theMachine) {
+        return finishTimes.getKey(theMachine);
+    }
+
+    public void setFinishTime(int theMachine, long theTime) {
+        finishTimes.put(theMachine, theTime);
+    }
+
+    public void setIdle(int theMachine) {
+        finishTimes.remove(theMachine);
+    }
+
+    public boolean isIdle(int theMachine) {
+        return !finishTimes.contains(theMachine);
+    }
+
+    public void clear(int theNumMachines) {
+        // the machines above theNumMachines are idle, and stay so
+        finishTimes.clear();
+    }
+}
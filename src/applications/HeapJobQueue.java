@@ -0,0 +1,34 @@
+package applications;
+
+import dataStructures.StableIntMinHeap;
+
+/** A {@link JobQueue} that takes the jobs in the order of their keys under a dispatch policy. */
+class HeapJobQueue implements JobQueue {
+    // data members
+    private final DispatchPolicy policy;
+    private final StableIntMinHeap jobs = new StableIntMinHeap();
+
+    HeapJobQueue(DispatchPolicy thePolicy) {
+        policy = thePolicy;
+    }
+
+    public boolean isEmpty() {
+        return jobs.isEmpty();
+    }
+
+    public int size() {
+        return jobs.size();
+    }
+
+    public void put(int theJob, int theTaskTime) {
+        jobs.put(theJob, policy.key(theJob, theTaskTime));
+    }
+
+    public int remove() {
+        return jobs.removeMin();
+    }
+
+    public int[] toArray() {
+        return jobs.toArray();
+    }
+}
@@ -1,58 +1,76 @@
 package applications;
 
-import dataStructures.LinkedQueue;
+import dataStructures.IntRingQueue;
 
 class Job {
     // data members
-    private LinkedQueue taskQ; // this job's tasks
-    private int length; // sum of scheduled task times
-    private int arrivalTime; // arrival time at current queue
+    private IntRingQueue taskQ; // this job's tasks as (machine, time) pairs
+    private long length; // sum of scheduled task times
+    private long arrivalTime; // arrival time at current queue
+    private long releaseTime; // time the job joined its first queue
     private int id; // job identifier
-    private int machine; // the machine doing the task
-    private int time; //the time to do the task
 
     // constructor
-    Job(int theId) {
+    Job(int theId, int theNumTasks) {
         id = theId;
-        taskQ = new LinkedQueue();
-        // length and arrivalTime have default value 0
-    }
-
-    Job(int theMachine, int theTime){
-        machine = theMachine;
-        time = theTime;
+        taskQ = new IntRingQueue(2 * theNumTasks);
+        // length, arrivalTime and releaseTime have default value 0
     }
 
     // other methods
     public void addTask(int theMachine, int theTime) {
-        getTaskQ().put(new Job(theMachine, theTime));
+        getTaskQ().put(theMachine);
+        getTaskQ().put(theTime);
     }
 
     /**
      * remove next task of job and return its time also update length
      */
     public int removeNextTask() {
-        int theTime = ((Job) getTaskQ().remove()).getTime();
+        getTaskQ().remove(); // the machine
+        int theTime = getTaskQ().remove();
         length = getLength() + theTime;
         return theTime;
     }
 
-    public LinkedQueue getTaskQ() {
+    /** @return the machine of the next task */
+    public int getNextMachine() {
+        return getTaskQ().getFrontElement();
+    }
+
+    /** @return the time of the next task */
+    public int getNextTaskTime() {
+        return getTaskQ().get(1);
+    }
+
+    public IntRingQueue getTaskQ() {
         return taskQ;
     }
 
-    public int getLength() {
+    public long getLength() {
         return length;
     }
 
-    public int getArrivalTime() {
+    public void setLength(long length) {
+        this.length = length;
+    }
+
+    public long getArrivalTime() {
         return arrivalTime;
     }
 
-    public void setArrivalTime(int arrivalTime) {
+    public void setArrivalTime(long arrivalTime) {
         this.arrivalTime = arrivalTime;
     }
 
+    public long getReleaseTime() {
+        return releaseTime;
+    }
+
+    public void setReleaseTime(long releaseTime) {
+        this.releaseTime = releaseTime;
+    }
+
     public int getId() {
         return id;
     }
@@ -64,15 +82,7 @@ class Job {
      */
 	void putJobOnMachineQueue(MachineShopSimulator machineShopSimulator, int p) {
         Machine machine = machineShopSimulator.getMachine(p);
-        machine.getJobQ().put(this);
-    }
-
-    public int getMachine() {
-        return machine;
-    }
-
-    public int getTime() {
-        return time;
+        machine.getJobQ().put(getId(), getNextTaskTime());
     }
 
 	/**
@@ -85,19 +95,31 @@ class Job {
 	boolean moveToNextMachine(MachineShopSimulator machineShopSimulator, SimulationResults simulationResults, EventList eList) {
 	    if (getTaskQ().isEmpty()) {// the job has no next task; return false
             simulationResults.setJobCompletionData(getId(), machineShopSimulator.getTimeNow(),
-             machineShopSimulator.getTimeNow() - getLength());
+             machineShopSimulator.getTimeNow() - getReleaseTime() - getLength());
 	        return false;
 	    } else {// theJob has a next task
-	        int p = machineShopSimulator.getMachineForNextTask(this);
-	        putJobOnMachineQueue(machineShopSimulator, p);
-	        setArrivalTime(machineShopSimulator.getTimeNow());
-	        if (eList.nextEventTime(p) == machineShopSimulator.getLargeTime()) {
-	            machineShopSimulator.getMachine(p).changeState(p, eList, machineShopSimulator.getTimeNow());
-	        }
+	        arriveAtNextMachine(machineShopSimulator, eList);
 	        return true;
 	    }
 	}
 
+	/**
+	 * put theJob in the queue of the machine of its next task at the
+	 * current time, and start an idle unit of the machine if it has one
+	 * @param machineShopSimulator
+	 * @param eList
+	 */
+	void arriveAtNextMachine(MachineShopSimulator machineShopSimulator, EventList eList) {
+	    int p = machineShopSimulator.getMachineForNextTask(this);
+	    putJobOnMachineQueue(machineShopSimulator, p);
+	    setArrivalTime(machineShopSimulator.getTimeNow());
+	    Machine machine = machineShopSimulator.getMachine(p);
+	    int unit = machine.idleUnit(eList);
+	    if (unit != 0) {
+	        machine.changeState(unit, eList, machineShopSimulator.getTimeNow());
+	    }
+	}
+
     public static int getNumTasks(SimulationSpecification specification, int i) {
         return specification.getJobSpecifications(i).getNumTasks();
     }
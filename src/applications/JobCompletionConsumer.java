@@ -0,0 +1,10 @@
+package applications;
+
+/**
+ * Receives the completion of one job, as primitives, from
+ * {@link SimulationResults#forEachJobCompletion}.
+ */
+@FunctionalInterface
+public interface JobCompletionConsumer {
+    void accept(int jobNumber, long completionTime, long totalWaitTime);
+}
@@ -1,21 +1,21 @@
 package applications;
 
 public class JobCompletionData {
-    private final int completionTime;
-    private final int totalWaitTime;
+    private final long completionTime;
+    private final long totalWaitTime;
     private final int jobNumber;
 
-    public JobCompletionData(int jobNumber, int completionTime, int totalWaitTime) {
+    public JobCompletionData(int jobNumber, long completionTime, long totalWaitTime) {
         this.jobNumber = jobNumber;
         this.completionTime = completionTime;
         this.totalWaitTime = totalWaitTime;
     }
 
-    public int getCompletionTime() {
+    public long getCompletionTime() {
         return completionTime;
     }
 
-    public int getTotalWaitTime() {
+    public long getTotalWaitTime() {
         return totalWaitTime;
     }
 
@@ -0,0 +1,24 @@
+package applications;
+
+/** The jobs waiting for one machine, in the order its dispatch policy takes them. */
+interface JobQueue {
+    boolean isEmpty();
+
+    int size();
+
+    /** add theJob, whose task on the machine takes theTaskTime */
+    void put(int theJob, int theTaskTime);
+
+    /** remove the job the machine takes next, and return it */
+    int remove();
+
+    /** @return the jobs, in the order the machine would take them */
+    int[] toArray();
+
+    /** @return an empty queue ordered by policy */
+    static JobQueue create(DispatchPolicy policy) {
+        if (policy == DispatchPolicy.FIFO)
+            return new FifoJobQueue();
+        return new HeapJobQueue(policy);
+    }
+}
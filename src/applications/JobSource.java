@@ -0,0 +1,85 @@
+package applications;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Supplies the jobs of an {@link OpenShopSimulator}, one at a time and in
+ * order of release time. It is a cursor: {@link #advance} moves it on to
+ * the next job, whose release time and tasks can then be read, so a
+ * source that generates its jobs need not create an object per job.
+ */
+public interface JobSource {
+    /** @return true if there is a next job, which is then the current one; false if there are no more jobs */
+    boolean advance();
+
+    /** @return release time of the current job, no earlier than that of the job before it */
+    long getReleaseTime();
+
+    /**
+     * @return tasks of the current job as (machine, time) pairs from index 1,
+     *     as in {@link JobSpecification}; the simulator holds on to the
+     *     array until the job completes, so it must not be changed
+     */
+    int[] getSpecificationsForTasks();
+
+    /** @return source of the jobs of specification, by release time and then by job number */
+    static JobSource fromSpecification(SimulationSpecification specification) {
+        // a release time and a job number fit together in a long sort key
+        long[] keys = new long[specification.getNumJobs()];
+        for (int j = 1; j <= keys.length; j++)
+            keys[j - 1] = (long) specification.getJobSpecifications(j).getReleaseTime() << 32 | j;
+        Arrays.sort(keys);
+        int[] jobs = new int[keys.length];
+        for (int i = 0; i < keys.length; i++)
+            jobs[i] = (int) keys[i];
+        return new JobSource() {
+            private int next; // index in jobs of the next job
+            private JobSpecification current;
+
+            public boolean advance() {
+                if (next == jobs.length)
+                    return false;
+                current = specification.getJobSpecifications(jobs[next++]);
+                return true;
+            }
+
+            public long getReleaseTime() {
+                return current.getReleaseTime();
+            }
+
+            public int[] getSpecificationsForTasks() {
+                return current.getSpecificationsForTasks();
+            }
+        };
+    }
+
+    /**
+     * @return an endless source of jobs drawn uniformly from the jobs of
+     *     mix, their release times ignored, arriving with exponentially
+     *     distributed times of mean meanInterarrivalTime between them
+     */
+    static JobSource sampling(SimulationSpecification mix, double meanInterarrivalTime, long seed) {
+        if (!(meanInterarrivalTime > 0))
+            throw new IllegalArgumentException(OpenShopSimulator.MEAN_INTERARRIVAL_TIME_MUST_BE_POSITIVE);
+        SplittableRandom random = new SplittableRandom(seed);
+        return new JobSource() {
+            private double time; // release time of the current job, unrounded
+            private int[] tasks;
+
+            public boolean advance() {
+                time += -meanInterarrivalTime * Math.log(1 - random.nextDouble());
+                tasks = mix.getJobSpecifications(random.nextInt(mix.getNumJobs()) + 1).getSpecificationsForTasks();
+                return true;
+            }
+
+            public long getReleaseTime() {
+                return Math.round(time);
+            }
+
+            public int[] getSpecificationsForTasks() {
+                return tasks;
+            }
+        };
+    }
+}
@@ -3,6 +3,7 @@ package applications;
 public class JobSpecification {
     private int numTasks;
     private int[] specificationsForTasks;
+    private int releaseTime; // time the job joins its first queue
 
     public void setNumTasks(int numTasks) {
         this.numTasks = numTasks;
@@ -19,4 +20,13 @@ public class JobSpecification {
     public int[] getSpecificationsForTasks() {
         return specificationsForTasks;
     }
+
+    public void setReleaseTime(int releaseTime) {
+        this.releaseTime = releaseTime;
+    }
+
+    /** @return time the job joins the queue of its first machine, 0 if it is there from the start */
+    public int getReleaseTime() {
+        return releaseTime;
+    }
 }
@@ -0,0 +1,396 @@
+package applications;
+
+import java.nio.charset.StandardCharsets;
+
+import exceptions.MyInputException;
+
+/**
+ * Reads a specification written as JSON, for clients that would rather
+ * not produce the text format. The machines are given by their change-over
+ * times, and the shop has stations if it also gives their capacities:
+ *
+ * <pre>
+ * {"changeOverTimes": [2, 3],
+ *  "capacities": [1, 2],
+ *  "jobs": [{"releaseTime": 0, "tasks": [[1, 2], [2, 4]]},
+ *           {"tasks": [[2, 3]]}]}
+ * </pre>
+ *
+ * Each task is a (machine, time) pair. The jobs have release times if any
+ * of them gives one, and a job that gives none is released at 0. The
+ * values are checked as by {@link SpecificationReader}, with the same
+ * messages, and any other fault in the input is also reported as a
+ * {@link MyInputException}.
+ *
+ * The reader pulls the values of the fixed fields of the format straight
+ * from the bytes, building no tree of the document. A first pass checks
+ * the form of the input and counts the machines and jobs, and a second
+ * pushes the values into the sink, counting the tasks of each job just
+ * before them, so the sink learns every count before it stores anything.
+ */
+public class JsonSpecificationReader {
+    public static final String BAD_JSON = "bad JSON";
+    public static final String UNKNOWN_FIELD = "unknown field";
+    public static final String MISSING_FIELD = "missing field";
+    public static final String WRONG_NUMBER_OF_CAPACITIES = "wrong number of capacities";
+
+    /** longest field name given in full in a message */
+    private static final int MAX_NAME_LENGTH = 32;
+
+    static final String CHANGE_OVER_TIMES = "changeOverTimes";
+    static final String CAPACITIES = "capacities";
+    static final String JOBS = "jobs";
+    static final String RELEASE_TIME = "releaseTime";
+    static final String TASKS = "tasks";
+
+    // data members
+    private final byte[] text; // the UTF-8 encoded JSON being read
+    private int position; // index in text of the next byte to parse
+    private int changeOverTimesAt = -1; // position of the change-over times, -1 if not given
+    private int capacitiesAt = -1; // position of the capacities, -1 if not given
+    private int jobsAt = -1; // position of the jobs, -1 if not given
+    private int numMachines; // number of change-over times
+    private int numCapacities; // number of capacities
+    private int numJobs; // number of jobs
+    private boolean releases; // some job gives a release time
+
+    /** create a reader of the UTF-8 encoded JSON in bytes */
+    public JsonSpecificationReader(byte[] bytes) {
+        text = bytes;
+    }
+
+    /** create a reader of the JSON in theText */
+    public JsonSpecificationReader(String theText) {
+        this(theText.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** input machine shop data */
+    public SimulationSpecification readSpecification() {
+        SpecificationBuilder builder = new SpecificationBuilder();
+        readInto(builder);
+        return builder.getSpecification();
+    }
+
+    /**
+     * input machine shop data, pushing every piece into sink in the order
+     * {@link SpecificationSink} gives once it has been checked
+     */
+    public void readInto(SpecificationSink sink) {
+        scanSpecification();
+        if (numMachines < 1 || numJobs < 1)
+            throw new MyInputException(MachineShopSimulator.NUMBER_OF_MACHINES_AND_JOBS_MUST_BE_AT_LEAST_1);
+        sink.setNumMachinesAndJobs(numMachines, numJobs);
+
+        position = changeOverTimesAt;
+        int[] times = new int[numMachines + 1];
+        expect('[');
+        for (int m = 1; m <= numMachines; m++) {
+            if (m > 1)
+                expect(',');
+            times[m] = readInteger(CHANGE_OVER_TIMES);
+            if (times[m] < 0)
+                throw new MyInputException(MachineShopSimulator.CHANGE_OVER_TIME_MUST_BE_AT_LEAST_0);
+        }
+        sink.setChangeOverTimes(times);
+
+        if (capacitiesAt >= 0) {
+            if (numCapacities != numMachines)
+                throw new MyInputException(WRONG_NUMBER_OF_CAPACITIES);
+            position = capacitiesAt;
+            int[] units = new int[numMachines + 1];
+            expect('[');
+            for (int m = 1; m <= numMachines; m++) {
+                if (m > 1)
+                    expect(',');
+                units[m] = readInteger(CAPACITIES);
+                if (units[m] < 1)
+                    throw new MyInputException(MachineShopSimulator.CAPACITY_MUST_BE_AT_LEAST_1);
+            }
+            sink.setCapacities(units);
+        }
+
+        position = jobsAt;
+        expect('[');
+        for (int i = 1; i <= numJobs; i++) {
+            if (i > 1)
+                expect(',');
+            pushJob(sink, i);
+        }
+    }
+
+    /** push the job theJob, whose object starts at position, into sink */
+    private void pushJob(SpecificationSink sink, int theJob) {
+        int releaseTime = 0;
+        int tasksAt = -1;
+        expect('{');
+        do {
+            if (parseName().equals(RELEASE_TIME)) {
+                expect(':');
+                releaseTime = readInteger(RELEASE_TIME);
+            } else {
+                expect(':');
+                skipWhitespace();
+                tasksAt = position;
+                skipTasks();
+            }
+        } while (skip(','));
+        expect('}');
+        int end = position;
+
+        if (releaseTime < 0)
+            throw new MyInputException(MachineShopSimulator.RELEASE_TIME_MUST_BE_AT_LEAST_0);
+        position = tasksAt;
+        int numTasks = skipTasks();
+        if (numTasks == 0)
+            throw new MyInputException(MachineShopSimulator.EACH_JOB_MUST_HAVE_AT_LEAST_1_TASK);
+        sink.startJob(theJob, numTasks);
+        if (releases)
+            sink.setReleaseTime(releaseTime);
+        position = tasksAt;
+        expect('[');
+        for (int k = 0; k < numTasks; k++) {
+            if (k > 0)
+                expect(',');
+            expect('[');
+            int theMachine = readInteger(TASKS);
+            expect(',');
+            int theTaskTime = readInteger(TASKS);
+            expect(']');
+            if (theMachine < 1 || theMachine > numMachines || theTaskTime < 1)
+                throw new MyInputException(MachineShopSimulator.BAD_MACHINE_NUMBER_OR_TASK_TIME);
+            sink.addTask(theMachine, theTaskTime);
+        }
+        position = end;
+    }
+
+    // the first pass, which checks the form of the whole input, notes
+    // where each field of the specification starts and counts the values
+
+    private void scanSpecification() {
+        position = 0;
+        changeOverTimesAt = -1;
+        capacitiesAt = -1;
+        jobsAt = -1;
+        releases = false;
+        skipWhitespace();
+        if (position >= text.length || text[position] != '{')
+            throw new MyInputException(BAD_JSON + ": specification must be an object");
+        position++;
+        if (!skip('}')) {
+            do {
+                String name = parseName();
+                expect(':');
+                skipWhitespace();
+                if (name.equals(CHANGE_OVER_TIMES)) {
+                    checkRepeated(changeOverTimesAt, name);
+                    changeOverTimesAt = position;
+                    numMachines = skipIntegers(name);
+                } else if (name.equals(CAPACITIES)) {
+                    checkRepeated(capacitiesAt, name);
+                    capacitiesAt = position;
+                    numCapacities = skipIntegers(name);
+                } else if (name.equals(JOBS)) {
+                    checkRepeated(jobsAt, name);
+                    jobsAt = position;
+                    numJobs = scanJobs();
+                } else
+                    throw new MyInputException(UNKNOWN_FIELD + ": " + name);
+            } while (skip(','));
+            expect('}');
+        }
+        skipWhitespace();
+        if (position < text.length)
+            throw error("text after the specification");
+        if (changeOverTimesAt < 0)
+            throw new MyInputException(MISSING_FIELD + ": " + CHANGE_OVER_TIMES);
+        if (jobsAt < 0)
+            throw new MyInputException(MISSING_FIELD + ": " + JOBS);
+    }
+
+    /** @return the number of jobs in the array of jobs at position */
+    private int scanJobs() {
+        expectArray(JOBS);
+        if (skip(']'))
+            return 0;
+        int count = 0;
+        do {
+            skipWhitespace();
+            if (position >= text.length || text[position] != '{')
+                throw new MyInputException(BAD_JSON + ": " + JOBS + " must be an object");
+            position++;
+            boolean releaseTime = false;
+            boolean tasks = false;
+            if (!skip('}')) {
+                do {
+                    String name = parseName();
+                    expect(':');
+                    skipWhitespace();
+                    if (name.equals(RELEASE_TIME)) {
+                        if (releaseTime)
+                            throw error("repeated field " + name);
+                        releaseTime = true;
+                        readInteger(name);
+                    } else if (name.equals(TASKS)) {
+                        if (tasks)
+                            throw error("repeated field " + name);
+                        tasks = true;
+                        skipTasks();
+                    } else
+                        throw new MyInputException(UNKNOWN_FIELD + ": " + name);
+                } while (skip(','));
+                expect('}');
+            }
+            if (!tasks)
+                throw new MyInputException(MISSING_FIELD + ": " + TASKS);
+            releases |= releaseTime;
+            count++;
+        } while (skip(','));
+        expect(']');
+        return count;
+    }
+
+    private void checkRepeated(int at, String name) {
+        if (at >= 0)
+            throw error("repeated field " + name);
+    }
+
+    /** @return the number of integers in the array of integers named name at position */
+    private int skipIntegers(String name) {
+        expectArray(name);
+        if (skip(']'))
+            return 0;
+        int count = 0;
+        do {
+            readInteger(name);
+            count++;
+        } while (skip(','));
+        expect(']');
+        return count;
+    }
+
+    /** @return the number of (machine, time) pairs in the array of tasks at position */
+    private int skipTasks() {
+        expectArray(TASKS);
+        if (skip(']'))
+            return 0;
+        int count = 0;
+        do {
+            expectArray(TASKS);
+            if (skip(']'))
+                throw new MyInputException(BAD_JSON + ": a task must be a (machine, time) pair");
+            int numValues = 0;
+            do {
+                readInteger(TASKS);
+                numValues++;
+            } while (skip(','));
+            expect(']');
+            if (numValues != 2)
+                throw new MyInputException(BAD_JSON + ": a task must be a (machine, time) pair");
+            count++;
+        } while (skip(','));
+        expect(']');
+        return count;
+    }
+
+    // the tokens of the JSON the format uses: objects, arrays, strings as
+    // names and integers
+
+    private MyInputException error(String message) {
+        return new MyInputException(BAD_JSON + " at " + position + ": " + message);
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length) {
+            byte c = text[position];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r')
+                break;
+            position++;
+        }
+    }
+
+    private void expect(char c) {
+        skipWhitespace();
+        if (position >= text.length || text[position] != c)
+            throw error("expected " + c);
+        position++;
+    }
+
+    /** skip the opening bracket of the array named name */
+    private void expectArray(String name) {
+        skipWhitespace();
+        if (position >= text.length || text[position] != '[')
+            throw new MyInputException(BAD_JSON + ": " + name + " must be an array");
+        position++;
+    }
+
+    /** @return true, and skip it, if the next character is c */
+    private boolean skip(char c) {
+        skipWhitespace();
+        if (position < text.length && text[position] == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * parse a field name, which needs no escapes beyond \" and \\; a name
+     * longer than MAX_NAME_LENGTH bytes, which no field has, is cut short
+     * and marked with "..."
+     */
+    private String parseName() {
+        expect('"');
+        byte[] name = new byte[MAX_NAME_LENGTH];
+        int length = 0;
+        boolean cut = false;
+        while (true) {
+            if (position >= text.length)
+                throw error("unterminated string");
+            byte c = text[position++];
+            if (c == '"')
+                break;
+            if (c == '\\') {
+                if (position >= text.length || text[position] != '"' && text[position] != '\\')
+                    throw error("unsupported escape");
+                c = text[position++];
+            }
+            if (length < MAX_NAME_LENGTH)
+                name[length++] = c;
+            else
+                cut = true;
+        }
+        String string = new String(name, 0, length, StandardCharsets.UTF_8);
+        return cut ? string + "..." : string;
+    }
+
+    /** @return the integer at position, which is a value of name */
+    private int readInteger(String name) {
+        skipWhitespace();
+        int start = position;
+        boolean negative = position < text.length && text[position] == '-';
+        if (negative)
+            position++;
+        long value = 0;
+        boolean tooLarge = false;
+        int digitsAt = position;
+        while (position < text.length && text[position] >= '0' && text[position] <= '9') {
+            if (!tooLarge)
+                value = 10 * value + (text[position] - '0');
+            tooLarge |= value > Integer.MAX_VALUE + 1L;
+            position++;
+        }
+        if (position == digitsAt) {
+            position = start;
+            if (position >= text.length)
+                throw error("unexpected end");
+            throw new MyInputException(BAD_JSON + ": " + name + " must hold integers");
+        }
+        if (position < text.length && ".eE".indexOf(text[position]) >= 0)
+            throw error("numbers must be integers");
+        if (negative)
+            value = -value;
+        if (tooLarge || value != (int) value)
+            throw new MyInputException(BAD_JSON + ": " + name + " must hold integers");
+        return (int) value;
+    }
+}
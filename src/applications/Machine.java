@@ -1,21 +1,32 @@
 package applications;
 
-import dataStructures.LinkedQueue;
-
+/**
+ * A station of one or more identical units sharing a queue. Each unit
+ * has its own slot in the event list, numbered from firstUnit on, and
+ * processes one job at a time.
+ */
 class Machine {
     // data members
-    private LinkedQueue jobQ; // queue of waiting jobs for this machine
+    private JobQueue jobQ; // ids of the jobs waiting for this machine
+    private Job[] jobs; // all jobs of the shop, indexed by id
+    private int number; // machine number, as told to the listener
+    private int firstUnit; // event list slot of the first unit
     private int changeTime; // machine change-over time
-    private int totalWait; // total delay at this machine
+    private long totalWait; // total delay at this machine
     private int numTasks; // number of tasks processed on this machine
-    private Job activeJob; // job currently active on this machine
+    private Job[] activeJobs; // job currently active on each unit, null if none
+    private MachineStateListener listener; // told of state changes, null if none
 
     // constructor
-    Machine() {
-        jobQ = new LinkedQueue();
+    Machine(int theNumber, int theFirstUnit, int theCapacity, Job[] theJobs, DispatchPolicy thePolicy) {
+        number = theNumber;
+        firstUnit = theFirstUnit;
+        activeJobs = new Job[theCapacity];
+        jobQ = JobQueue.create(thePolicy);
+        jobs = theJobs;
     }
 
-    public LinkedQueue getJobQ() {
+    public JobQueue getJobQ() {
         return jobQ;
     }
 
@@ -27,11 +38,11 @@ class Machine {
         this.changeTime = changeTime;
     }
 
-    public int getTotalWait() {
+    public long getTotalWait() {
         return totalWait;
     }
 
-    public void setTotalWait(int totalWait) {
+    public void setTotalWait(long totalWait) {
         this.totalWait = totalWait;
     }
 
@@ -43,44 +54,75 @@ class Machine {
         this.numTasks = numTasks;
     }
 
-    public Job getActiveJob() {
-        return activeJob;
+    /** @return number of units */
+    public int getCapacity() {
+        return activeJobs.length;
+    }
+
+    /** @return event list slot of the first unit, the others following it */
+    public int getFirstUnit() {
+        return firstUnit;
+    }
+
+    public Job getActiveJob(int theUnit) {
+        return activeJobs[theUnit - firstUnit];
+    }
+
+    public void setActiveJob(int theUnit, Job activeJob) {
+        activeJobs[theUnit - firstUnit] = activeJob;
+    }
+
+    /** @return the lowest numbered idle unit, 0 if every unit is busy */
+    public int idleUnit(EventList eList) {
+        for (int unit = firstUnit; unit < firstUnit + activeJobs.length; unit++)
+            if (eList.isIdle(unit))
+                return unit;
+        return 0;
     }
 
-    public void setActiveJob(Job activeJob) {
-        this.activeJob = activeJob;
+    public void setListener(MachineStateListener theListener) {
+        listener = theListener;
     }
 
     /**
-     * change the state of theMachine
-     * @return last job run on this machine
+     * change the state of theUnit of this machine
+     * @return last job run on the unit
      */
-    public Job changeState(int num, EventList eList, int now) {
+    public Job changeState(int theUnit, EventList eList, long now) {
         Job lastJob;
-        if (getActiveJob() == null) {
+        if (getActiveJob(theUnit) == null) {
             lastJob = null;
-            if (getJobQ().isEmpty())
-                eList.setFinishTime(num, Integer.MAX_VALUE);
-            else {
-                setActiveJob((Job) getJobQ().remove());
+            if (getJobQ().isEmpty()) {
+                eList.setIdle(theUnit);
+                if (listener != null)
+                    listener.stateChanged(number, MachineTransition.TO_IDLE, now, 0, 0, 0);
+            } else {
+                Job activeJob = jobs[getJobQ().remove()];
+                setActiveJob(theUnit, activeJob);
                 setTotalWait(getTotalWait() + now
-                        - getActiveJob().getArrivalTime());
+                        - activeJob.getArrivalTime());
                 setNumTasks(getNumTasks() + 1);
-                int t = getActiveJob().removeNextTask();
-                eList.setFinishTime(num,  now + t);
+                int t = activeJob.removeNextTask();
+                eList.setFinishTime(theUnit,  now + t);
+                if (listener != null)
+                    listener.stateChanged(number, MachineTransition.TO_BUSY, now, getJobQ().size(),
+                            activeJob.getId(), t);
             }
         }
         else {
-            lastJob = getActiveJob();
-            setActiveJob(null);
-            eList.setFinishTime(num, now
+            lastJob = getActiveJob(theUnit);
+            setActiveJob(theUnit, null);
+            eList.setFinishTime(theUnit, now
                     + getChangeTime());
+            if (listener != null)
+                listener.stateChanged(number, MachineTransition.TO_CHANGE_OVER, now, getJobQ().size(),
+                        lastJob.getId(), getChangeTime());
         }
         return lastJob;
     }
 
     //Sets the total wait time and number of tasks for the simulation results
-    public static void setTotalAndNumTasksPerMachine(SimulationResults simulationResults, int[] total, Machine[] m) {
+    public static void setTotalAndNumTasksPerMachine(SimulationResults simulationResults, long[] total, Machine[] m) {
         int[] numTask = new int[total.length];
         for (int i=1; i<=total.length-1; ++i) {
             total[i] = m[i].getTotalWait();
@@ -1,25 +1,100 @@
 package applications;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import dataStructures.IntRingQueue;
+import exceptions.MyInputException;
+
 public class MachineShopSimulator {
 
     // error message strings
     public static final String NUMBER_OF_MACHINES_MUST_BE_AT_LEAST_1 = "number of machines must be >= 1";
     public static final String NUMBER_OF_MACHINES_AND_JOBS_MUST_BE_AT_LEAST_1 = "number of machines and jobs must be >= 1";
     public static final String CHANGE_OVER_TIME_MUST_BE_AT_LEAST_0 = "change-over time must be >= 0";
+    public static final String CAPACITY_MUST_BE_AT_LEAST_1 = "station capacity must be >= 1";
+    public static final String WRONG_NUMBER_OF_MACHINES = "wrong number of machines";
+    public static final String RELEASE_TIME_MUST_BE_AT_LEAST_0 = "release time must be >= 0";
     public static final String EACH_JOB_MUST_HAVE_AT_LEAST_1_TASK = "each job must have >= 1 task";
     public static final String BAD_MACHINE_NUMBER_OR_TASK_TIME = "bad machine number or task time";
+    public static final String UNKNOWN_COMMAND_LINE_OPTIONS = "unknown command line options";
+    public static final String USAGE = "usage";
+    public static final String CHECKPOINT_INTERVAL_MUST_BE_AT_LEAST_1 = "checkpoint interval must be >= 1";
 
     // data members of MachineShopSimulator
-    private int timeNow; // current time
+    private long timeNow; // current time
     private int numMachines; // number of machines
+    private int[] capacities; // number of units of each machine, indexed by machine number
+    private int[] unitMachine; // machine of each event list slot
     private int numJobs; // number of jobs
     private EventList eList; // pointer to event list
     private Machine[] machines; // array of machines
-    private int finishTime; // all machines finish before this
+    private Job[] jobs; // array of jobs, indexed by id
+    private int[] releaseOrder; // jobs released after time 0, by release time and then id
+    private int nextRelease; // index in releaseOrder of the next job to be released
+    private final EventListType eventListType; // kind of event list to use
+    private boolean metricsEnabled; // collect metrics on each run
+    private MachineStateListener listener; // installed on the machines, null if none
+    private String checkpointFile; // file each run is checkpointed to, null if none
+    private long checkpointInterval; // events between checkpoints
+    private CheckpointWriter.Buffer checkpointCompletions; // the completions encoded for the run's checkpoints
+    private DataOutputStream completionsOut; // appends to checkpointCompletions
+    private int numCompletionsEncoded; // completions in checkpointCompletions
+    private long eventsBefore; // events processed before the run was resumed
+    private String traceFile; // file each run's events are traced to, null if none
+    private DispatchPolicy dispatchPolicy = DispatchPolicy.FIFO; // order the machines take waiting jobs in
+
+    /** create a simulator that uses the array scan event list */
+    public MachineShopSimulator() {
+        this(EventListType.ARRAY);
+    }
+
+    /** create a simulator that uses the given kind of event list */
+    public MachineShopSimulator(EventListType theEventListType) {
+        eventListType = theEventListType;
+    }
+
+    /**
+     * collect metrics on every following run, returned with the results;
+     * a run without them makes no calls to record anything
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        metricsEnabled = enabled;
+    }
+
+    /**
+     * checkpoint every following run to the file fileName after every
+     * theInterval events, writing in the background; a null fileName
+     * stops checkpointing
+     */
+    public void setCheckpointing(String fileName, long theInterval) {
+        if (theInterval < 1)
+            throw new IllegalArgumentException(CHECKPOINT_INTERVAL_MUST_BE_AT_LEAST_1);
+        checkpointFile = fileName;
+        checkpointInterval = theInterval;
+    }
+
+    /**
+     * record every event of every following run to the file fileName with
+     * an {@link EventTraceWriter}; a null fileName stops tracing
+     */
+    public void setTraceFile(String fileName) {
+        traceFile = fileName;
+    }
+
+    /** make the machines of every following run take their waiting jobs in the order of thePolicy */
+    public void setDispatchPolicy(DispatchPolicy thePolicy) {
+        dispatchPolicy = Objects.requireNonNull(thePolicy);
+    }
 
     int getMachineForNextTask(Job theJob) {
-        int machineNum = ((Job) theJob.getTaskQ().getFrontElement()).getMachine();
-        return machineNum;
+        return theJob.getNextMachine();
     }
 
     /**
@@ -40,9 +115,11 @@ public class MachineShopSimulator {
     private void setUpJobs(SimulationSpecification specification) {
         Job theJob;
         for (int currentJob = 1; currentJob <= specification.getNumJobs(); currentJob++) {
+            int releaseTime = specification.getJobSpecifications(currentJob).getReleaseTime();
             int tasks = Job.getNumTasks(specification, currentJob);
             int firstMachine = 0;
-            theJob = new Job(currentJob);
+            theJob = new Job(currentJob, tasks);
+            jobs[currentJob] = theJob;
             for (int currentTask = 1; currentTask <= tasks; currentTask++) {
                 int theMachine = getMachineNumber(specification, currentJob, currentTask);
                 int theTaskTime = getTaskTime(specification, currentJob, currentTask);
@@ -50,8 +127,26 @@ public class MachineShopSimulator {
                     firstMachine = theMachine;
                 theJob.addTask(theMachine, theTaskTime);
             }
-            theJob.putJobOnMachineQueue(this, firstMachine);
+            theJob.setReleaseTime(releaseTime);
+            if (releaseTime == 0)
+                theJob.putJobOnMachineQueue(this, firstMachine);
         }
+        orderReleases();
+    }
+
+    /** list the jobs released after time 0 by release time and then by id, as {@link TaskTable} does */
+    private void orderReleases() {
+        // a release time is an int, so it and the job id pack into a long sort key
+        long[] keys = new long[jobs.length - 1];
+        int numReleases = 0;
+        for (int j = 1; j < jobs.length; j++)
+            if (jobs[j].getReleaseTime() > 0)
+                keys[numReleases++] = jobs[j].getReleaseTime() << 32 | j;
+        Arrays.sort(keys, 0, numReleases);
+        releaseOrder = new int[numReleases];
+        for (int i = 0; i < numReleases; i++)
+            releaseOrder[i] = (int) keys[i];
+        nextRelease = 0;
     }
     /**
      * get task time for setting up jobs
@@ -74,11 +169,24 @@ public class MachineShopSimulator {
         return specification.getJobSpecifications(i).getSpecificationsForTasks()[2*(j-1)+1];
     }
 
-    private void createEventAndMachineQueues(SimulationSpecification specification) {
-        eList = new EventList(specification.getNumMachines(), finishTime);
-        machines = new Machine[specification.getNumMachines() + 1];
-        for (int currentMachine = 1; currentMachine <= specification.getNumMachines(); currentMachine++)
-            machines[currentMachine] = new Machine();
+    /** create the machines with the given capacities, each unit with its own slot in the event list */
+    private void createEventAndMachineQueues(int[] theCapacities, int theNumJobs) {
+        int numUnits = 0;
+        for (int currentMachine = 1; currentMachine < theCapacities.length; currentMachine++)
+            numUnits += theCapacities[currentMachine];
+        eList = eventListType.create(numUnits);
+        capacities = theCapacities;
+        unitMachine = new int[numUnits + 1];
+        jobs = new Job[theNumJobs + 1];
+        machines = new Machine[theCapacities.length];
+        int unit = 1;
+        for (int currentMachine = 1; currentMachine < theCapacities.length; currentMachine++) {
+            machines[currentMachine] = new Machine(currentMachine, unit, theCapacities[currentMachine],
+                    jobs, dispatchPolicy);
+            machines[currentMachine].setListener(listener);
+            for (int i = 0; i < theCapacities[currentMachine]; i++)
+                unitMachine[unit++] = currentMachine;
+        }
     }
 
     /**
@@ -88,28 +196,261 @@ public class MachineShopSimulator {
     void startShop(SimulationSpecification specification) {
         numMachines = specification.getNumMachines();
         numJobs = specification.getNumJobs();
-        createEventAndMachineQueues(specification);
+        int[] theCapacities = new int[numMachines + 1];
+        for (int theMachine = 1; theMachine <= numMachines; theMachine++)
+            theCapacities[theMachine] = specification.getCapacity(theMachine);
+        createEventAndMachineQueues(theCapacities, numJobs);
         setMachineChangeOverTimes(specification);
         setUpJobs(specification);
 
-        for (int theMachine = 1; theMachine <= numMachines; theMachine++)
-            machines[theMachine].changeState(theMachine, eList, timeNow);
+        for (int unit = 1; unit < unitMachine.length; unit++)
+            machines[unitMachine[unit]].changeState(unit, eList, timeNow);
     }
 
     /**
      * process all jobs to completion
      * @param simulationResults
+     * @return number of events processed
+     */
+    long simulate(SimulationResults simulationResults) {
+        CheckpointWriter checkpointWriter = null;
+        if (checkpointFile != null) {
+            checkpointWriter = new CheckpointWriter(checkpointFile);
+            // the last run's writer has finished with the buffer, so it can be refilled
+            if (checkpointCompletions == null) {
+                checkpointCompletions = new CheckpointWriter.Buffer();
+                completionsOut = new DataOutputStream(checkpointCompletions);
+            } else
+                checkpointCompletions.reset();
+            numCompletionsEncoded = 0;
+        }
+        long events = 0;
+        try {
+            while (numJobs > 0) {
+                events++;
+                int nextToFinish = eList.nextEventMachine();
+                processEvent(nextToFinish, releaseIsNext(nextToFinish), simulationResults);
+                if (checkpointWriter != null && (eventsBefore + events) % checkpointInterval == 0)
+                    checkpoint(checkpointWriter, simulationResults, eventsBefore + events);
+            }
+        } finally {
+            if (checkpointWriter != null)
+                checkpointWriter.close();
+        }
+        return events;
+    }
+
+    /**
+     * process events in order until all jobs are done, theMaxEvents have
+     * been processed or the next event is after theEndTime
+     * @param simulationResults
+     * @return number of events processed
      */
-    void simulate(SimulationResults simulationResults) {
-        while (numJobs > 0) {
+    long advance(SimulationResults simulationResults, long theMaxEvents, long theEndTime) {
+        long events = 0;
+        while (numJobs > 0 && events < theMaxEvents) {
             int nextToFinish = eList.nextEventMachine();
+            boolean release = releaseIsNext(nextToFinish);
+            long eventTime = release ? jobs[releaseOrder[nextRelease]].getReleaseTime()
+                    : eList.nextEventTime(nextToFinish);
+            if (eventTime > theEndTime)
+                break;
+            events++;
+            processEvent(nextToFinish, release, simulationResults);
+        }
+        return events;
+    }
+
+    /**
+     * @param nextToFinish unit with the next event, 0 if all are idle
+     * @return true if the next event is the release of a job, which comes
+     *         before the events of the units at the same time
+     */
+    private boolean releaseIsNext(int nextToFinish) {
+        return nextRelease < releaseOrder.length && (nextToFinish == 0
+                || jobs[releaseOrder[nextRelease]].getReleaseTime() <= eList.nextEventTime(nextToFinish));
+    }
+
+    /** release the next job if release, otherwise change the state of the unit nextToFinish */
+    private void processEvent(int nextToFinish, boolean release, SimulationResults simulationResults) {
+        if (release) {
+            Job theJob = jobs[releaseOrder[nextRelease++]];
+            timeNow = theJob.getReleaseTime();
+            theJob.arriveAtNextMachine(this, eList);
+        } else {
             timeNow = eList.nextEventTime(nextToFinish);
-            Job theJob = machines[nextToFinish].changeState(nextToFinish, eList, timeNow);
+            Job theJob = machines[unitMachine[nextToFinish]].changeState(nextToFinish, eList, timeNow);
             if (theJob != null && !theJob.moveToNextMachine(this, simulationResults, eList))
                 numJobs--;
         }
     }
 
+    /** @return true once every job has completed */
+    boolean isFinished() {
+        return numJobs == 0;
+    }
+
+    /**
+     * hand checkpointWriter a snapshot of the run after theEvents events,
+     * the capacities first, then the jobs and the number released so far,
+     * then the machines and the jobs and finish times of their units, then
+     * the results. The state is encoded into a buffer the writer is done
+     * with, and as completions are never undone, only those since the last
+     * checkpoint are added to the completions encoded so far.
+     */
+    private void checkpoint(CheckpointWriter checkpointWriter, SimulationResults simulationResults,
+            long theEvents) {
+        CheckpointWriter.Buffer state = checkpointWriter.stateBuffer();
+        try {
+            DataOutputStream out = new DataOutputStream(state);
+            out.writeInt(CheckpointWriter.MAGIC);
+            out.writeInt(CheckpointWriter.VERSION);
+            out.writeLong(theEvents);
+            out.writeLong(timeNow);
+            out.writeInt(numMachines);
+            out.writeInt(jobs.length - 1);
+            out.writeInt(numJobs);
+            for (int m = 1; m <= numMachines; m++)
+                out.writeInt(capacities[m]);
+            for (int j = 1; j < jobs.length; j++) {
+                IntRingQueue taskQ = jobs[j].getTaskQ();
+                out.writeLong(jobs[j].getLength());
+                out.writeLong(jobs[j].getArrivalTime());
+                out.writeLong(jobs[j].getReleaseTime());
+                out.writeInt(taskQ.size());
+                for (int i = 0; i < taskQ.size(); i++)
+                    out.writeInt(taskQ.get(i));
+            }
+            out.writeInt(nextRelease);
+            for (int m = 1; m <= numMachines; m++) {
+                Machine machine = machines[m];
+                int[] jobQ = machine.getJobQ().toArray();
+                out.writeInt(machine.getChangeTime());
+                out.writeLong(machine.getTotalWait());
+                out.writeInt(machine.getNumTasks());
+                for (int unit = machine.getFirstUnit(); unit < machine.getFirstUnit() + capacities[m]; unit++) {
+                    Job activeJob = machine.getActiveJob(unit);
+                    out.writeInt(activeJob == null ? 0 : activeJob.getId());
+                    out.writeLong(eList.isIdle(unit) ? -1 : eList.nextEventTime(unit));
+                }
+                out.writeInt(jobQ.length);
+                for (int job : jobQ)
+                    out.writeInt(job);
+            }
+            out.writeInt(simulationResults.getNumCompletedJobs());
+            for (; numCompletionsEncoded < simulationResults.getNumCompletedJobs(); numCompletionsEncoded++) {
+                completionsOut.writeInt(simulationResults.getJobNumber(numCompletionsEncoded));
+                completionsOut.writeLong(simulationResults.getCompletionTime(numCompletionsEncoded));
+                completionsOut.writeLong(simulationResults.getTotalWaitTime(numCompletionsEncoded));
+            }
+        } catch (IOException e) {
+            // writing to memory does not fail
+            throw new UncheckedIOException(e);
+        }
+        checkpointWriter.write(state, checkpointCompletions.array(), checkpointCompletions.size());
+    }
+
+    /**
+     * restore the counts, the capacities and the time of the run saved in checkpoint
+     * @return the number of jobs of the run
+     */
+    private int restoreCounts(DataInputStream checkpoint) {
+        try {
+            eventsBefore = checkpoint.readLong();
+            timeNow = checkpoint.readLong();
+            numMachines = checkpoint.readInt();
+            int totalJobs = checkpoint.readInt();
+            numJobs = checkpoint.readInt();
+            // every job takes at least 28 bytes, every machine 24 and every unit 12
+            checkCheckpoint(eventsBefore >= 0 && timeNow >= 0 && numMachines >= 1 && totalJobs >= 1
+                    && numJobs >= 0 && numJobs <= totalJobs
+                    && totalJobs <= checkpoint.available() / 28 && numMachines <= checkpoint.available() / 36);
+            capacities = new int[numMachines + 1];
+            long numUnits = 0;
+            for (int m = 1; m <= numMachines; m++) {
+                capacities[m] = checkpoint.readInt();
+                checkCheckpoint(capacities[m] >= 1);
+                numUnits += capacities[m];
+            }
+            checkCheckpoint(numUnits <= checkpoint.available() / 12);
+            return totalJobs;
+        } catch (EOFException e) {
+            throw new MyInputException(CheckpointReader.CORRUPT_CHECKPOINT);
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+    }
+
+    /**
+     * restore the jobs, machines and results saved in checkpoint, after restoreCounts
+     * @return the results of the run so far
+     */
+    private SimulationResults restoreShop(DataInputStream checkpoint, int totalJobs) {
+        try (DataInputStream in = checkpoint) {
+            createEventAndMachineQueues(capacities, totalJobs);
+            for (int j = 1; j <= totalJobs; j++) {
+                long length = in.readLong();
+                long arrivalTime = in.readLong();
+                long releaseTime = in.readLong();
+                checkCheckpoint(releaseTime >= 0 && releaseTime <= Integer.MAX_VALUE);
+                int numTasks = in.readInt() / 2;
+                checkCheckpoint(numTasks >= 0 && numTasks <= in.available() / 8);
+                Job theJob = new Job(j, Math.max(numTasks, 1));
+                for (int task = 0; task < numTasks; task++) {
+                    int theMachine = in.readInt();
+                    checkCheckpoint(theMachine >= 1 && theMachine <= numMachines);
+                    theJob.addTask(theMachine, in.readInt());
+                }
+                theJob.setLength(length);
+                theJob.setArrivalTime(arrivalTime);
+                theJob.setReleaseTime(releaseTime);
+                jobs[j] = theJob;
+            }
+            orderReleases();
+            nextRelease = in.readInt();
+            checkCheckpoint(nextRelease >= 0 && nextRelease <= releaseOrder.length);
+            for (int m = 1; m <= numMachines; m++) {
+                Machine machine = machines[m];
+                machine.setChangeTime(in.readInt());
+                machine.setTotalWait(in.readLong());
+                machine.setNumTasks(in.readInt());
+                for (int unit = machine.getFirstUnit(); unit < machine.getFirstUnit() + capacities[m]; unit++) {
+                    int activeJob = in.readInt();
+                    checkCheckpoint(activeJob >= 0 && activeJob <= totalJobs);
+                    machine.setActiveJob(unit, activeJob == 0 ? null : jobs[activeJob]);
+                    long finishTime = in.readLong();
+                    if (finishTime < 0)
+                        eList.setIdle(unit);
+                    else
+                        eList.setFinishTime(unit, finishTime);
+                }
+                int queueLength = in.readInt();
+                checkCheckpoint(queueLength >= 0 && queueLength <= in.available() / 4);
+                for (int i = 0; i < queueLength; i++) {
+                    int job = in.readInt();
+                    checkCheckpoint(job >= 1 && job <= totalJobs && !jobs[job].getTaskQ().isEmpty());
+                    machine.getJobQ().put(job, jobs[job].getNextTaskTime());
+                }
+            }
+            int numCompleted = in.readInt();
+            checkCheckpoint(numCompleted == totalJobs - numJobs);
+            SimulationResults simulationResults = new SimulationResults(totalJobs);
+            for (int i = 0; i < numCompleted; i++)
+                simulationResults.setJobCompletionData(in.readInt(), in.readLong(), in.readLong());
+            checkCheckpoint(in.read() < 0);
+            return simulationResults;
+        } catch (EOFException e) {
+            throw new MyInputException(CheckpointReader.CORRUPT_CHECKPOINT);
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+    }
+
+    private static void checkCheckpoint(boolean valid) {
+        if (!valid)
+            throw new MyInputException(CheckpointReader.CORRUPT_CHECKPOINT);
+    }
+
     /**
      * output wait times at machines
      * @param simulationResults
@@ -117,7 +458,7 @@ public class MachineShopSimulator {
     void outputStatistics(SimulationResults simulationResults) {
         simulationResults.setFinishTime(timeNow);
         simulationResults.setNumMachines(numMachines);
-        Machine.setTotalAndNumTasksPerMachine(simulationResults, new int[numMachines + 1], machines);
+        Machine.setTotalAndNumTasksPerMachine(simulationResults, new long[numMachines + 1], machines);
     }
 
     /**
@@ -126,12 +467,88 @@ public class MachineShopSimulator {
      * @return the results of running the simulation
      */
     public SimulationResults runSimulation(SimulationSpecification specification) {
-        finishTime = Integer.MAX_VALUE;
+        return run(specification.getNumMachines(), () -> {
+            timeNow = 0;
+            eventsBefore = 0;
+            startShop(specification);
+            return new SimulationResults(numJobs);
+        });
+    }
+
+    /**
+     * continues the run saved in the checkpoint file theCheckpointFile to
+     * the end, exactly as it would have gone on had it not stopped; the
+     * dispatch policy must be the one the run was started with
+     * @param theCheckpointFile
+     * @return the results of the whole run
+     */
+    public SimulationResults resumeSimulation(String theCheckpointFile) {
+        DataInputStream checkpoint = CheckpointReader.open(theCheckpointFile);
+        int totalJobs = restoreCounts(checkpoint);
+        return run(numMachines, () -> restoreShop(checkpoint, totalJobs));
+    }
+
+    /**
+     * start the shop with theListener watching its machines, to be run on
+     * with advance and simulate
+     * @return the empty results of the run
+     */
+    SimulationResults startStepping(SimulationSpecification specification, MachineStateListener theListener) {
+        listener = theListener;
         timeNow = 0;
+        eventsBefore = 0;
         startShop(specification);
-        SimulationResults simulationResults = new SimulationResults(numJobs);
-        simulate(simulationResults);
+        listener = null;
+        return new SimulationResults(numJobs);
+    }
+
+    /** set the shop up with setUp, which returns the results so far, and run it to the end */
+    private SimulationResults run(int theNumMachines, Supplier<SimulationResults> setUp) {
+        EventTraceWriter trace = traceFile == null ? null : new EventTraceWriter(traceFile);
+        listener = trace;
+        try {
+            if (metricsEnabled)
+                return runInstrumentedSimulation(theNumMachines, setUp);
+            SimulationResults simulationResults = setUp.get();
+            simulate(simulationResults);
+            outputStatistics(simulationResults);
+            return simulationResults;
+        } finally {
+            listener = null;
+            if (trace != null)
+                trace.close();
+        }
+    }
+
+    /** @return a listener that passes every state change to first and then to second */
+    private static MachineStateListener both(MachineStateListener first, MachineStateListener second) {
+        return (theMachine, transition, time, queueLength, theJob, duration) -> {
+            first.stateChanged(theMachine, transition, time, queueLength, theJob, duration);
+            second.stateChanged(theMachine, transition, time, queueLength, theJob, duration);
+        };
+    }
+
+    /** run, timing each phase and watching the machines change state */
+    private SimulationResults runInstrumentedSimulation(int theNumMachines, Supplier<SimulationResults> setUp) {
+        MetricsCollector collector = new MetricsCollector(theNumMachines);
+        listener = listener == null ? collector : both(listener, collector);
+        long setupStart = System.nanoTime();
+        SimulationResults simulationResults = setUp.get();
+        long simulateStart = System.nanoTime();
+        long events = simulate(simulationResults);
+        long statisticsStart = System.nanoTime();
         outputStatistics(simulationResults);
+        long statisticsEnd = System.nanoTime();
+
+        SimulationMetrics metrics = new SimulationMetrics();
+        metrics.recordPhase(SimulationMetrics.SETUP_PHASE, simulateStart - setupStart);
+        metrics.recordPhase(SimulationMetrics.SIMULATE_PHASE, statisticsStart - simulateStart);
+        metrics.recordPhase(SimulationMetrics.STATISTICS_PHASE, statisticsEnd - statisticsStart);
+        metrics.addToCounter(SimulationMetrics.EVENTS, events);
+        long simulateNanos = Math.max(1, statisticsStart - simulateStart);
+        metrics.setGauge(SimulationMetrics.EVENTS_PER_SECOND, events * 1e9 / simulateNanos);
+        collector.publish(metrics);
+        simulationResults.setMetrics(metrics);
         return simulationResults;
     }
 
@@ -149,22 +566,152 @@ public class MachineShopSimulator {
      * get the current time.
      * @return timeNow
      */
-    public int getTimeNow(){
+    public long getTimeNow(){
         return timeNow;
     }
     /**
-     * get the large time from the MSS class.
-     * @return
+     * entry point for machine shop simulator. With no arguments it reads
+     * one specification from standard input and runs it. Otherwise the
+     * first argument names what to do, and a file may be a specification
+     * in either the text or the binary format:
+     *
+     * <pre>
+     * --batch directory                     run every specification file in directory
+     * --stream file                         stream file into a {@link CompactSimulator}
+     * --parallel partitions file            run file on a {@link ParallelSimulator}
+     * --resume checkpoint                   continue a run from a checkpoint file
+     * --convert text binary                 convert a text specification file to the binary format
+     * --replicate replications seed file    run {@link MonteCarloSimulator} replications of file
+     *                                       with exponential task and change-over times
+     * --sweep factors units file            run file on a {@link ParameterSweep}, scaling its
+     *                                       change-over times by each comma separated factor
+     *                                       and giving each machine each comma separated
+     *                                       number of units
+     * --open horizon interarrival seed file run the machines of file as an
+     *                                       {@link OpenShopSimulator} up to horizon, fed with
+     *                                       jobs of file arriving at random
+     * --serve port workers                  run a {@link SimulationService} on port
+     * --finishes-by deadline file           print the {@link FinishTimeBounds} of file and
+     *                                       whether it finishes by deadline
+     * </pre>
+     *
+     * Options at the end of the arguments change where a run puts its
+     * output:
+     *
+     * <pre>
+     * --output file                         write the results of a run from standard input,
+     *                                       a checkpoint, --stream or --parallel to file
+     *                                       instead of standard output
+     * --metrics file                        write the metrics of a run from standard input or
+     *                                       a checkpoint to file as JSON
+     * --checkpoint file                     checkpoint such a run to file
+     * --trace file                          record the events of such a run to file
+     * </pre>
      */
-    public int getLargeTime(){
-        return finishTime;
-    }
-    /** entry point for machine shop simulator */
     public static void main(String[] args) {
-        final SpecificationReader specificationReader = new SpecificationReader();
-        SimulationSpecification specification = specificationReader.readSpecification();
+        String outputFile = null;
+        String metricsFile = null;
+        String checkpointFile = null;
+        String traceFile = null;
+        while (args.length >= 2) {
+            String option = args[args.length - 2];
+            if (option.equals(ResultsWriter.OUTPUT_OPTION) && outputFile == null)
+                outputFile = args[args.length - 1];
+            else if (option.equals(SimulationMetrics.METRICS_OPTION) && metricsFile == null)
+                metricsFile = args[args.length - 1];
+            else if (option.equals(CheckpointWriter.CHECKPOINT_OPTION) && checkpointFile == null)
+                checkpointFile = args[args.length - 1];
+            else if (option.equals(EventTraceWriter.TRACE_OPTION) && traceFile == null)
+                traceFile = args[args.length - 1];
+            else
+                break;
+            args = Arrays.copyOf(args, args.length - 2);
+        }
+        boolean simulatorOptions = metricsFile != null || checkpointFile != null || traceFile != null;
+        boolean singleRunOptions = outputFile != null || simulatorOptions;
+
+        SimulationResults simulationResults;
+        if (args.length == 0) {
+            MachineShopSimulator simulator = commandLineSimulator(metricsFile, checkpointFile, traceFile);
+            final SpecificationReader specificationReader = new SpecificationReader();
+            SimulationSpecification specification = specificationReader.readSpecification();
+            simulationResults = simulator.runSimulation(specification);
+        } else {
+            switch (args[0]) {
+            case BatchSimulator.BATCH_OPTION:
+                checkUsage(args, 1, singleRunOptions, "directory");
+                BatchSimulator.runCommandLine(args[1]);
+                return;
+            case CompactSimulator.STREAM_OPTION:
+                checkUsage(args, 1, simulatorOptions, "file");
+                simulationResults = new CompactSimulator()
+                        .runSimulation(SpecificationFiles.readTaskTable(args[1]));
+                break;
+            case ParallelSimulator.PARALLEL_OPTION:
+                checkUsage(args, 2, simulatorOptions, "partitions file");
+                simulationResults = new ParallelSimulator(Integer.parseInt(args[1]))
+                        .runSimulation(SpecificationFiles.readTaskTable(args[2]));
+                break;
+            case CheckpointReader.RESUME_OPTION:
+                checkUsage(args, 1, false, "checkpoint");
+                simulationResults = commandLineSimulator(metricsFile, checkpointFile, traceFile)
+                        .resumeSimulation(args[1]);
+                break;
+            case BinarySpecificationWriter.CONVERT_OPTION:
+                checkUsage(args, 2, singleRunOptions, "text binary");
+                BinarySpecificationWriter.convert(args[1], args[2]);
+                return;
+            case MonteCarloSimulator.REPLICATE_OPTION:
+                checkUsage(args, 3, singleRunOptions, "replications seed file");
+                MonteCarloSimulator.runCommandLine(Integer.parseInt(args[1]), Long.parseLong(args[2]), args[3]);
+                return;
+            case ParameterSweep.SWEEP_OPTION:
+                checkUsage(args, 3, singleRunOptions, "factors units file");
+                ParameterSweep.runCommandLine(args[1], args[2], args[3]);
+                return;
+            case OpenShopSimulator.OPEN_OPTION:
+                checkUsage(args, 4, singleRunOptions, "horizon interarrival seed file");
+                OpenShopSimulator.runCommandLine(Long.parseLong(args[1]), Double.parseDouble(args[2]),
+                        Long.parseLong(args[3]), args[4]);
+                return;
+            case SimulationService.SERVE_OPTION:
+                checkUsage(args, 2, singleRunOptions, "port workers");
+                SimulationService.runCommandLine(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+                return;
+            case FinishTimeQuery.FINISHES_BY_OPTION:
+                checkUsage(args, 2, singleRunOptions, "deadline file");
+                FinishTimeQuery.runCommandLine(Long.parseLong(args[1]), args[2]);
+                return;
+            default:
+                throw new IllegalArgumentException(UNKNOWN_COMMAND_LINE_OPTIONS + ": " + Arrays.toString(args));
+            }
+        }
+        if (outputFile == null)
+            simulationResults.print();
+        else
+            simulationResults.print(outputFile);
+        if (metricsFile != null)
+            simulationResults.getMetrics().writeJson(metricsFile);
+    }
+
+    /**
+     * check that the command line option args[0] is followed by numOperands
+     * operands, named by operands in the usage message, and that it was
+     * not given trailing options it does not take
+     */
+    private static void checkUsage(String[] args, int numOperands, boolean unsupportedOptions,
+            String operands) {
+        if (args.length != 1 + numOperands || unsupportedOptions)
+            throw new IllegalArgumentException(USAGE + ": " + args[0] + " " + operands);
+    }
+
+    /** @return a simulator of a command line run with the trailing options given, each null if not given */
+    private static MachineShopSimulator commandLineSimulator(String metricsFile, String checkpointFile,
+            String traceFile) {
         MachineShopSimulator simulator = new MachineShopSimulator();
-        SimulationResults simulationResults = simulator.runSimulation(specification);
-        simulationResults.print();
+        simulator.setMetricsEnabled(metricsFile != null);
+        simulator.setCheckpointing(checkpointFile, CheckpointWriter.DEFAULT_INTERVAL);
+        simulator.setTraceFile(traceFile);
+        return simulator;
     }
 }
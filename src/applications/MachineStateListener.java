@@ -0,0 +1,21 @@
+package applications;
+
+/**
+ * Is told of every change of state of the machines of a
+ * {@link MachineShopSimulator} that has one installed. The simulator makes
+ * no calls at all when no listener is installed.
+ */
+public interface MachineStateListener {
+    /**
+     * @param theMachine machine that changed state
+     * @param transition the state it moved into
+     * @param time current simulation time
+     * @param queueLength jobs waiting for the machine after the change
+     * @param theJob job whose task starts on TO_BUSY or just finished on
+     *        TO_CHANGE_OVER, 0 on TO_IDLE
+     * @param duration time the new state lasts: the task time on TO_BUSY,
+     *        the change-over time on TO_CHANGE_OVER, 0 on TO_IDLE
+     */
+    void stateChanged(int theMachine, MachineTransition transition, long time, int queueLength,
+            int theJob, int duration);
+}
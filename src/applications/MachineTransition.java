@@ -0,0 +1,11 @@
+package applications;
+
+/** The state a machine moves into when it changes state. */
+public enum MachineTransition {
+    /** the machine starts the next task in its queue */
+    TO_BUSY,
+    /** the machine finishes a task and starts its change-over */
+    TO_CHANGE_OVER,
+    /** the machine has nothing in its queue and goes idle */
+    TO_IDLE
+}
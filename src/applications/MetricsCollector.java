@@ -0,0 +1,41 @@
+package applications;
+
+import utilities.Histogram;
+
+/**
+ * Collects the machine state changes of one run into primitive counters,
+ * and publishes them into a {@link SimulationMetrics} once the run is
+ * over. A queue only shrinks when its machine takes the next job from it,
+ * so the depth seen at each of those moments gives the exact largest
+ * depth of every queue.
+ */
+class MetricsCollector implements MachineStateListener {
+    // data members
+    private final long[] transitions = new long[MachineTransition.values().length];
+    private final int[] maxQueueDepth; // indexed by machine number
+    private final Histogram queueDepth = new Histogram(); // depth when a task starts
+
+    MetricsCollector(int theNumMachines) {
+        maxQueueDepth = new int[theNumMachines + 1];
+    }
+
+    public void stateChanged(int theMachine, MachineTransition transition, long time, int queueLength,
+            int theJob, int duration) {
+        transitions[transition.ordinal()]++;
+        if (transition == MachineTransition.TO_BUSY) {
+            int depth = queueLength + 1; // including the job just started
+            queueDepth.record(depth);
+            if (depth > maxQueueDepth[theMachine])
+                maxQueueDepth[theMachine] = depth;
+        }
+    }
+
+    /** add everything collected to metrics */
+    void publish(SimulationMetrics metrics) {
+        for (MachineTransition transition : MachineTransition.values())
+            metrics.addToCounter(SimulationMetrics.transitionCounter(transition),
+                    transitions[transition.ordinal()]);
+        metrics.histogram(SimulationMetrics.QUEUE_DEPTH).add(queueDepth);
+        metrics.setSeries(SimulationMetrics.MAX_QUEUE_DEPTH, maxQueueDepth);
+    }
+}
@@ -0,0 +1,63 @@
+package applications;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+import utilities.SampleStatistics;
+
+/**
+ * What the replications of a {@link MonteCarloSimulator} run add up to:
+ * the finish time and the total wait at each machine, each as a sample
+ * over the replications with a confidence interval for its mean.
+ */
+public class MonteCarloResults {
+    // data members
+    private final SampleStatistics finishTime = new SampleStatistics();
+    private final SampleStatistics[] totalWait; // indexed by machine number
+
+    MonteCarloResults(int theNumMachines) {
+        totalWait = new SampleStatistics[theNumMachines + 1];
+        for (int m = 1; m <= theNumMachines; m++)
+            totalWait[m] = new SampleStatistics();
+    }
+
+    /** add the outcome of one replication */
+    void add(SimulationResults replication) {
+        finishTime.add(replication.getFinishTime());
+        long[] waits = replication.getTotalWaitTimePerMachine();
+        for (int m = 1; m < totalWait.length; m++)
+            totalWait[m].add(waits[m]);
+    }
+
+    public long getNumReplications() {
+        return finishTime.getCount();
+    }
+
+    public int getNumMachines() {
+        return totalWait.length - 1;
+    }
+
+    /** @return finish time over the replications */
+    public SampleStatistics getFinishTime() {
+        return finishTime;
+    }
+
+    /** @return total wait at theMachine over the replications */
+    public SampleStatistics getTotalWaitTime(int theMachine) {
+        return totalWait[theMachine];
+    }
+
+    /** print the estimates to out */
+    public void print(PrintStream out) {
+        out.println(getNumReplications() + " replications, "
+                + Math.round(SampleStatistics.CONFIDENCE * 100) + "% confidence intervals");
+        out.println("Finish time = " + estimate(finishTime));
+        for (int m = 1; m < totalWait.length; m++)
+            out.println("Machine " + m + " total wait time = " + estimate(totalWait[m]));
+    }
+
+    private static String estimate(SampleStatistics sample) {
+        return String.format(Locale.ROOT, "%.2f +- %.2f (sd %.2f, min %.0f, max %.0f)", sample.getMean(),
+                sample.getHalfWidth(), sample.getStandardDeviation(), sample.getMin(), sample.getMax());
+    }
+}
@@ -0,0 +1,173 @@
+package applications;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs independent replications of a shop whose task and change-over
+ * times vary, and estimates the finish time and the wait at each machine
+ * over them. Each replication draws every task time, and the change-over
+ * time of every machine, from its {@link TimeDistribution} and runs the
+ * result on its own {@link MachineShopSimulator}.
+ *
+ * The replications run on a work-stealing pool. Each one draws from its
+ * own random stream, split from a single seeded {@link SplittableRandom}
+ * in replication order before it is handed to the pool, and the results
+ * are added up in replication order, so a run depends only on its seed,
+ * never on the number of threads or how they were scheduled.
+ */
+public class MonteCarloSimulator {
+    /** command line option of {@link MachineShopSimulator} that replicates a shop with exponential times */
+    public static final String REPLICATE_OPTION = "--replicate";
+    public static final String NUMBER_OF_REPLICATIONS_MUST_BE_AT_LEAST_1 = "number of replications must be >= 1";
+
+    // data members
+    private final SimulationSpecification specification; // the shop, with the nominal times
+    private final int parallelism; // most replications in progress at once
+    private final TimeDistribution[][] taskTimes; // taskTimes[j][k] for task k (from 0) of job j
+    private final TimeDistribution[] changeOverTimes; // indexed by machine number
+    private DispatchPolicy dispatchPolicy = DispatchPolicy.FIFO;
+
+    /** create a simulator for specification that uses all available processors */
+    public MonteCarloSimulator(SimulationSpecification theSpecification) {
+        this(theSpecification, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * create a simulator for specification that runs at most theParallelism
+     * replications at once; every time is fixed until a distribution is set
+     */
+    public MonteCarloSimulator(SimulationSpecification theSpecification, int theParallelism) {
+        if (theParallelism < 1)
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        specification = theSpecification;
+        parallelism = theParallelism;
+        taskTimes = new TimeDistribution[specification.getNumJobs() + 1][];
+        for (int j = 1; j <= specification.getNumJobs(); j++)
+            taskTimes[j] = new TimeDistribution[specification.getJobSpecifications(j).getNumTasks()];
+        changeOverTimes = new TimeDistribution[specification.getNumMachines() + 1];
+        setTaskTimes(TimeDistribution.FIXED);
+        setChangeOverTimes(TimeDistribution.FIXED);
+    }
+
+    /** draw every task time from theDistribution */
+    public void setTaskTimes(TimeDistribution theDistribution) {
+        Objects.requireNonNull(theDistribution);
+        for (int j = 1; j < taskTimes.length; j++)
+            Arrays.fill(taskTimes[j], theDistribution);
+    }
+
+    /** draw the time of task theTask (counting from 1) of theJob from theDistribution */
+    public void setTaskTime(int theJob, int theTask, TimeDistribution theDistribution) {
+        taskTimes[theJob][theTask - 1] = Objects.requireNonNull(theDistribution);
+    }
+
+    /** draw the change-over time of every machine from theDistribution */
+    public void setChangeOverTimes(TimeDistribution theDistribution) {
+        Objects.requireNonNull(theDistribution);
+        Arrays.fill(changeOverTimes, 1, changeOverTimes.length, theDistribution);
+    }
+
+    /** draw the change-over time of theMachine from theDistribution */
+    public void setChangeOverTime(int theMachine, TimeDistribution theDistribution) {
+        changeOverTimes[theMachine] = Objects.requireNonNull(theDistribution);
+    }
+
+    /** make the machines of every replication take their waiting jobs in the order of thePolicy */
+    public void setDispatchPolicy(DispatchPolicy thePolicy) {
+        dispatchPolicy = Objects.requireNonNull(thePolicy);
+    }
+
+    /**
+     * runs theNumReplications replications, the streams of their random
+     * times split from theSeed
+     * @return the estimates over the replications
+     */
+    public MonteCarloResults run(int theNumReplications, long theSeed) {
+        if (theNumReplications < 1)
+            throw new IllegalArgumentException(NUMBER_OF_REPLICATIONS_MUST_BE_AT_LEAST_1);
+        SplittableRandom seeds = new SplittableRandom(theSeed);
+        MonteCarloResults results = new MonteCarloResults(specification.getNumMachines());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // keep a few replications per thread queued, adding up the
+            // oldest as it finishes, so the results held stay bounded
+            ArrayDeque<ForkJoinTask<SimulationResults>> running = new ArrayDeque<>();
+            for (int r = 0; r < theNumReplications; r++) {
+                SplittableRandom random = seeds.split();
+                running.add(pool.submit(() -> replicate(random)));
+                if (running.size() >= 2 * parallelism)
+                    results.add(running.remove().join());
+            }
+            while (!running.isEmpty())
+                results.add(running.remove().join());
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    /** @return the results of one replication, its times drawn from random */
+    SimulationResults replicate(SplittableRandom random) {
+        MachineShopSimulator simulator = new MachineShopSimulator();
+        simulator.setDispatchPolicy(dispatchPolicy);
+        return simulator.runSimulation(sample(random));
+    }
+
+    /** @return the shop with every time drawn from its distribution, the tasks first in job order */
+    SimulationSpecification sample(SplittableRandom random) {
+        int numMachines = specification.getNumMachines();
+        int numJobs = specification.getNumJobs();
+        SimulationSpecification sampled = new SimulationSpecification();
+        sampled.setNumMachines(numMachines);
+        sampled.setNumJobs(numJobs);
+
+        JobSpecification[] jobSpecifications = new JobSpecification[numJobs + 1];
+        sampled.setJobSpecification(jobSpecifications);
+        for (int j = 1; j <= numJobs; j++) {
+            JobSpecification job = specification.getJobSpecifications(j);
+            int[] specificationsForTasks = job.getSpecificationsForTasks().clone();
+            for (int k = 0; k < job.getNumTasks(); k++)
+                specificationsForTasks[2*k+2] = round(taskTimes[j][k].sample(specificationsForTasks[2*k+2], random), 1);
+            jobSpecifications[j] = new JobSpecification();
+            jobSpecifications[j].setNumTasks(job.getNumTasks());
+            jobSpecifications[j].setSpecificationsForTasks(specificationsForTasks);
+            jobSpecifications[j].setReleaseTime(job.getReleaseTime());
+        }
+
+        int[] sampledChangeOverTimes = new int[numMachines + 1];
+        for (int m = 1; m <= numMachines; m++)
+            sampledChangeOverTimes[m] = round(changeOverTimes[m].sample(specification.getChangeOverTimes(m), random), 0);
+        sampled.setChangeOverTimes(sampledChangeOverTimes);
+        if (specification.hasStations()) {
+            int[] capacities = new int[numMachines + 1];
+            for (int m = 1; m <= numMachines; m++)
+                capacities[m] = specification.getCapacity(m);
+            sampled.setCapacities(capacities);
+        }
+        return sampled;
+    }
+
+    /** @return theTime rounded to a whole time of at least theMinimum */
+    private static int round(double theTime, int theMinimum) {
+        if (!(theTime < Integer.MAX_VALUE)) // also catches NaN
+            return theTime > 0 ? Integer.MAX_VALUE : theMinimum;
+        return (int) Math.max(theMinimum, Math.round(theTime));
+    }
+
+    /**
+     * replicate the shop in the specification file fileName theNumReplications
+     * times, with exponential task and change-over times, and print the estimates
+     */
+    static void runCommandLine(int theNumReplications, long theSeed, String fileName) {
+        SimulationSpecification specification = SpecificationFiles.readSpecification(fileName);
+        MonteCarloSimulator simulator = new MonteCarloSimulator(specification);
+        simulator.setTaskTimes(TimeDistribution.EXPONENTIAL);
+        simulator.setChangeOverTimes(TimeDistribution.EXPONENTIAL);
+        simulator.run(theNumReplications, theSeed).print(System.out);
+    }
+}
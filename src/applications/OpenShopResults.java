@@ -0,0 +1,124 @@
+package applications;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+import utilities.SampleStatistics;
+
+/**
+ * The statistics of an {@link OpenShopSimulator} run. Its jobs are not
+ * kept one by one, as in {@link SimulationResults}, but summarized as
+ * they complete: the flow time of a job is the time from its release to
+ * its completion, and its wait time is the part of that it spent in
+ * queues or behind change-overs.
+ */
+public class OpenShopResults {
+    // data members
+    private final int numMachines;
+    private final SampleStatistics flowTime = new SampleStatistics();
+    private final SampleStatistics waitTime = new SampleStatistics();
+    private final long[] totalWait; // total delay at each machine
+    private final long[] numTasks; // number of tasks started on each machine
+    private long numReleased; // jobs released
+    private int maxJobsInShop; // most jobs released and not completed at once
+    private int numSlots; // job slots the run allocated
+    private long endTime; // time the run stopped
+    private int numJobsInShop; // jobs released and not completed when the run stopped
+
+    OpenShopResults(int theNumMachines) {
+        numMachines = theNumMachines;
+        totalWait = new long[theNumMachines + 1];
+        numTasks = new long[theNumMachines + 1];
+    }
+
+    /** record a release, after which theJobsInShop jobs are in the shop in theNumSlots slots */
+    void recordRelease(int theJobsInShop, int theNumSlots) {
+        numReleased++;
+        maxJobsInShop = Math.max(maxJobsInShop, theJobsInShop);
+        numSlots = theNumSlots;
+    }
+
+    /** record the start of a task on theMachine by a job that waited theWait for it */
+    void recordTask(int theMachine, long theWait) {
+        totalWait[theMachine] += theWait;
+        numTasks[theMachine]++;
+    }
+
+    void recordCompletion(long theFlowTime, long theWaitTime) {
+        flowTime.add(theFlowTime);
+        waitTime.add(theWaitTime);
+    }
+
+    void setEnd(long theEndTime, int theJobsInShop) {
+        endTime = theEndTime;
+        numJobsInShop = theJobsInShop;
+    }
+
+    public int getNumMachines() {
+        return numMachines;
+    }
+
+    public long getNumReleased() {
+        return numReleased;
+    }
+
+    public long getNumCompleted() {
+        return flowTime.getCount();
+    }
+
+    /** @return jobs released but not completed when the run stopped */
+    public int getNumJobsInShop() {
+        return numJobsInShop;
+    }
+
+    /** @return most jobs that were in the shop at once */
+    public int getMaxJobsInShop() {
+        return maxJobsInShop;
+    }
+
+    /** @return number of job slots the run allocated, which bounds the memory its jobs used */
+    public int getNumSlots() {
+        return numSlots;
+    }
+
+    /** @return time the run stopped, the horizon unless every job completed before it */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /** @return flow times of the completed jobs */
+    public SampleStatistics getFlowTime() {
+        return flowTime;
+    }
+
+    /** @return wait times of the completed jobs */
+    public SampleStatistics getWaitTime() {
+        return waitTime;
+    }
+
+    public long getTotalWaitTime(int theMachine) {
+        return totalWait[theMachine];
+    }
+
+    public long getNumTasks(int theMachine) {
+        return numTasks[theMachine];
+    }
+
+    /** print the statistics to out */
+    public void print(PrintStream out) {
+        out.println("Open shop stopped at " + endTime + " with " + numJobsInShop + " jobs in the shop");
+        out.println(numReleased + " jobs released, " + getNumCompleted() + " completed, at most "
+                + maxJobsInShop + " in the shop at once");
+        out.println("Flow time = " + summary(flowTime));
+        out.println("Wait time = " + summary(waitTime));
+        for (int m = 1; m <= numMachines; m++) {
+            out.println("Machine " + m + " started " + numTasks[m] + " tasks");
+            out.println("The total wait time was " + totalWait[m]);
+        }
+    }
+
+    private static String summary(SampleStatistics sample) {
+        return String.format(Locale.ROOT, "%.2f (sd %.2f, max %.0f)", sample.getMean(),
+                sample.getStandardDeviation(), sample.getMax());
+    }
+}
@@ -0,0 +1,268 @@
+package applications;
+
+import java.util.Arrays;
+
+/**
+ * Simulates an open shop, whose jobs keep arriving from a
+ * {@link JobSource} rather than being known up front, up to a time
+ * horizon. Like {@link CompactSimulator} it keeps the shop in primitive
+ * arrays, but a job holds a slot only from its release until it
+ * completes: the slot then goes back on a free list for a later job, and
+ * its completion goes into running statistics rather than being kept. The
+ * memory used is therefore set by the most jobs in the shop at once, not
+ * by the length of the horizon.
+ *
+ * The machines take their jobs first come, first served. A job released
+ * at the same time as a unit's event joins its queue first, as in
+ * {@link MachineShopSimulator}, which gives the same results for a shop
+ * whose jobs come from {@link JobSource#fromSpecification}.
+ */
+public class OpenShopSimulator {
+    /**
+     * command line option of {@link MachineShopSimulator} that runs the
+     * machines of a specification file as an open shop fed with its jobs
+     */
+    public static final String OPEN_OPTION = "--open";
+    public static final String HORIZON_MUST_BE_AT_LEAST_0 = "horizon must be >= 0";
+    public static final String MEAN_INTERARRIVAL_TIME_MUST_BE_POSITIVE = "mean interarrival time must be > 0";
+    public static final String RELEASE_TIMES_MUST_NOT_DECREASE = "release times must not decrease";
+
+    private static final int INITIAL_SLOTS = 16;
+
+    // data members
+    private final int numMachines;
+    private final int[] changeOverTimes; // change-over time of each machine
+    private final int[] capacities; // units of each machine
+    private final EventListType eventListType; // kind of event list to use
+    private EventList eList; // finish time of each unit
+    private long timeNow; // current time
+    private OpenShopResults results; // statistics of the run so far
+
+    // per unit state, indexed by event list slot
+    private int[] unitMachine; // machine the unit belongs to
+    private int[] activeJob; // slot of the job on the unit, 0 if none
+
+    // per machine state, indexed by machine number
+    private int[] firstUnit; // slot of the machine's first unit, the others following it
+    private int[] queueFront; // first job waiting for the machine, 0 if none
+    private int[] queueRear; // last job waiting for the machine, 0 if none
+
+    // per job state, indexed by job slot; slot 0 is never used
+    private int[][] tasks; // (machine, time) pairs of the job's tasks from index 1
+    private int[] nextTask; // number of the job's next task, from 1
+    private long[] releaseTime; // time the job was released
+    private long[] length; // sum of scheduled task times
+    private long[] arrivalTime; // arrival time at current queue
+    private int[] nextInQueue; // job behind this one in its queue or on the free list, 0 if none
+    private int freeSlot; // first slot of the free list, 0 if it is empty
+    private int numJobsInShop; // jobs released and not yet completed
+
+    /** create a simulator of the machines of specification, which uses the array scan event list */
+    public OpenShopSimulator(SimulationSpecification specification) {
+        this(specification, EventListType.ARRAY);
+    }
+
+    /**
+     * create a simulator of the machines of specification, their
+     * change-over times and capacities, which uses the given kind of event
+     * list; the jobs of specification play no part
+     */
+    public OpenShopSimulator(SimulationSpecification specification, EventListType theEventListType) {
+        numMachines = specification.getNumMachines();
+        changeOverTimes = new int[numMachines + 1];
+        capacities = new int[numMachines + 1];
+        for (int m = 1; m <= numMachines; m++) {
+            changeOverTimes[m] = specification.getChangeOverTimes(m);
+            capacities[m] = specification.getCapacity(m);
+        }
+        eventListType = theEventListType;
+    }
+
+    /**
+     * runs the shop on the jobs of source released up to theHorizon, and
+     * stops at theHorizon or once every job has completed if that is earlier
+     * @param source
+     * @param theHorizon
+     * @return the statistics of the run
+     */
+    public OpenShopResults run(JobSource source, long theHorizon) {
+        if (theHorizon < 0)
+            throw new IllegalArgumentException(HORIZON_MUST_BE_AT_LEAST_0);
+        startShop();
+        boolean more = source.advance();
+        long lastRelease = 0;
+        while (more || numJobsInShop > 0) {
+            int nextToFinish = eList.nextEventMachine();
+            // a release comes before the events of the units at the same time
+            boolean release = more && (nextToFinish == 0
+                    || source.getReleaseTime() <= eList.nextEventTime(nextToFinish));
+            long eventTime = release ? source.getReleaseTime() : eList.nextEventTime(nextToFinish);
+            if (eventTime > theHorizon) {
+                timeNow = theHorizon;
+                break;
+            }
+            timeNow = eventTime;
+            if (release) {
+                if (eventTime < lastRelease)
+                    throw new IllegalArgumentException(RELEASE_TIMES_MUST_NOT_DECREASE);
+                lastRelease = eventTime;
+                releaseJob(source.getSpecificationsForTasks());
+                more = source.advance();
+            } else {
+                int job = changeState(nextToFinish);
+                if (job != 0)
+                    moveToNextMachine(job);
+            }
+        }
+        results.setEnd(timeNow, numJobsInShop);
+        OpenShopResults runResults = results;
+        results = null;
+        tasks = null;
+        return runResults;
+    }
+
+    /** allocate the state arrays of an empty shop */
+    private void startShop() {
+        timeNow = 0;
+        results = new OpenShopResults(numMachines);
+        int numUnits = 0;
+        for (int m = 1; m <= numMachines; m++)
+            numUnits += capacities[m];
+        eList = eventListType.create(numUnits);
+        unitMachine = new int[numUnits + 1];
+        activeJob = new int[numUnits + 1];
+        firstUnit = new int[numMachines + 2];
+        firstUnit[1] = 1;
+        for (int machine = 1; machine <= numMachines; machine++) {
+            firstUnit[machine + 1] = firstUnit[machine] + capacities[machine];
+            Arrays.fill(unitMachine, firstUnit[machine], firstUnit[machine + 1], machine);
+        }
+        for (int unit = 1; unit <= numUnits; unit++)
+            eList.setIdle(unit);
+        queueFront = new int[numMachines + 1];
+        queueRear = new int[numMachines + 1];
+
+        tasks = new int[INITIAL_SLOTS][];
+        nextTask = new int[INITIAL_SLOTS];
+        releaseTime = new long[INITIAL_SLOTS];
+        length = new long[INITIAL_SLOTS];
+        arrivalTime = new long[INITIAL_SLOTS];
+        nextInQueue = new int[INITIAL_SLOTS];
+        freeSlot = 0;
+        addFreeSlots(1);
+        numJobsInShop = 0;
+    }
+
+    /** put the slots from theFirst to the end of the arrays on the free list */
+    private void addFreeSlots(int theFirst) {
+        for (int slot = nextInQueue.length - 1; slot >= theFirst; slot--) {
+            nextInQueue[slot] = freeSlot;
+            freeSlot = slot;
+        }
+    }
+
+    /** double the number of job slots */
+    private void growSlots() {
+        int oldLength = nextInQueue.length;
+        int newLength = 2 * oldLength;
+        tasks = Arrays.copyOf(tasks, newLength);
+        nextTask = Arrays.copyOf(nextTask, newLength);
+        releaseTime = Arrays.copyOf(releaseTime, newLength);
+        length = Arrays.copyOf(length, newLength);
+        arrivalTime = Arrays.copyOf(arrivalTime, newLength);
+        nextInQueue = Arrays.copyOf(nextInQueue, newLength);
+        addFreeSlots(oldLength);
+    }
+
+    /** give a job with theTasks a slot and put it in the queue of its first machine */
+    private void releaseJob(int[] theTasks) {
+        if (theTasks.length < 3)
+            throw new IllegalArgumentException(MachineShopSimulator.EACH_JOB_MUST_HAVE_AT_LEAST_1_TASK);
+        for (int k = 1; k < theTasks.length; k += 2)
+            if (theTasks[k] < 1 || theTasks[k] > numMachines || theTasks[k + 1] < 1)
+                throw new IllegalArgumentException(MachineShopSimulator.BAD_MACHINE_NUMBER_OR_TASK_TIME);
+        if (freeSlot == 0)
+            growSlots();
+        int job = freeSlot;
+        freeSlot = nextInQueue[job];
+        tasks[job] = theTasks;
+        nextTask[job] = 1;
+        releaseTime[job] = timeNow;
+        length[job] = 0;
+        numJobsInShop++;
+        results.recordRelease(numJobsInShop, nextInQueue.length - 1);
+        arriveAtNextMachine(job);
+    }
+
+    /**
+     * change the state of theUnit
+     * @return slot of the last job run on the unit, 0 if none
+     */
+    private int changeState(int theUnit) {
+        int theMachine = unitMachine[theUnit];
+        int lastJob = activeJob[theUnit];
+        if (lastJob == 0) {
+            int job = queueFront[theMachine];
+            if (job == 0)
+                eList.setIdle(theUnit);
+            else {
+                // take the front job off the queue and start its next task
+                queueFront[theMachine] = nextInQueue[job];
+                if (queueFront[theMachine] == 0)
+                    queueRear[theMachine] = 0;
+                activeJob[theUnit] = job;
+                results.recordTask(theMachine, timeNow - arrivalTime[job]);
+                int t = tasks[job][2 * nextTask[job]];
+                nextTask[job]++;
+                length[job] += t;
+                eList.setFinishTime(theUnit, timeNow + t);
+            }
+        } else {
+            activeJob[theUnit] = 0;
+            eList.setFinishTime(theUnit, timeNow + changeOverTimes[theMachine]);
+        }
+        return lastJob;
+    }
+
+    /** move theJob to the machine of its next task, or record its completion and free its slot */
+    private void moveToNextMachine(int theJob) {
+        if (2 * nextTask[theJob] > tasks[theJob].length) {
+            long flowTime = timeNow - releaseTime[theJob];
+            results.recordCompletion(flowTime, flowTime - length[theJob]);
+            tasks[theJob] = null;
+            nextInQueue[theJob] = freeSlot;
+            freeSlot = theJob;
+            numJobsInShop--;
+        } else
+            arriveAtNextMachine(theJob);
+    }
+
+    /** put theJob in the queue of the machine of its next task and start an idle unit of it */
+    private void arriveAtNextMachine(int theJob) {
+        int p = tasks[theJob][2 * nextTask[theJob] - 1];
+        nextInQueue[theJob] = 0;
+        if (queueFront[p] == 0)
+            queueFront[p] = theJob;
+        else
+            nextInQueue[queueRear[p]] = theJob;
+        queueRear[p] = theJob;
+        arrivalTime[theJob] = timeNow;
+        // start the lowest numbered idle unit, if any
+        for (int unit = firstUnit[p]; unit < firstUnit[p + 1]; unit++)
+            if (eList.isIdle(unit)) {
+                changeState(unit);
+                break;
+            }
+    }
+
+    /**
+     * run the machines of the specification file fileName as an open shop up
+     * to theHorizon, its jobs arriving in a random order with exponential
+     * times of mean theMeanInterarrivalTime between them, and print the statistics
+     */
+    static void runCommandLine(long theHorizon, double theMeanInterarrivalTime, long theSeed, String fileName) {
+        SimulationSpecification specification = SpecificationFiles.readSpecification(fileName);
+        JobSource source = JobSource.sampling(specification, theMeanInterarrivalTime, theSeed);
+        new OpenShopSimulator(specification).run(source, theHorizon).print(System.out);
+    }
+}
@@ -0,0 +1,499 @@
+package applications;
+
+import java.util.Arrays;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import dataStructures.IndexedMinHeap;
+import dataStructures.LongIntMinHeap;
+
+/**
+ * A conservative parallel machine shop simulator. The machines are split
+ * into partitions of consecutive machines, balanced by number of tasks,
+ * and each partition is simulated by its own thread with its own event
+ * list. A job whose next task is in another partition is sent there as a
+ * message stamped with its arrival time.
+ *
+ * The lookahead that lets partitions run side by side is the shortest
+ * task that is followed by a task in another partition: such a job is
+ * sent the moment its task starts, so a task started at time s produces
+ * no message for a time before s + lookahead. The simulation therefore
+ * advances in windows [T, T + lookahead), T being the earliest pending
+ * event or message anywhere: every message for a window has been sent
+ * before it starts, so the partitions run each window independently and
+ * meet at a barrier only between windows, where the messages change
+ * hands and the next T is found.
+ *
+ * The sequential engines process the events at one time in order of
+ * machine number, the moves of jobs included. A partition does the same
+ * with its own events and the messages it receives, a message counting
+ * as an event of the machine that sent it, so every machine sees exactly
+ * the same sequence of arrivals and departures as in
+ * {@link MachineShopSimulator}, and the results are the same.
+ *
+ * Shops with stations of several units are not supported, since a
+ * message is ordered by the single machine that sent it, and neither are
+ * jobs released after time 0, which come from no machine at all.
+ */
+public class ParallelSimulator {
+    /**
+     * command line option of {@link MachineShopSimulator} that runs a
+     * specification file here, split into the given number of partitions
+     */
+    public static final String PARALLEL_OPTION = "--parallel";
+    public static final String STATIONS_NOT_SUPPORTED = "the parallel simulator does not run shops with stations";
+    public static final String RELEASE_TIMES_NOT_SUPPORTED = "the parallel simulator does not run jobs with release times";
+
+    private static final long LARGE_TIME = Long.MAX_VALUE; // no event pending
+
+    // data members
+    private final int numPartitions; // most partitions to split a shop into
+
+    // state of the run in progress, shared by the partitions
+    private TaskTable table; // the jobs being simulated
+    private Partition[] partitions;
+    private int[] partitionOf; // partitionOf[m] is the partition of machine m
+    private long lookahead; // shortest task followed by one in another partition
+    private CyclicBarrier barrier; // where the partitions meet between windows
+    private int window; // number of the current window, counting from 1
+    private long windowEnd; // end of the current window, exclusive
+    private boolean finished; // set once no event or message is pending
+    private volatile Throwable failure; // first exception thrown by a partition
+
+    // per machine state, indexed by machine number; each partition only
+    // touches the elements of its own machines
+    private int[] activeJob; // job on the machine, 0 if none
+    private boolean[] activeJobSent; // active job already sent to its next machine
+    private int[] queueFront; // first job waiting for the machine, 0 if none
+    private int[] queueRear; // last job waiting for the machine, 0 if none
+    private long[] totalWait; // total delay at the machine
+    private int[] numTasks; // number of tasks processed on the machine
+
+    // per job state, indexed by job id; only the partition the job is in
+    // touches its elements
+    private int[] nextTask; // index in table of the job's next task
+    private long[] length; // sum of scheduled task times
+    private long[] arrivalTime; // arrival time at current queue
+    private int[] nextInQueue; // job behind this one in its queue, 0 if none
+
+    /** create a simulator that uses a partition for each available processor */
+    public ParallelSimulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** create a simulator that splits a shop into at most theNumPartitions partitions */
+    public ParallelSimulator(int theNumPartitions) {
+        if (theNumPartitions < 1)
+            throw new IllegalArgumentException("number of partitions must be >= 1");
+        numPartitions = theNumPartitions;
+    }
+
+    /**
+     * runs the simulation described by specification
+     * @param specification
+     * @return the results of running the simulation
+     */
+    public SimulationResults runSimulation(SimulationSpecification specification) {
+        return runSimulation(TaskTable.fromSpecification(specification));
+    }
+
+    /**
+     * runs the simulation of the jobs in theTable
+     * @param theTable
+     * @return the results of running the simulation
+     */
+    public SimulationResults runSimulation(TaskTable theTable) {
+        if (theTable.numUnits != theTable.numMachines)
+            throw new IllegalArgumentException(STATIONS_NOT_SUPPORTED);
+        if (theTable.releaseOrder().length > 0)
+            throw new IllegalArgumentException(RELEASE_TIMES_NOT_SUPPORTED);
+        table = theTable;
+        try {
+            createState();
+            partitionMachines();
+            findLookahead();
+            runPartitions();
+            return collectResults();
+        } finally {
+            table = null;
+            partitions = null;
+        }
+    }
+
+    private void createState() {
+        int numMachines = table.numMachines;
+        int numJobs = table.numJobs;
+        activeJob = new int[numMachines + 1];
+        activeJobSent = new boolean[numMachines + 1];
+        queueFront = new int[numMachines + 1];
+        queueRear = new int[numMachines + 1];
+        totalWait = new long[numMachines + 1];
+        numTasks = new int[numMachines + 1];
+        nextTask = new int[numJobs + 1];
+        length = new long[numJobs + 1];
+        arrivalTime = new long[numJobs + 1];
+        nextInQueue = new int[numJobs + 1];
+        for (int job = 1; job <= numJobs; job++)
+            nextTask[job] = table.firstTask[job];
+    }
+
+    /** split the machines into runs of consecutive machines with about equal numbers of tasks */
+    private void partitionMachines() {
+        int numMachines = table.numMachines;
+        int count = Math.min(numPartitions, numMachines);
+        long[] tasksUpTo = new long[numMachines + 1]; // tasks on machines 1..m
+        for (int task = 0; task < table.getNumTasks(); task++)
+            tasksUpTo[table.taskMachine[task]]++;
+        for (int m = 1; m <= numMachines; m++)
+            tasksUpTo[m] += tasksUpTo[m - 1];
+
+        partitionOf = new int[numMachines + 1];
+        partitions = new Partition[count];
+        int first = 1;
+        for (int p = 0; p < count; p++) {
+            int last;
+            if (p == count - 1)
+                last = numMachines;
+            else {
+                // the machine where this partition's share of the tasks is
+                // reached, leaving at least one machine for each later partition
+                long share = tasksUpTo[numMachines] * (p + 1) / count;
+                last = first;
+                while (last < numMachines - (count - 1 - p) && tasksUpTo[last] < share)
+                    last++;
+            }
+            partitions[p] = new Partition(p, first, last);
+            for (int m = first; m <= last; m++)
+                partitionOf[m] = p;
+            first = last + 1;
+        }
+    }
+
+    private void findLookahead() {
+        lookahead = LARGE_TIME;
+        for (int job = 1; job <= table.numJobs; job++)
+            for (int task = table.firstTask[job]; task < table.firstTask[job + 1] - 1; task++)
+                if (partitionOf[table.taskMachine[task]] != partitionOf[table.taskMachine[task + 1]])
+                    lookahead = Math.min(lookahead, table.taskTime[task]);
+    }
+
+    /** run every partition to the end, the first one on this thread */
+    private void runPartitions() {
+        window = 0;
+        finished = false;
+        failure = null;
+        barrier = new CyclicBarrier(partitions.length, this::startWindow);
+        Thread[] threads = new Thread[partitions.length];
+        for (int p = 1; p < partitions.length; p++) {
+            threads[p] = new Thread(partitions[p], "ParallelSimulator-" + p);
+            threads[p].start();
+        }
+        partitions[0].run();
+        for (int p = 1; p < partitions.length; p++) {
+            boolean interrupted = false;
+            while (threads[p].isAlive()) {
+                try {
+                    threads[p].join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+        if (failure instanceof RuntimeException)
+            throw (RuntimeException) failure;
+        if (failure instanceof Error)
+            throw (Error) failure;
+        if (failure != null)
+            throw new IllegalStateException(failure);
+    }
+
+    /** barrier action: find the next window, or that there is none */
+    private void startWindow() {
+        long next = LARGE_TIME;
+        for (Partition partition : partitions)
+            next = Math.min(next, partition.nextTime);
+        window++;
+        finished = next == LARGE_TIME || failure != null;
+        // no pending time is near LARGE_TIME, but the lookahead may be it
+        windowEnd = next > LARGE_TIME - lookahead ? LARGE_TIME : next + lookahead;
+    }
+
+    private SimulationResults collectResults() {
+        SimulationResults simulationResults = new SimulationResults(table.numJobs);
+        // merge the completions of the partitions in order of (time, machine);
+        // the heap holds the next completion of each partition
+        LongIntMinHeap heads = new LongIntMinHeap(partitions.length);
+        int[] next = new int[partitions.length];
+        for (Partition partition : partitions)
+            if (partition.numCompleted > 0)
+                heads.put(partition.completionTime[0], partition.completionMachine[0]);
+        long finishTime = 0;
+        while (!heads.isEmpty()) {
+            Partition partition = partitions[partitionOf[heads.getMinValue()]];
+            heads.removeMin();
+            int i = next[partition.index]++;
+            finishTime = partition.completionTime[i];
+            simulationResults.setJobCompletionData(partition.completedJob[i], finishTime, partition.completionWait[i]);
+            if (i + 1 < partition.numCompleted)
+                heads.put(partition.completionTime[i + 1], partition.completionMachine[i + 1]);
+        }
+        simulationResults.setFinishTime(finishTime);
+        simulationResults.setNumMachines(table.numMachines);
+        simulationResults.setTotalWaitTimePerMachine(totalWait);
+        simulationResults.setNumTasksPerMachine(numTasks);
+        return simulationResults;
+    }
+
+    /** Messages from one partition to another, kept in parallel arrays. */
+    private static final class MessageBuffer {
+        long[] times = new long[16]; // arrival time
+        int[] machines = new int[16]; // sending machine
+        int[] jobs = new int[16];
+        int size;
+
+        void add(long time, int machine, int job) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, 2 * size);
+                machines = Arrays.copyOf(machines, 2 * size);
+                jobs = Arrays.copyOf(jobs, 2 * size);
+            }
+            times[size] = time;
+            machines[size] = machine;
+            jobs[size] = job;
+            size++;
+        }
+    }
+
+    /** The machines first..last and everything that happens to them. */
+    private final class Partition implements Runnable {
+        final int index; // number of this partition
+        final int first; // first machine of this partition
+        final int last; // last machine of this partition
+        final IndexedMinHeap events; // finish times of the busy machines, by m - first + 1
+        // sending machines of the messages received, by arrival time; a
+        // machine sends its next job no earlier than its last one arrives,
+        // and a message arriving in a window is received before the window,
+        // so each machine has at most one message here and jobFrom holds it
+        final LongIntMinHeap inbox = new LongIntMinHeap();
+        final int[] jobFrom; // jobFrom[m] is the job in the message from machine m
+        // outbox[b][d] holds the messages to partition d; a window writes
+        // one of the two buffers while the receivers empty the other
+        final MessageBuffer[][] outbox;
+        long nextTime; // earliest pending event or message, reported at the barrier
+
+        // completions, in the order they happened here
+        int numCompleted;
+        int[] completedJob;
+        long[] completionTime;
+        int[] completionMachine;
+        long[] completionWait;
+
+        Partition(int theIndex, int theFirst, int theLast) {
+            index = theIndex;
+            first = theFirst;
+            last = theLast;
+            events = new IndexedMinHeap(theLast - theFirst + 1);
+            jobFrom = new int[table.numMachines + 1];
+            outbox = new MessageBuffer[2][numPartitions];
+            int capacity = 16;
+            completedJob = new int[capacity];
+            completionTime = new long[capacity];
+            completionMachine = new int[capacity];
+            completionWait = new long[capacity];
+        }
+
+        public void run() {
+            // a partition that fails goes on meeting the others at the
+            // barrier, which then ends the run
+            try {
+                startShop();
+            } catch (Throwable e) {
+                fail(e);
+            }
+            try {
+                while (true) {
+                    barrier.await();
+                    if (finished)
+                        return;
+                    if (failure == null) {
+                        try {
+                            receiveMessages();
+                            processWindow();
+                        } catch (Throwable e) {
+                            fail(e);
+                        }
+                    }
+                }
+            } catch (BrokenBarrierException e) {
+                // another partition was interrupted, and reported it
+            } catch (InterruptedException e) {
+                fail(e);
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void fail(Throwable e) {
+            synchronized (ParallelSimulator.this) {
+                if (failure == null)
+                    failure = e;
+            }
+        }
+
+        /** load the jobs onto their first machines here, and start the machines */
+        private void startShop() {
+            nextTime = LARGE_TIME;
+            for (int job = 1; job <= table.numJobs; job++) {
+                // other partitions may already be moving their jobs on
+                int theMachine = table.taskMachine[table.firstTask[job]];
+                if (partitionOf[theMachine] == index)
+                    putJobOnMachineQueue(job, theMachine);
+            }
+            for (int theMachine = first; theMachine <= last; theMachine++)
+                changeState(theMachine, 0);
+            updateNextTime();
+        }
+
+        /** move the messages sent to this partition in the last window into the inbox */
+        private void receiveMessages() {
+            int buffer = (window + 1) % 2;
+            for (Partition sender : partitions) {
+                MessageBuffer messages = sender.outbox[buffer][index];
+                if (messages == null)
+                    continue;
+                for (int i = 0; i < messages.size; i++) {
+                    inbox.put(messages.times[i], messages.machines[i]);
+                    jobFrom[messages.machines[i]] = messages.jobs[i];
+                }
+                messages.size = 0;
+            }
+        }
+
+        private void send(long time, int fromMachine, int theJob) {
+            int to = partitionOf[table.taskMachine[nextTask[theJob]]];
+            MessageBuffer[] buffers = outbox[window % 2];
+            if (buffers[to] == null)
+                buffers[to] = new MessageBuffer();
+            buffers[to].add(time, fromMachine, theJob);
+            nextTime = Math.min(nextTime, time);
+        }
+
+        /** process the events and messages before windowEnd, in order of (time, machine) */
+        private void processWindow() {
+            nextTime = LARGE_TIME;
+            while (true) {
+                // the event and the message first in order of (time, machine);
+                // the machines differ, the sender being in another partition
+                long eventTime = LARGE_TIME;
+                int eventMachine = 0;
+                if (!events.isEmpty()) {
+                    int id = events.getMinId();
+                    eventTime = events.getKey(id);
+                    eventMachine = id + first - 1;
+                }
+                long messageTime = inbox.isEmpty() ? LARGE_TIME : inbox.getMinKey();
+                long time = Math.min(eventTime, messageTime);
+                if (time == LARGE_TIME || time >= windowEnd)
+                    break;
+                if (eventTime < messageTime
+                        || eventTime == messageTime && eventMachine < inbox.getMinValue()) {
+                    int job = changeState(eventMachine, time);
+                    if (job != 0)
+                        moveToNextMachine(job, eventMachine, time);
+                } else {
+                    int job = jobFrom[inbox.getMinValue()];
+                    inbox.removeMin();
+                    arrive(job, time);
+                }
+            }
+            updateNextTime();
+        }
+
+        private void updateNextTime() {
+            if (!events.isEmpty())
+                nextTime = Math.min(nextTime, events.getKey(events.getMinId()));
+            if (!inbox.isEmpty())
+                nextTime = Math.min(nextTime, inbox.getMinKey());
+        }
+
+        /**
+         * change the state of theMachine
+         * @return last job run on the machine if it is still to be moved, 0 if none
+         */
+        private int changeState(int theMachine, long time) {
+            int id = theMachine - first + 1;
+            int lastJob = activeJob[theMachine];
+            if (lastJob == 0) {
+                int job = queueFront[theMachine];
+                if (job == 0)
+                    events.remove(id);
+                else {
+                    // take the front job off the queue and start its next task
+                    queueFront[theMachine] = nextInQueue[job];
+                    if (queueFront[theMachine] == 0)
+                        queueRear[theMachine] = 0;
+                    activeJob[theMachine] = job;
+                    totalWait[theMachine] += time - arrivalTime[job];
+                    numTasks[theMachine]++;
+                    int task = nextTask[job];
+                    int t = table.taskTime[task];
+                    nextTask[job] = task + 1;
+                    length[job] += t;
+                    events.put(id, time + t);
+                    // a job leaving for another partition is sent right away;
+                    // nothing here touches it after that
+                    activeJobSent[theMachine] = task + 1 < table.firstTask[job + 1]
+                            && partitionOf[table.taskMachine[task + 1]] != index;
+                    if (activeJobSent[theMachine])
+                        send(time + t, theMachine, job);
+                }
+                return 0;
+            }
+            activeJob[theMachine] = 0;
+            events.put(id, time + table.changeOverTimes[theMachine]);
+            return activeJobSent[theMachine] ? 0 : lastJob;
+        }
+
+        /** move theJob to the machine of its next task here, or record its completion */
+        private void moveToNextMachine(int theJob, int fromMachine, long time) {
+            if (nextTask[theJob] == table.firstTask[theJob + 1])
+                complete(theJob, fromMachine, time);
+            else
+                arrive(theJob, time);
+        }
+
+        /** put theJob in the queue of its next machine, starting the machine if it is idle */
+        private void arrive(int theJob, long time) {
+            int p = table.taskMachine[nextTask[theJob]];
+            putJobOnMachineQueue(theJob, p);
+            arrivalTime[theJob] = time;
+            if (!events.contains(p - first + 1))
+                changeState(p, time);
+        }
+
+        private void putJobOnMachineQueue(int theJob, int theMachine) {
+            nextInQueue[theJob] = 0;
+            if (queueFront[theMachine] == 0)
+                queueFront[theMachine] = theJob;
+            else
+                nextInQueue[queueRear[theMachine]] = theJob;
+            queueRear[theMachine] = theJob;
+        }
+
+        private void complete(int theJob, int theMachine, long time) {
+            if (numCompleted == completedJob.length) {
+                int capacity = 2 * numCompleted;
+                completedJob = Arrays.copyOf(completedJob, capacity);
+                completionTime = Arrays.copyOf(completionTime, capacity);
+                completionMachine = Arrays.copyOf(completionMachine, capacity);
+                completionWait = Arrays.copyOf(completionWait, capacity);
+            }
+            completedJob[numCompleted] = theJob;
+            completionTime[numCompleted] = time;
+            completionMachine[numCompleted] = theMachine;
+            completionWait[numCompleted] = time - length[theJob];
+            numCompleted++;
+        }
+    }
+}
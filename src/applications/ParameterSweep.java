@@ -0,0 +1,120 @@
+package applications;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs one job mix on a grid of machine settings: every row of the grid
+ * gives the machines different change-over times and every column gives
+ * them different capacities. The jobs are read into a {@link TaskTable}
+ * once; each point of the grid is a table that shares its task arrays and
+ * only has its own change-over times and capacities, and is run on its
+ * own {@link CompactSimulator}, so the points run in parallel without
+ * sharing any mutable state.
+ */
+public class ParameterSweep {
+    /** command line option of {@link MachineShopSimulator} that runs a sweep */
+    public static final String SWEEP_OPTION = "--sweep";
+    public static final String SWEEP_MUST_HAVE_AT_LEAST_1_POINT = "sweep must have >= 1 row and column";
+    public static final String FACTOR_MUST_BE_FINITE_AND_AT_LEAST_0 = "change-over factor must be finite and >= 0";
+    public static final String SCALED_CHANGE_OVER_TIME_TOO_LARGE = "scaled change-over time is too large";
+
+    // data members
+    private final TaskTable table; // the jobs shared by every point
+    private final int parallelism; // most points in progress at once
+
+    /** create a sweep over the jobs of theTable that uses all available processors */
+    public ParameterSweep(TaskTable theTable) {
+        this(theTable, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** create a sweep over the jobs of theTable that runs at most theParallelism points at once */
+    public ParameterSweep(TaskTable theTable, int theParallelism) {
+        if (theParallelism < 1)
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        table = theTable;
+        parallelism = theParallelism;
+    }
+
+    /**
+     * runs every combination of change-over times and capacities
+     * @param changeOverTimes the change-over times of each row, each indexed by machine from 1
+     * @param capacities the capacities of each column, each indexed by machine from 1
+     * @return the finish time and waits of every point
+     */
+    public SweepResults run(int[][] changeOverTimes, int[][] capacities) {
+        if (changeOverTimes.length == 0 || capacities.length == 0)
+            throw new IllegalArgumentException(SWEEP_MUST_HAVE_AT_LEAST_1_POINT);
+        // build, and so check, every table before running any of them
+        TaskTable[][] points = new TaskTable[changeOverTimes.length][capacities.length];
+        for (int row = 0; row < changeOverTimes.length; row++)
+            for (int column = 0; column < capacities.length; column++)
+                points[row][column] = table.withMachines(changeOverTimes[row], capacities[column]);
+
+        SweepResults results = new SweepResults(changeOverTimes.length, capacities.length, table.numMachines);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // keep a few points per thread queued, recording the oldest
+            // as it finishes, so that only their summaries are held
+            ArrayDeque<ForkJoinTask<SimulationResults>> running = new ArrayDeque<>();
+            int recorded = 0;
+            for (int point = 0; point < results.getNumPoints(); point++) {
+                TaskTable pointTable = points[point / capacities.length][point % capacities.length];
+                running.add(pool.submit(() -> new CompactSimulator().runSimulation(pointTable)));
+                if (running.size() >= 2 * parallelism)
+                    results.set(recorded++, running.remove().join());
+            }
+            while (!running.isEmpty())
+                results.set(recorded++, running.remove().join());
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    /**
+     * @return for each factor, the change-over times of theTable's machines scaled by it and rounded
+     * @throws IllegalArgumentException if a factor is not finite and >= 0, or
+     *         scales a change-over time past Integer.MAX_VALUE
+     */
+    public static int[][] scaledChangeOverTimes(TaskTable theTable, double[] factors) {
+        int[][] result = new int[factors.length][theTable.numMachines + 1];
+        for (int i = 0; i < factors.length; i++) {
+            if (!(factors[i] >= 0) || Double.isInfinite(factors[i]))
+                throw new IllegalArgumentException(FACTOR_MUST_BE_FINITE_AND_AT_LEAST_0 + ": " + factors[i]);
+            for (int m = 1; m <= theTable.numMachines; m++) {
+                long scaled = Math.round(theTable.changeOverTimes[m] * factors[i]);
+                if (scaled > Integer.MAX_VALUE)
+                    throw new IllegalArgumentException(SCALED_CHANGE_OVER_TIME_TOO_LARGE + ": "
+                            + theTable.changeOverTimes[m] + " * " + factors[i]);
+                result[i][m] = (int) scaled;
+            }
+        }
+        return result;
+    }
+
+    /** @return for each number of units, capacities giving every one of numMachines machines that many */
+    public static int[][] uniformCapacities(int numMachines, int[] units) {
+        int[][] result = new int[units.length][numMachines + 1];
+        for (int i = 0; i < units.length; i++)
+            Arrays.fill(result[i], 1, numMachines + 1, units[i]);
+        return result;
+    }
+
+    /**
+     * sweep the jobs of the specification file fileName over its change-over
+     * times scaled by each of the comma separated factors and each of the
+     * comma separated numbers of units per machine, and print the finish times
+     */
+    static void runCommandLine(String factors, String units, String fileName) {
+        TaskTable table = SpecificationFiles.readTaskTable(fileName);
+        double[] scales = Arrays.stream(factors.split(",")).mapToDouble(Double::parseDouble).toArray();
+        int[] counts = Arrays.stream(units.split(",")).mapToInt(Integer::parseInt).toArray();
+        SweepResults results = new ParameterSweep(table).run(scaledChangeOverTimes(table, scales),
+                uniformCapacities(table.numMachines, counts));
+        System.out.println("Finish times, change-over factors " + factors + " by units " + units);
+        results.print(System.out);
+    }
+}
@@ -0,0 +1,345 @@
+package applications;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Remembers the results of the specifications already run, keyed by
+ * their {@link SpecificationFingerprint}, so a specification submitted
+ * again is answered without being run again. The same shop has other
+ * results under another {@link DispatchPolicy}, so each cache holds the
+ * results of one simulator configuration, named by its variant, which is
+ * hashed into every key; caches of different variants may share a
+ * directory. Callers must only hand a cache simulators of its variant.
+ * Results are kept in memory up to a bound on their total estimated
+ * size, the least recently used going first, and if a directory is given
+ * every result is also written to a file there, from which a later
+ * cache, in this process or another, reads it back. The directory is
+ * never pruned.
+ *
+ * A cache may be used by many threads at once. A specification that is
+ * being run when another thread asks for it is run only once, the other
+ * thread waiting for its results. Every caller gets its own copy of the
+ * results, which it may change or print as it likes.
+ *
+ * A result file is a header of two big-endian ints, {@link #MAGIC} and
+ * {@link #VERSION}, and the fingerprint with the variant, followed by the
+ * finish time, the tasks and total wait of each machine and the number,
+ * completion time and total wait of each job in the order the jobs
+ * completed. A file that cannot be read is treated as missing and is
+ * written afresh, and a file that cannot be written is counted but does
+ * not fail the request.
+ */
+public class ResultCache {
+    // names of the measurements the cache publishes
+    public static final String HITS = "cache.hits";
+    public static final String DISK_HITS = "cache.diskHits";
+    public static final String MISSES = "cache.misses";
+    public static final String EVICTIONS = "cache.evictions";
+    public static final String DISK_ERRORS = "cache.diskErrors";
+    public static final String ENTRIES = "cache.entries";
+    public static final String BYTES = "cache.bytes";
+
+    /** extension of the result files */
+    public static final String RESULT_FILE_EXTENSION = ".results";
+
+    static final int MAGIC = 0x4d535253; // "MSRS"
+    static final int VERSION = 2;
+
+    /** variant of the simulators with the default configuration, dispatching first come, first served */
+    public static final String FIFO_VARIANT = "fifo";
+
+    // data members
+    private final long maxBytes; // most bytes of results kept in memory
+    private final Path directory; // where the result files go, null if none
+    private final String variant; // names the simulator configuration the results come from
+    private final LinkedHashMap<SpecificationFingerprint, SimulationResults> entries =
+            new LinkedHashMap<>(16, 0.75f, true); // in least recently used order; guarded by itself
+    private long bytes; // estimated size of the entries; guarded by entries
+    private final ConcurrentHashMap<SpecificationFingerprint, CompletableFuture<SimulationResults>> running =
+            new ConcurrentHashMap<>(); // specifications being looked up on disk or run
+    private final AtomicLong hits = new AtomicLong(); // answered from memory or by another thread's run
+    private final AtomicLong diskHits = new AtomicLong(); // answered from a result file
+    private final AtomicLong misses = new AtomicLong(); // answered by running the specification
+    private final AtomicLong evictions = new AtomicLong(); // entries dropped to make room
+    private final AtomicLong diskErrors = new AtomicLong(); // result files that could not be written
+
+    /** create a cache of FIFO_VARIANT results that keeps up to theMaxBytes of them in memory only */
+    public ResultCache(long theMaxBytes) {
+        this(theMaxBytes, null);
+    }
+
+    /**
+     * create a cache of FIFO_VARIANT results that keeps up to theMaxBytes
+     * of them in memory and every one in a file in theDirectory, which is
+     * created if need be; theDirectory may be null for a cache in memory only
+     */
+    public ResultCache(long theMaxBytes, File theDirectory) {
+        this(theMaxBytes, theDirectory, FIFO_VARIANT);
+    }
+
+    /**
+     * create a cache of the results of simulators configured as
+     * theVariant names, keeping up to theMaxBytes of them in memory and,
+     * unless theDirectory is null, every one in a file in theDirectory
+     */
+    public ResultCache(long theMaxBytes, File theDirectory, String theVariant) {
+        if (theMaxBytes < 0)
+            throw new IllegalArgumentException("cache size must be >= 0");
+        if (theVariant == null)
+            throw new IllegalArgumentException("variant must not be null");
+        maxBytes = theMaxBytes;
+        variant = theVariant;
+        directory = theDirectory == null ? null : theDirectory.toPath();
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @return the results of specification, from the cache if it holds
+     *         them and otherwise from running it on simulator, which must
+     *         be configured as the variant of the cache names and may
+     *         reuse its results from run to run
+     */
+    public SimulationResults getOrRun(SimulationSpecification specification,
+            Function<SimulationSpecification, SimulationResults> simulator) {
+        SpecificationFingerprint key = SpecificationFingerprint.of(specification, variant);
+        SimulationResults results = lookUp(key);
+        if (results != null) {
+            hits.incrementAndGet();
+            return results.copy();
+        }
+        CompletableFuture<SimulationResults> mine = new CompletableFuture<>();
+        CompletableFuture<SimulationResults> theirs = running.putIfAbsent(key, mine);
+        if (theirs != null) {
+            hits.incrementAndGet();
+            try {
+                return theirs.join().copy();
+            } catch (CompletionException e) {
+                // the run failed, and would fail again here
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+        try {
+            // the run that was going on may have finished since the first look
+            results = lookUp(key);
+            if (results != null)
+                hits.incrementAndGet();
+            else {
+                results = readFile(key);
+                if (results != null)
+                    diskHits.incrementAndGet();
+                else {
+                    misses.incrementAndGet();
+                    results = simulator.apply(specification).copy();
+                    writeFile(key, results);
+                }
+                store(key, results);
+            }
+            mine.complete(results);
+            return results.copy();
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            running.remove(key, mine);
+        }
+    }
+
+    /** @return the results of the specification with fingerprint key kept in memory, null if none are */
+    private SimulationResults lookUp(SpecificationFingerprint key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /** keep results in memory, dropping the least recently used entries to make room */
+    private void store(SpecificationFingerprint key, SimulationResults results) {
+        long size = sizeOf(results);
+        if (size > maxBytes)
+            return;
+        synchronized (entries) {
+            if (entries.put(key, results) != null)
+                return;
+            bytes += size;
+            Iterator<SimulationResults> eldest = entries.values().iterator();
+            while (bytes > maxBytes) {
+                bytes -= sizeOf(eldest.next());
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /** @return estimated bytes of memory that results take */
+    static long sizeOf(SimulationResults results) {
+        // the object and its arrays, the per machine and the per job columns
+        return 128 + 12L * (results.getNumMachines() + 1) + 20L * results.getNumCompletedJobs();
+    }
+
+    private Path file(SpecificationFingerprint key) {
+        return directory.resolve(key + RESULT_FILE_EXTENSION);
+    }
+
+    /** @return the results in the file of key, null if there is no cache directory or no readable file */
+    private SimulationResults readFile(SpecificationFingerprint key) {
+        if (directory == null)
+            return null;
+        Path file = file(key);
+        if (!Files.isRegularFile(file))
+            return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != key.getHigh()
+                    || in.readLong() != key.getLow())
+                return null;
+            long finishTime = in.readLong();
+            int numMachines = in.readInt();
+            int[] numTasks = new int[numMachines + 1];
+            long[] totalWaits = new long[numMachines + 1];
+            for (int m = 1; m <= numMachines; m++) {
+                numTasks[m] = in.readInt();
+                totalWaits[m] = in.readLong();
+            }
+            int numCompleted = in.readInt();
+            SimulationResults results = new SimulationResults(numCompleted);
+            results.setFinishTime(finishTime);
+            results.copyMachineStatistics(numMachines, totalWaits, numTasks);
+            for (int i = 0; i < numCompleted; i++)
+                results.setJobCompletionData(in.readInt(), in.readLong(), in.readLong());
+            return results;
+        } catch (IOException | RuntimeException e) {
+            // a damaged or partly written file, to be written afresh
+            return null;
+        }
+    }
+
+    /**
+     * write results to the file of key, by way of a temporary file so the
+     * file always holds whole results; does nothing if there is no cache
+     * directory, and only counts a failure to write
+     */
+    private void writeFile(SpecificationFingerprint key, SimulationResults results) {
+        if (directory == null)
+            return;
+        try {
+            Path tempFile = Files.createTempFile(directory, key.toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeLong(key.getHigh());
+                    out.writeLong(key.getLow());
+                    out.writeLong(results.getFinishTime());
+                    int numMachines = results.getNumMachines();
+                    int[] numTasks = results.getNumTasksPerMachine();
+                    long[] totalWaits = results.getTotalWaitTimePerMachine();
+                    out.writeInt(numMachines);
+                    for (int m = 1; m <= numMachines; m++) {
+                        out.writeInt(numTasks[m]);
+                        out.writeLong(totalWaits[m]);
+                    }
+                    out.writeInt(results.getNumCompletedJobs());
+                    for (int i = 0; i < results.getNumCompletedJobs(); i++) {
+                        out.writeInt(results.getJobNumber(i));
+                        out.writeLong(results.getCompletionTime(i));
+                        out.writeLong(results.getTotalWaitTime(i));
+                    }
+                }
+                Files.move(tempFile, file(key), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            diskErrors.incrementAndGet();
+        }
+    }
+
+    /** @return name of the simulator configuration whose results the cache holds */
+    public String getVariant() {
+        return variant;
+    }
+
+    /** drop every result kept in memory; the result files are kept */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    /** @return number of requests answered from memory or by another thread's run */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** @return number of requests answered from a result file */
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /** @return number of requests answered by running the specification */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** @return number of entries dropped from memory to make room */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /** @return number of result files that could not be written */
+    public long getDiskErrors() {
+        return diskErrors.get();
+    }
+
+    /** @return number of results kept in memory */
+    public int getNumEntries() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** @return estimated bytes of the results kept in memory */
+    public long getBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    /** add the counts of the cache to metrics */
+    public void publish(SimulationMetrics metrics) {
+        metrics.addToCounter(HITS, getHits());
+        metrics.addToCounter(DISK_HITS, getDiskHits());
+        metrics.addToCounter(MISSES, getMisses());
+        metrics.addToCounter(EVICTIONS, getEvictions());
+        metrics.addToCounter(DISK_ERRORS, getDiskErrors());
+        synchronized (entries) {
+            metrics.setGauge(ENTRIES, entries.size());
+            metrics.setGauge(BYTES, bytes);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package applications;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes {@link SimulationResults} in the simulator's text output format.
+ * The integers are formatted straight into one reusable byte buffer that
+ * is only handed to the output stream or file when it fills up, so the
+ * output costs no String building and no call into System.out per line.
+ * The bytes written are exactly those of printing each line with
+ * System.out.println.
+ */
+public class ResultsWriter {
+    public static final String OUTPUT_OPTION = "--output";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 128; // longer than any line written
+
+    private static final byte[] LINE_SEPARATOR = ascii(System.lineSeparator());
+    private static final byte[] JOB = ascii("Job ");
+    private static final byte[] HAS_COMPLETED_AT = ascii(" has completed at ");
+    private static final byte[] TOTAL_WAIT_WAS = ascii(" Total wait was ");
+    private static final byte[] FINISH_TIME = ascii("Finish time = ");
+    private static final byte[] MACHINE = ascii("Machine ");
+    private static final byte[] COMPLETED = ascii(" completed ");
+    private static final byte[] TASKS = ascii(" tasks");
+    private static final byte[] TOTAL_WAIT_TIME_WAS = ascii("The total wait time was ");
+
+    // data members
+    private final OutputStream out; // where to write, null when writing to channel
+    private final FileChannel channel; // where to write, null when writing to out
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int count; // number of bytes in buffer
+
+    /** create a writer that writes to out */
+    public ResultsWriter(OutputStream out) {
+        this.out = out;
+        this.channel = null;
+    }
+
+    /** create a writer that writes to the file fileName, replacing its contents */
+    public ResultsWriter(String fileName) {
+        this.out = null;
+        try {
+            this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** write the completion of every job, the finish time and the machine statistics */
+    public void write(SimulationResults results) {
+        for (int i = 0; i < results.getNumCompletedJobs(); i++) {
+            makeRoomForLine();
+            append(JOB);
+            append(results.getJobNumber(i));
+            append(HAS_COMPLETED_AT);
+            append(results.getCompletionTime(i));
+            append(TOTAL_WAIT_WAS);
+            append(results.getTotalWaitTime(i));
+            append(LINE_SEPARATOR);
+        }
+
+        makeRoomForLine();
+        append(FINISH_TIME);
+        append(results.getFinishTime());
+        append(LINE_SEPARATOR);
+        int[] numTasksPerMachine = results.getNumTasksPerMachine();
+        long[] totalWaitTimePerMachine = results.getTotalWaitTimePerMachine();
+        for (int p = 1; p <= results.getNumMachines(); p++) {
+            makeRoomForLine();
+            append(MACHINE);
+            append(p);
+            append(COMPLETED);
+            append(numTasksPerMachine[p]);
+            append(TASKS);
+            append(LINE_SEPARATOR);
+            makeRoomForLine();
+            append(TOTAL_WAIT_TIME_WAS);
+            append(totalWaitTimePerMachine[p]);
+            append(LINE_SEPARATOR);
+            append(LINE_SEPARATOR);
+        }
+    }
+
+    private void makeRoomForLine() {
+        if (count + MAX_LINE_LENGTH > buffer.length)
+            flushBuffer();
+    }
+
+    private void append(byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    /** append the decimal digits of value */
+    private void append(long value) {
+        if (value == Long.MIN_VALUE) {
+            append(ascii(Long.toString(value)));
+            return;
+        }
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+        // write the digits backwards from the end of the number
+        int end = count + numDigits(value);
+        int p = end;
+        do {
+            buffer[--p] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        count = end;
+    }
+
+    /** @return number of decimal digits of the non-negative value */
+    private static int numDigits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    /** hand the buffered bytes to the stream or file */
+    private void flushBuffer() {
+        try {
+            if (channel != null) {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, count);
+                while (bytes.hasRemaining())
+                    channel.write(bytes);
+            } else
+                out.write(buffer, 0, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        count = 0;
+    }
+
+    /** write out everything buffered so far */
+    public void flush() {
+        flushBuffer();
+        try {
+            if (out != null)
+                out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** flush, then close the file; a stream passed in is flushed but left open */
+    public void close() {
+        flush();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package applications;
+
+/**
+ * A simulator for a service that runs many shops of the same shape one
+ * after another. Each specification is copied into task table arrays
+ * kept from run to run, and run on a {@link CompactSimulator}, which
+ * keeps its own state the same way, into results that are also reused.
+ * Every array only grows, to the size of the largest shop run so far,
+ * so once the first run has sized them a run allocates next to nothing.
+ *
+ * The results returned by a run are overwritten by the next one, so a
+ * caller that needs them longer must copy them out first. A simulator
+ * may only be used by one thread at a time.
+ */
+public class ReusableSimulator {
+    // data members
+    private final EventListType eventListType; // kind of event list to use
+    private CompactSimulator simulator; // the engine, with its pooled state
+    private SimulationResults simulationResults; // results of the last run, reused by the next
+
+    // pooled task table arrays
+    private int[] changeOverTimes;
+    private int[] capacities;
+    private int[] releaseTimes;
+    private int[] firstTask;
+    private int[] taskMachine;
+    private int[] taskTime;
+
+    /** create a simulator that uses the array scan event list */
+    public ReusableSimulator() {
+        this(EventListType.ARRAY);
+    }
+
+    /** create a simulator that uses the given kind of event list */
+    public ReusableSimulator(EventListType theEventListType) {
+        eventListType = theEventListType;
+        reset();
+    }
+
+    /**
+     * drop all the pooled storage, after an unusually large shop for
+     * instance, so the next run sizes it afresh
+     */
+    public void reset() {
+        simulator = new CompactSimulator(eventListType);
+        simulationResults = new SimulationResults(0);
+        changeOverTimes = new int[1];
+        capacities = new int[1];
+        releaseTimes = new int[1];
+        firstTask = new int[2];
+        taskMachine = new int[0];
+        taskTime = new int[0];
+    }
+
+    /**
+     * runs the simulation described by specification
+     * @param specification
+     * @return the results of running the simulation, valid until the next run
+     */
+    public SimulationResults runSimulation(SimulationSpecification specification) {
+        return simulator.runSimulation(load(specification), simulationResults);
+    }
+
+    /** @return a task table of specification over the pooled arrays */
+    private TaskTable load(SimulationSpecification specification) {
+        int numMachines = specification.getNumMachines();
+        int numJobs = specification.getNumJobs();
+
+        if (changeOverTimes.length < numMachines + 1) {
+            changeOverTimes = new int[numMachines + 1];
+            capacities = new int[numMachines + 1];
+        }
+        for (int m = 1; m <= numMachines; m++) {
+            changeOverTimes[m] = specification.getChangeOverTimes(m);
+            capacities[m] = specification.getCapacity(m);
+        }
+
+        if (firstTask.length < numJobs + 2)
+            firstTask = new int[numJobs + 2];
+        int numTasks = 0;
+        for (int j = 1; j <= numJobs; j++) {
+            firstTask[j] = numTasks;
+            numTasks += specification.getJobSpecifications(j).getNumTasks();
+        }
+        firstTask[numJobs + 1] = numTasks;
+
+        if (taskMachine.length < numTasks) {
+            // leave room to grow, so slowly growing shops do not reallocate every run
+            int size = Math.max(numTasks, numTasks + (numTasks >> 1));
+            taskMachine = new int[size];
+            taskTime = new int[size];
+        }
+        for (int j = 1; j <= numJobs; j++) {
+            int[] specificationsForTasks = specification.getJobSpecifications(j).getSpecificationsForTasks();
+            for (int k = 0, task = firstTask[j]; task < firstTask[j + 1]; k++, task++) {
+                taskMachine[task] = specificationsForTasks[2*k+1];
+                taskTime[task] = specificationsForTasks[2*k+2];
+            }
+        }
+
+        boolean releases = specification.hasReleaseTimes();
+        if (releases) {
+            if (releaseTimes.length < numJobs + 1)
+                releaseTimes = new int[numJobs + 1];
+            for (int j = 1; j <= numJobs; j++)
+                releaseTimes[j] = specification.getJobSpecifications(j).getReleaseTime();
+        }
+        return new TaskTable(numMachines, numJobs, changeOverTimes, capacities, releases ? releaseTimes : null,
+                firstTask, taskMachine, taskTime);
+    }
+}
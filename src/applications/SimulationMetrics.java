@@ -0,0 +1,171 @@
+package applications;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import utilities.Histogram;
+
+/**
+ * A registry of named measurements of one simulation run: counters,
+ * gauges, histograms, per machine series and the time spent in each
+ * phase of the run. Measurements are listed in the order they were first
+ * registered, and the whole registry can be dumped as JSON.
+ */
+public class SimulationMetrics {
+    /** command line option of {@link MachineShopSimulator} that writes the metrics to a file */
+    public static final String METRICS_OPTION = "--metrics";
+
+    // names of the measurements the simulator records
+    public static final String SETUP_PHASE = "setup";
+    public static final String SIMULATE_PHASE = "simulate";
+    public static final String STATISTICS_PHASE = "statistics";
+    public static final String OUTPUT_PHASE = "output";
+    public static final String EVENTS = "events";
+    public static final String EVENTS_PER_SECOND = "eventsPerSecond";
+    public static final String QUEUE_DEPTH = "queueDepth";
+    public static final String MAX_QUEUE_DEPTH = "maxQueueDepth";
+
+    // data members
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+    private final Map<String, Double> gauges = new LinkedHashMap<>();
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, int[]> series = new LinkedHashMap<>();
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+
+    /** @return name of the counter of transitions into transition's state */
+    public static String transitionCounter(MachineTransition transition) {
+        return "transitions." + transition.name();
+    }
+
+    public void addToCounter(String name, long amount) {
+        counters.merge(name, amount, Long::sum);
+    }
+
+    /** @return value of the counter name, 0 if it has never been added to */
+    public long getCounter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    public void setGauge(String name, double value) {
+        gauges.put(name, value);
+    }
+
+    /** @return value of the gauge name, NaN if it has never been set */
+    public double getGauge(String name) {
+        return gauges.getOrDefault(name, Double.NaN);
+    }
+
+    /** @return the histogram name, created empty on first use */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    /** @param values values indexed by machine number, element 0 unused */
+    public void setSeries(String name, int[] values) {
+        series.put(name, values);
+    }
+
+    /** @return the series name, null if it has never been set */
+    public int[] getSeries(String name) {
+        return series.get(name);
+    }
+
+    /** add nanos to the time spent in the phase name */
+    public void recordPhase(String name, long nanos) {
+        phaseNanos.merge(name, nanos, Long::sum);
+    }
+
+    /** @return nanoseconds spent in the phase name, 0 if it has not run */
+    public long getPhaseNanos(String name) {
+        return phaseNanos.getOrDefault(name, 0L);
+    }
+
+    /** @return the registry as a JSON object */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"phaseNanos\": {");
+        String separator = "";
+        for (Map.Entry<String, Long> phase : phaseNanos.entrySet()) {
+            json.append(separator).append("\n    ");
+            appendName(json, phase.getKey()).append(phase.getValue());
+            separator = ",";
+        }
+        json.append("\n  },\n  \"counters\": {");
+        separator = "";
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            json.append(separator).append("\n    ");
+            appendName(json, counter.getKey()).append(counter.getValue());
+            separator = ",";
+        }
+        json.append("\n  },\n  \"gauges\": {");
+        separator = "";
+        for (Map.Entry<String, Double> gauge : gauges.entrySet()) {
+            json.append(separator).append("\n    ");
+            appendName(json, gauge.getKey());
+            double value = gauge.getValue();
+            // JSON has no NaN or infinity
+            if (Double.isNaN(value) || Double.isInfinite(value))
+                json.append("null");
+            else
+                json.append(value);
+            separator = ",";
+        }
+        json.append("\n  },\n  \"histograms\": {");
+        separator = "";
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            json.append(separator).append("\n    ");
+            appendName(json, entry.getKey())
+                    .append("{\"count\": ").append(histogram.getCount())
+                    .append(", \"sum\": ").append(histogram.getSum())
+                    .append(", \"min\": ").append(histogram.getMin())
+                    .append(", \"max\": ").append(histogram.getMax())
+                    .append(", \"p50\": ").append(histogram.getPercentile(0.5))
+                    .append(", \"p99\": ").append(histogram.getPercentile(0.99))
+                    .append(", \"buckets\": [");
+            for (int b = 0; b < histogram.getNumBuckets(); b++)
+                json.append(b == 0 ? "" : ", ").append(histogram.getBucketCount(b));
+            json.append("]}");
+            separator = ",";
+        }
+        json.append("\n  },\n  \"series\": {");
+        separator = "";
+        for (Map.Entry<String, int[]> entry : series.entrySet()) {
+            int[] values = entry.getValue();
+            json.append(separator).append("\n    ");
+            appendName(json, entry.getKey()).append('[');
+            for (int i = 1; i < values.length; i++)
+                json.append(i == 1 ? "" : ", ").append(values[i]);
+            json.append(']');
+            separator = ",";
+        }
+        json.append("\n  }\n}\n");
+        return json.toString();
+    }
+
+    private static StringBuilder appendName(StringBuilder json, String name) {
+        json.append('"');
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"' || c == '\\')
+                json.append('\\');
+            json.append(c);
+        }
+        return json.append("\": ");
+    }
+
+    /** write the registry as JSON to the file fileName */
+    public void writeJson(String fileName) {
+        try (Writer out = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8)) {
+            out.write(toJson());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,43 +1,149 @@
 package applications;
 
 import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
+/**
+ * The results of one simulation. The job completions are kept, in the
+ * order the jobs completed, as three parallel columns rather than as an
+ * object per job; {@link #getJobCompletionData} builds the objects only
+ * when asked for them.
+ */
 public class SimulationResults {
-    private int finishTime;
+    private long finishTime;
     private int numMachines;
     private int[] numTasksPerMachine;
-    private int[] totalWaitTimePerMachine;
-    private JobCompletionData[] jobCompletions;
+    private long[] totalWaitTimePerMachine;
+    private int numJobs; // number of jobs of the run
+    private int[] jobNumbers; // job number of the i'th job to complete
+    private long[] completionTimes; // completion time of the i'th job to complete
+    private long[] totalWaitTimes; // total wait of the i'th job to complete
     private int nextJob = 0;
+    private JobCompletionData[] jobCompletions; // built on demand from the columns
+    private SimulationMetrics metrics; // null unless the run collected metrics
 
     public SimulationResults(int numJobs) {
-        jobCompletions = new JobCompletionData[numJobs];
+        this.numJobs = numJobs;
+        jobNumbers = new int[numJobs];
+        completionTimes = new long[numJobs];
+        totalWaitTimes = new long[numJobs];
     }
 
-    public void print() {
-        for (JobCompletionData data : jobCompletions) {
-            System.out.println("Job " + data.getJobNumber() + " has completed at "
-                    + data.getCompletionTime() + " Total wait was " + data.getTotalWaitTime());
+    /**
+     * empty the results for a run of theNumJobs jobs, keeping the storage
+     * of the columns if they are long enough
+     */
+    void reset(int theNumJobs) {
+        if (jobNumbers.length < theNumJobs) {
+            jobNumbers = new int[theNumJobs];
+            completionTimes = new long[theNumJobs];
+            totalWaitTimes = new long[theNumJobs];
         }
+        numJobs = theNumJobs;
+        nextJob = 0;
+        jobCompletions = null;
+        finishTime = 0;
+        metrics = null;
+    }
+
+    /**
+     * set the per machine statistics to copies of the first
+     * theNumMachines + 1 elements of theTotalWaits and theNumTasks, reusing
+     * the arrays of the last copies if they have that length
+     */
+    void copyMachineStatistics(int theNumMachines, long[] theTotalWaits, int[] theNumTasks) {
+        numMachines = theNumMachines;
+        if (totalWaitTimePerMachine == null || totalWaitTimePerMachine.length != theNumMachines + 1) {
+            totalWaitTimePerMachine = new long[theNumMachines + 1];
+            numTasksPerMachine = new int[theNumMachines + 1];
+        }
+        System.arraycopy(theTotalWaits, 0, totalWaitTimePerMachine, 0, theNumMachines + 1);
+        System.arraycopy(theNumTasks, 0, numTasksPerMachine, 0, theNumMachines + 1);
+    }
+
+    /**
+     * @return a copy of the results, without their metrics, that neither
+     *         later changes to these results nor the next run of a simulator
+     *         that reuses them affect
+     */
+    public SimulationResults copy() {
+        SimulationResults copy = new SimulationResults(numJobs);
+        copy.finishTime = finishTime;
+        copy.copyMachineStatistics(numMachines, totalWaitTimePerMachine, numTasksPerMachine);
+        System.arraycopy(jobNumbers, 0, copy.jobNumbers, 0, nextJob);
+        System.arraycopy(completionTimes, 0, copy.completionTimes, 0, nextJob);
+        System.arraycopy(totalWaitTimes, 0, copy.totalWaitTimes, 0, nextJob);
+        copy.nextJob = nextJob;
+        return copy;
+    }
+
+    /** print the results to standard output */
+    public void print() {
+        long start = System.nanoTime();
+        ResultsWriter writer = new ResultsWriter(System.out);
+        writer.write(this);
+        writer.flush();
+        recordOutputPhase(start);
+    }
 
-        System.out.println("Finish time = " + finishTime);
-        for (int p = 1; p <= numMachines; p++) {
-            System.out.println("Machine " + p + " completed "
-                    + numTasksPerMachine[p] + " tasks");
-            System.out.println("The total wait time was "
-                    + totalWaitTimePerMachine[p]);
-            System.out.println();
+    /** print the results to the file fileName instead of standard output */
+    public void print(String fileName) {
+        long start = System.nanoTime();
+        ResultsWriter writer = new ResultsWriter(fileName);
+        try {
+            writer.write(this);
+        } finally {
+            writer.close();
         }
+        recordOutputPhase(start);
     }
 
-    public int getFinishTime() {
+    /**
+     * @return the results as a JSON object: the finish time, the tasks and
+     *         total wait of each machine, and each job's number, completion
+     *         time and total wait in the order the jobs completed
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(64 + 24 * numMachines + 56 * nextJob);
+        json.append("{\"finishTime\": ").append(finishTime).append(", \"machines\": [");
+        for (int m = 1; m <= numMachines; m++)
+            json.append(m == 1 ? "" : ", ").append("{\"tasks\": ").append(numTasksPerMachine[m])
+                    .append(", \"totalWait\": ").append(totalWaitTimePerMachine[m]).append('}');
+        json.append("], \"jobs\": [");
+        for (int i = 0; i < nextJob; i++)
+            json.append(i == 0 ? "" : ", ").append("{\"job\": ").append(jobNumbers[i])
+                    .append(", \"completionTime\": ").append(completionTimes[i])
+                    .append(", \"totalWait\": ").append(totalWaitTimes[i]).append('}');
+        return json.append("]}").toString();
+    }
+
+    private void recordOutputPhase(long start) {
+        if (metrics != null)
+            metrics.recordPhase(SimulationMetrics.OUTPUT_PHASE, System.nanoTime() - start);
+    }
+
+    /** @return the metrics of the run, null if it collected none */
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public long getFinishTime() {
         return finishTime;
     }
 
-    public void setFinishTime(int finishTime) {
+    public void setFinishTime(long finishTime) {
         this.finishTime = finishTime;
     }
 
+    public int getNumMachines() {
+        return numMachines;
+    }
+
     public void setNumMachines(int numMachines) {
         this.numMachines = numMachines;
     }
@@ -50,21 +156,73 @@ public class SimulationResults {
         this.numTasksPerMachine = numTasksPerMachine;
     }
 
-    public int[] getTotalWaitTimePerMachine() {
+    public long[] getTotalWaitTimePerMachine() {
         return Arrays.copyOf(totalWaitTimePerMachine, totalWaitTimePerMachine.length);
     }
 
-    public void setTotalWaitTimePerMachine(int[] totalWaitTimePerMachine) {
+    public void setTotalWaitTimePerMachine(long[] totalWaitTimePerMachine) {
         this.totalWaitTimePerMachine = totalWaitTimePerMachine;
     }
 
+    /**
+     * @return one object per job, in the order the jobs completed; the
+     *         objects are created on the first call
+     */
     public JobCompletionData[] getJobCompletionData() {
+        if (jobCompletions == null) {
+            jobCompletions = new JobCompletionData[numJobs];
+            for (int i = 0; i < nextJob; i++)
+                jobCompletions[i] = new JobCompletionData(jobNumbers[i], completionTimes[i], totalWaitTimes[i]);
+        }
         return jobCompletions;
     }
 
-    public void setJobCompletionData(int jobNumber, int completionTime, int totalWaitTime) {
-        JobCompletionData jobCompletionData = new JobCompletionData(jobNumber, completionTime, totalWaitTime);
-        jobCompletions[nextJob] = jobCompletionData;
+    public void setJobCompletionData(int jobNumber, long completionTime, long totalWaitTime) {
+        jobNumbers[nextJob] = jobNumber;
+        completionTimes[nextJob] = completionTime;
+        totalWaitTimes[nextJob] = totalWaitTime;
         nextJob++;
+        jobCompletions = null;
+    }
+
+    /** @return number of jobs whose completion has been recorded */
+    public int getNumCompletedJobs() {
+        return nextJob;
+    }
+
+    /** @return number of the i'th job to complete, counting from 0 */
+    public int getJobNumber(int i) {
+        return jobNumbers[i];
+    }
+
+    /** @return completion time of the i'th job to complete, counting from 0 */
+    public long getCompletionTime(int i) {
+        return completionTimes[i];
+    }
+
+    /** @return total wait of the i'th job to complete, counting from 0 */
+    public long getTotalWaitTime(int i) {
+        return totalWaitTimes[i];
+    }
+
+    /** pass every job completion to consumer, in the order the jobs completed */
+    public void forEachJobCompletion(JobCompletionConsumer consumer) {
+        for (int i = 0; i < nextJob; i++)
+            consumer.accept(jobNumbers[i], completionTimes[i], totalWaitTimes[i]);
+    }
+
+    /** @return the job numbers, in the order the jobs completed */
+    public IntStream jobNumbers() {
+        return Arrays.stream(jobNumbers, 0, nextJob);
+    }
+
+    /** @return the completion times, in the order the jobs completed */
+    public LongStream completionTimes() {
+        return Arrays.stream(completionTimes, 0, nextJob);
+    }
+
+    /** @return the total waits of the jobs, in the order the jobs completed */
+    public LongStream totalWaitTimes() {
+        return Arrays.stream(totalWaitTimes, 0, nextJob);
     }
 }
@@ -0,0 +1,433 @@
+package applications;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import exceptions.MyInputException;
+
+/**
+ * Runs simulations for clients over HTTP, so a client that wants many
+ * runs pays for a request each rather than for starting a JVM each. A
+ * POST to {@link #PATH} with a specification in the text format, or in
+ * the format of {@link JsonSpecificationReader} if its content type is
+ * JSON, is answered with the results of running it as
+ * {@link SimulationResults#toJson} gives them.
+ *
+ * The request bodies are read and checked on the server's handler
+ * threads, and a faulty one is answered with status 400 at once. The
+ * checked specifications go into a bounded intake queue, from which a
+ * dispatcher thread gathers those arriving within a short window into a
+ * batch, closed early once it has enough requests or tasks, and hands
+ * the batch to a fixed pool of workers. Each worker runs its batches on
+ * its own {@link ReusableSimulator}, so a batch of small shops costs one
+ * hand-off and next to no allocation. The dispatcher lets only a few
+ * batches per worker wait for the pool; once they are taken the intake
+ * queue fills up, and a request that finds it full is answered with
+ * status 503 and a Retry-After header rather than being queued without
+ * bound. Given a {@link ResultCache}, the workers answer a specification
+ * submitted before from the cache.
+ */
+public class SimulationService {
+    /** command line option of {@link MachineShopSimulator} that runs the service */
+    public static final String SERVE_OPTION = "--serve";
+    /** path that simulation requests are posted to */
+    public static final String PATH = "/simulate";
+    public static final String JSON_CONTENT_TYPE = "application/json";
+    /** largest request body accepted, in bytes */
+    public static final int MAX_REQUEST_BYTES = 16 << 20;
+    public static final String COUNT_TOO_LARGE_FOR_REQUEST = "count is larger than the request body could hold";
+
+    static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    static final long DEFAULT_BATCH_WINDOW_MICROS = 500;
+    static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    static final int DEFAULT_MAX_BATCH_TASKS = 1 << 16;
+    private static final int BATCHES_WAITING_PER_WORKER = 2;
+    private static final int RETRY_AFTER_SECONDS = 1;
+    private static final long STOP_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final String SERVICE_STOPPED = "service stopped";
+
+    // data members
+    private final HttpServer server;
+    private final ExecutorService handlers; // read and check the request bodies
+    private final ExecutorService workers; // run the batches
+    private final Semaphore batchPermits; // batches the workers may still be handed
+    private final BlockingQueue<Request> intake; // checked requests waiting for a batch
+    private final Thread dispatcher; // gathers the requests into batches
+    private final long batchWindowNanos; // longest a batch waits for more requests
+    private final int maxBatchSize; // most requests in a batch
+    private final int maxBatchTasks; // tasks after which a batch takes no more requests
+    private ResultCache cache; // results of earlier requests, null if none are kept
+    private final ThreadLocal<ReusableSimulator> simulators = ThreadLocal.withInitial(ReusableSimulator::new);
+    private final AtomicLong numAccepted = new AtomicLong(); // requests queued
+    private final AtomicLong numRequests = new AtomicLong(); // requests run
+    private final AtomicLong numBatches = new AtomicLong(); // batches run
+    private final AtomicLong numRejected = new AtomicLong(); // requests turned away by a full queue
+    private volatile boolean stopping; // set by stop, after which no request is queued
+    private int numActiveHandlers; // handlers that may still queue a request, guarded by this
+
+    /** a checked request waiting to be run */
+    private static final class Request {
+        final HttpExchange exchange;
+        final SimulationSpecification specification;
+        final long numTasks;
+
+        Request(HttpExchange theExchange, SimulationSpecification theSpecification) {
+            exchange = theExchange;
+            specification = theSpecification;
+            long tasks = 0;
+            for (int j = 1; j <= theSpecification.getNumJobs(); j++)
+                tasks += theSpecification.getJobSpecifications(j).getNumTasks();
+            numTasks = tasks;
+        }
+    }
+
+    /**
+     * Builds a specification after checking every count against the size
+     * of the request body, before the builder allocates storage for it. In
+     * the text format a number takes at least two bytes with its
+     * separator, and a job at least three numbers, so a count the body
+     * could not hold is refused rather than allocated; the JSON format
+     * needs more bytes still.
+     */
+    private static final class SizeCheckingSink implements SpecificationSink {
+        private final SpecificationBuilder builder = new SpecificationBuilder();
+        private final long maxNumbers; // most numbers the body could hold
+
+        SizeCheckingSink(int theBodyLength) {
+            maxNumbers = (theBodyLength + 1L) / 2;
+        }
+
+        private void check(long numbers) {
+            if (numbers > maxNumbers)
+                throw new MyInputException(COUNT_TOO_LARGE_FOR_REQUEST);
+        }
+
+        public void setNumMachinesAndJobs(int numMachines, int numJobs) {
+            check(numMachines);
+            check(3L * numJobs);
+            builder.setNumMachinesAndJobs(numMachines, numJobs);
+        }
+
+        public void setChangeOverTimes(int[] changeOverTimes) {
+            builder.setChangeOverTimes(changeOverTimes);
+        }
+
+        public void setCapacities(int[] capacities) {
+            builder.setCapacities(capacities);
+        }
+
+        public void startJob(int theJob, int numTasks) {
+            check(2L * numTasks + 1);
+            builder.startJob(theJob, numTasks);
+        }
+
+        public void setReleaseTime(int theReleaseTime) {
+            builder.setReleaseTime(theReleaseTime);
+        }
+
+        public void addTask(int theMachine, int theTime) {
+            builder.addTask(theMachine, theTime);
+        }
+
+        SimulationSpecification getSpecification() {
+            return builder.getSpecification();
+        }
+    }
+
+    /** create a service on thePort, 0 for any free port, with theNumWorkers workers */
+    public SimulationService(int thePort, int theNumWorkers) throws IOException {
+        this(thePort, theNumWorkers, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_WINDOW_MICROS, DEFAULT_MAX_BATCH_SIZE,
+                DEFAULT_MAX_BATCH_TASKS);
+    }
+
+    /**
+     * create a service on thePort, 0 for any free port, with theNumWorkers
+     * workers, which queues at most theQueueCapacity requests and gathers
+     * up to theMaxBatchSize requests or theMaxBatchTasks tasks into a batch
+     * for at most theBatchWindowMicros microseconds
+     */
+    public SimulationService(int thePort, int theNumWorkers, int theQueueCapacity, long theBatchWindowMicros,
+            int theMaxBatchSize, int theMaxBatchTasks) throws IOException {
+        if (theNumWorkers < 1 || theQueueCapacity < 1 || theBatchWindowMicros < 0 || theMaxBatchSize < 1
+                || theMaxBatchTasks < 1)
+            throw new IllegalArgumentException("workers, queue capacity and batch sizes must be >= 1");
+        batchWindowNanos = TimeUnit.MICROSECONDS.toNanos(theBatchWindowMicros);
+        maxBatchSize = theMaxBatchSize;
+        maxBatchTasks = theMaxBatchTasks;
+        intake = new ArrayBlockingQueue<>(theQueueCapacity);
+        batchPermits = new Semaphore(BATCHES_WAITING_PER_WORKER * theNumWorkers);
+        workers = Executors.newFixedThreadPool(theNumWorkers);
+        handlers = Executors.newFixedThreadPool(theNumWorkers);
+        server = HttpServer.create(new InetSocketAddress(thePort), 0);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(handlers);
+        dispatcher = new Thread(this::dispatch, "simulation-service-dispatcher");
+        dispatcher.setDaemon(true);
+    }
+
+    /**
+     * answer requests from theCache where it can, and add their results to it; call before start;
+     * theCache must hold FIFO_VARIANT results, as the runs dispatch first come, first served
+     */
+    public void setResultCache(ResultCache theCache) {
+        if (theCache != null && !theCache.getVariant().equals(ResultCache.FIFO_VARIANT))
+            throw new IllegalArgumentException("cache holds " + theCache.getVariant() + " results");
+        cache = theCache;
+    }
+
+    /** start taking requests */
+    public void start() {
+        dispatcher.start();
+        server.start();
+    }
+
+    /**
+     * stop taking requests, finish the batches already handed to the
+     * workers and answer the requests still queued with status 503
+     */
+    public void stop() {
+        // requests that arrive from now on are answered at once, so the
+        // handlers still running are the last that can queue one
+        stopping = true;
+        try {
+            long deadline = System.nanoTime() + STOP_TIMEOUT_NANOS;
+            synchronized (this) {
+                for (long wait; numActiveHandlers > 0 && (wait = deadline - System.nanoTime()) > 0; )
+                    TimeUnit.NANOSECONDS.timedWait(this, wait);
+            }
+            dispatcher.interrupt();
+            dispatcher.join();
+            workers.shutdown();
+            workers.awaitTermination(STOP_TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Request request; (request = intake.poll()) != null; )
+            reject(request.exchange, SERVICE_STOPPED);
+        // every exchange has been answered, so closing the connections loses nothing
+        server.stop(0);
+        handlers.shutdown();
+    }
+
+    /** @return the port the service listens on */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** @return number of requests queued so far, whether or not they have been run */
+    public long getNumAccepted() {
+        return numAccepted.get();
+    }
+
+    /** @return number of requests run so far */
+    public long getNumRequests() {
+        return numRequests.get();
+    }
+
+    /** @return number of batches the requests run so far were gathered into */
+    public long getNumBatches() {
+        return numBatches.get();
+    }
+
+    /** @return number of requests turned away because the intake queue was full */
+    public long getNumRejected() {
+        return numRejected.get();
+    }
+
+    private void handle(HttpExchange exchange) {
+        synchronized (this) {
+            numActiveHandlers++;
+        }
+        try {
+            handleCounted(exchange);
+        } finally {
+            synchronized (this) {
+                if (--numActiveHandlers == 0)
+                    notifyAll();
+            }
+        }
+    }
+
+    /** answer or queue the request of exchange, while counted as an active handler */
+    private void handleCounted(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            respond(exchange, 405, error("only POST is supported"));
+            return;
+        }
+        byte[] body;
+        try {
+            body = readBody(exchange);
+        } catch (IOException e) {
+            exchange.close();
+            return;
+        }
+        if (body == null) {
+            respond(exchange, 413, error("request body is larger than " + MAX_REQUEST_BYTES + " bytes"));
+            return;
+        }
+        SimulationSpecification specification;
+        try {
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            SizeCheckingSink sink = new SizeCheckingSink(body.length);
+            if (contentType != null && contentType.startsWith(JSON_CONTENT_TYPE))
+                new JsonSpecificationReader(body).readInto(sink);
+            else
+                new SpecificationReader(new ByteArrayInputStream(body)).readInto(sink);
+            specification = sink.getSpecification();
+        } catch (RuntimeException e) {
+            // whatever the input did to the reader, it is the client's fault
+            respond(exchange, 400, error(e instanceof MyInputException || e instanceof NumberFormatException
+                    ? String.valueOf(e.getMessage()) : "unreadable specification: " + e));
+            return;
+        }
+        if (stopping)
+            reject(exchange, SERVICE_STOPPED);
+        else if (intake.offer(new Request(exchange, specification)))
+            numAccepted.incrementAndGet();
+        else {
+            numRejected.incrementAndGet();
+            reject(exchange, "too many requests");
+        }
+    }
+
+    /** @return the request body, or null if it is larger than MAX_REQUEST_BYTES */
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        long length = exchange.getRequestHeaders().containsKey("Content-Length")
+                ? Long.parseLong(exchange.getRequestHeaders().getFirst("Content-Length").trim()) : -1;
+        if (length > MAX_REQUEST_BYTES)
+            return null;
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(length >= 0 ? (int) length : 4096);
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                if (body.size() + n > MAX_REQUEST_BYTES)
+                    return null;
+                body.write(buffer, 0, n);
+            }
+            return body.toByteArray();
+        }
+    }
+
+    /**
+     * gather the queued requests into batches and hand them to the
+     * workers, until interrupted; a batch being gathered then is answered
+     * with status 503, as stop answers the requests still queued
+     */
+    private void dispatch() {
+        List<Request> batch = null; // gathered but not yet handed to the workers
+        try {
+            while (true) {
+                Request first = intake.take();
+                batch = new ArrayList<>();
+                batch.add(first);
+                long tasks = first.numTasks;
+                long deadline = System.nanoTime() + batchWindowNanos;
+                while (batch.size() < maxBatchSize && tasks < maxBatchTasks) {
+                    // once the window has passed, take only the requests already queued
+                    long wait = deadline - System.nanoTime();
+                    Request next = wait > 0 ? intake.poll(wait, TimeUnit.NANOSECONDS) : intake.poll();
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                    tasks += next.numTasks;
+                }
+                batchPermits.acquire();
+                List<Request> handed = batch;
+                batch = null;
+                workers.execute(() -> runBatch(handed));
+            }
+        } catch (InterruptedException e) {
+            // stopped
+            if (batch != null)
+                for (Request request : batch)
+                    reject(request.exchange, SERVICE_STOPPED);
+        }
+    }
+
+    private void runBatch(List<Request> batch) {
+        try {
+            ReusableSimulator simulator = simulators.get();
+            // counted before the answers, so a client that has its answer sees its request counted
+            numBatches.incrementAndGet();
+            for (Request request : batch) {
+                int status = 200;
+                byte[] response;
+                try {
+                    // the results are only valid until the next run, so answer before it
+                    SimulationResults results = cache == null ? simulator.runSimulation(request.specification)
+                            : cache.getOrRun(request.specification, simulator::runSimulation);
+                    response = results.toJson().getBytes(StandardCharsets.UTF_8);
+                } catch (RuntimeException e) {
+                    status = 500;
+                    response = error(String.valueOf(e));
+                    simulator.reset();
+                }
+                numRequests.incrementAndGet();
+                respond(request.exchange, status, response);
+            }
+        } finally {
+            batchPermits.release();
+        }
+    }
+
+    private static void reject(HttpExchange exchange, String message) {
+        exchange.getResponseHeaders().set("Retry-After", Integer.toString(RETRY_AFTER_SECONDS));
+        respond(exchange, 503, error(message));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) {
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+            exchange.sendResponseHeaders(status, body.length);
+            out.write(body);
+        } catch (IOException e) {
+            // the client has gone, so there is no one to tell
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /** @return message as the body of an error response */
+    private static byte[] error(String message) {
+        StringBuilder json = new StringBuilder("{\"error\": \"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '"' || c == '\\')
+                json.append('\\');
+            json.append(c < ' ' ? ' ' : c);
+        }
+        return json.append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** serve simulations on thePort with theNumWorkers workers until the process is stopped */
+    static void runCommandLine(int thePort, int theNumWorkers) {
+        SimulationService service;
+        try {
+            service = new SimulationService(thePort, theNumWorkers);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+        service.start();
+        System.out.println("Serving simulations on port " + service.getPort() + PATH);
+    }
+}
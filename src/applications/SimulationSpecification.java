@@ -6,6 +6,7 @@ public class SimulationSpecification {
     private int numMachines;
     private int numJobs;
     private int[] changeOverTimes;
+    private int[] capacities; // units of each machine, null if every machine has one
     private JobSpecification[] jobSpecifications;
 
     public void setNumMachines(int numMachines) {
@@ -32,6 +33,30 @@ public class SimulationSpecification {
         return changeOverTimes[machineNumber];
     }
 
+    /** @param capacities number of identical units of machine m in element m, null for one each */
+    public void setCapacities(int[] capacities) {
+        this.capacities = capacities;
+    }
+
+    /** @return number of identical units of the station machineNumber, which share its queue */
+    public int getCapacity(int machineNumber) {
+        return capacities == null ? 1 : capacities[machineNumber];
+    }
+
+    /** @return true if some machine has more than one unit */
+    public boolean hasStations() {
+        return capacities != null;
+    }
+
+    /** @return true if some job is released after time 0 */
+    public boolean hasReleaseTimes() {
+        for (int i=1; i<=numJobs; ++i) {
+            if (jobSpecifications[i].getReleaseTime() > 0)
+                return true;
+        }
+        return false;
+    }
+
     public void setSpecificationsForTasks(int jobNumber, int[] specificationsForTasks) {
         jobSpecifications[jobNumber].setSpecificationsForTasks(specificationsForTasks);
     }
@@ -50,8 +75,13 @@ public class SimulationSpecification {
         builder.append("<").append(numMachines).append(" machines, ");
         builder.append(numJobs).append(" jobs; ");
         builder.append("change overs: ").append(Arrays.toString(changeOverTimes));
+        if (capacities != null)
+            builder.append("; capacities: ").append(Arrays.toString(capacities));
         for (int i=1; i<=numJobs; ++i) {
-            builder.append("; job ").append(i).append(" tasks: ");
+            builder.append("; job ").append(i);
+            if (jobSpecifications[i].getReleaseTime() > 0)
+                builder.append(" released at ").append(jobSpecifications[i].getReleaseTime());
+            builder.append(" tasks: ");
             builder.append(Arrays.toString(jobSpecifications[i].getSpecificationsForTasks()));
         }
 
@@ -0,0 +1,114 @@
+package applications;
+
+/**
+ * Runs a simulation a piece at a time, for a dashboard that shows the
+ * shop between steps. The shop is advanced by a number of events or up
+ * to a time, and in between the queue length and utilization of every
+ * machine can be read. {@link #finish} runs the rest of the simulation in
+ * the same loop as {@link MachineShopSimulator#runSimulation}, and the
+ * results are the same however the run was split up.
+ *
+ * A machine's utilization is the fraction of the time so far it spent
+ * processing tasks, change-overs not counted, averaged over the units of
+ * a station. The busy time is tracked by
+ * a {@link MachineStateListener}, so runs that are not stepped pay nothing
+ * for it.
+ */
+public class SimulationStepper {
+    // data members
+    private final MachineShopSimulator simulator;
+    private final SimulationResults simulationResults; // completions so far
+    private final long[] busyTime; // task time of each machine up to its last change
+    private final int[] busyUnits; // units of each machine processing a task
+    private final long[] lastChange; // time busyUnits of each machine last changed
+    private long time; // time the shop has been advanced to
+    private boolean resultsComplete; // finish has filled in the statistics
+
+    /** start stepping through the simulation of specification */
+    public SimulationStepper(SimulationSpecification specification) {
+        this(specification, EventListType.ARRAY);
+    }
+
+    /** start stepping through the simulation of specification using the given kind of event list */
+    public SimulationStepper(SimulationSpecification specification, EventListType theEventListType) {
+        int numMachines = specification.getNumMachines();
+        busyTime = new long[numMachines + 1];
+        busyUnits = new int[numMachines + 1];
+        lastChange = new long[numMachines + 1];
+        simulator = new MachineShopSimulator(theEventListType);
+        simulationResults = simulator.startStepping(specification, this::stateChanged);
+    }
+
+    private void stateChanged(int theMachine, MachineTransition transition, long theTime, int queueLength,
+            int theJob, int duration) {
+        if (transition == MachineTransition.TO_IDLE)
+            return;
+        busyTime[theMachine] += busyUnits[theMachine] * (theTime - lastChange[theMachine]);
+        lastChange[theMachine] = theTime;
+        busyUnits[theMachine] += transition == MachineTransition.TO_BUSY ? 1 : -1;
+    }
+
+    /**
+     * process every event up to and including theTime, and move the clock
+     * on to theTime, or to the finish time if the shop finishes first
+     * @return number of events processed
+     */
+    public long advanceUntil(long theTime) {
+        long events = simulator.advance(simulationResults, Long.MAX_VALUE, theTime);
+        time = simulator.isFinished() ? simulator.getTimeNow() : Math.max(time, theTime);
+        return events;
+    }
+
+    /**
+     * process the next theNumEvents events, or all that are left if fewer,
+     * moving the clock to the time of the last one
+     * @return number of events processed
+     */
+    public long advanceEvents(long theNumEvents) {
+        long events = simulator.advance(simulationResults, theNumEvents, Long.MAX_VALUE);
+        time = Math.max(time, simulator.getTimeNow());
+        return events;
+    }
+
+    /**
+     * run the simulation to the end
+     * @return the results of the whole run
+     */
+    public SimulationResults finish() {
+        if (!resultsComplete) {
+            simulator.simulate(simulationResults);
+            simulator.outputStatistics(simulationResults);
+            time = simulator.getTimeNow();
+            resultsComplete = true;
+        }
+        return simulationResults;
+    }
+
+    /** @return true once every job has completed */
+    public boolean isFinished() {
+        return simulator.isFinished();
+    }
+
+    /** @return time the shop has been advanced to */
+    public long getTime() {
+        return time;
+    }
+
+    /** @return number of jobs that have completed */
+    public int getNumCompletedJobs() {
+        return simulationResults.getNumCompletedJobs();
+    }
+
+    /** @return number of jobs waiting for theMachine, not counting the one it is processing */
+    public int getQueueLength(int theMachine) {
+        return simulator.getMachine(theMachine).getJobQ().size();
+    }
+
+    /** @return fraction of the time so far the units of theMachine spent processing tasks, 0 at time 0 */
+    public double getUtilization(int theMachine) {
+        if (time == 0)
+            return 0;
+        long busy = busyTime[theMachine] + busyUnits[theMachine] * (time - lastChange[theMachine]);
+        return (double) busy / ((double) time * simulator.getMachine(theMachine).getCapacity());
+    }
+}
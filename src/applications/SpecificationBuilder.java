@@ -0,0 +1,49 @@
+package applications;
+
+/** Collects the pieces pushed into it into a {@link SimulationSpecification}. */
+class SpecificationBuilder implements SpecificationSink {
+    // data members
+    private final SimulationSpecification specification = new SimulationSpecification();
+    private JobSpecification[] jobSpecifications;
+    private int[] specificationsForTasks; // tasks of the current job
+    private JobSpecification job; // the current job
+    private int nextTask; // number of the next task of the current job
+
+    public void setNumMachinesAndJobs(int numMachines, int numJobs) {
+        specification.setNumMachines(numMachines);
+        specification.setNumJobs(numJobs);
+        jobSpecifications = new JobSpecification[numJobs + 1];
+        specification.setJobSpecification(jobSpecifications);
+    }
+
+    public void setChangeOverTimes(int[] changeOverTimes) {
+        specification.setChangeOverTimes(changeOverTimes);
+    }
+
+    public void setCapacities(int[] capacities) {
+        specification.setCapacities(capacities);
+    }
+
+    public void startJob(int theJob, int numTasks) {
+        job = new JobSpecification();
+        job.setNumTasks(numTasks);
+        jobSpecifications[theJob] = job;
+        specificationsForTasks = new int[2 * numTasks + 1];
+        specification.setSpecificationsForTasks(theJob, specificationsForTasks);
+        nextTask = 1;
+    }
+
+    public void setReleaseTime(int theReleaseTime) {
+        job.setReleaseTime(theReleaseTime);
+    }
+
+    public void addTask(int theMachine, int theTime) {
+        specificationsForTasks[2*(nextTask-1)+1] = theMachine;
+        specificationsForTasks[2*(nextTask-1)+2] = theTime;
+        nextTask++;
+    }
+
+    SimulationSpecification getSpecification() {
+        return specification;
+    }
+}
@@ -0,0 +1,26 @@
+package applications;
+
+/**
+ * Reads a specification file given on the command line, in the binary
+ * format of {@link BinarySpecificationWriter} if it starts like one and
+ * in the text format of {@link SpecificationReader} otherwise.
+ */
+final class SpecificationFiles {
+
+    private SpecificationFiles() {
+    }
+
+    /** @return the specification in the file fileName, in either format */
+    static SimulationSpecification readSpecification(String fileName) {
+        if (BinarySpecificationReader.isBinarySpecification(fileName))
+            return new BinarySpecificationReader(fileName).readSpecification();
+        return new SpecificationReader(fileName).readSpecification();
+    }
+
+    /** @return the specification in the file fileName, in either format, as a task table */
+    static TaskTable readTaskTable(String fileName) {
+        if (BinarySpecificationReader.isBinarySpecification(fileName))
+            return new BinarySpecificationReader(fileName).readTaskTable();
+        return new SpecificationReader(fileName).readTaskTable();
+    }
+}
@@ -0,0 +1,116 @@
+package applications;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A 128 bit content hash of a {@link SimulationSpecification}: the
+ * leading half of the SHA-256 digest of its machines, their change-over
+ * times and capacities, and each job's release time and flattened task
+ * pairs. Every machine is hashed with its capacity and every job with its
+ * release time, so a shop written without stations or release times has
+ * the same fingerprint as the same shop written with one unit per station
+ * and every job released at 0, just as it has the same results. Two
+ * specifications with the same fingerprint are taken to be the same
+ * shop; the chance that two different ones share a fingerprint is
+ * negligible. A variant, naming how the shop is simulated, may be hashed
+ * in ahead of the specification, so the same shop run differently gets a
+ * different fingerprint.
+ */
+public final class SpecificationFingerprint {
+    private static final int BUFFER_SIZE = 8192;
+
+    // data members
+    private final long high; // first 8 bytes of the digest
+    private final long low; // next 8 bytes of the digest
+
+    SpecificationFingerprint(long theHigh, long theLow) {
+        high = theHigh;
+        low = theLow;
+    }
+
+    /** @return the fingerprint of specification */
+    public static SpecificationFingerprint of(SimulationSpecification specification) {
+        return of(specification, null);
+    }
+
+    /** @return the fingerprint of specification simulated as theVariant names, null for no variant */
+    public static SpecificationFingerprint of(SimulationSpecification specification, String theVariant) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform must provide SHA-256
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        if (theVariant != null) {
+            // led by its length, so no variant runs into the specification
+            byte[] variant = theVariant.getBytes(StandardCharsets.UTF_8);
+            put(digest, buffer, variant.length);
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+            digest.update(variant);
+        }
+        int numMachines = specification.getNumMachines();
+        int numJobs = specification.getNumJobs();
+        put(digest, buffer, numMachines);
+        put(digest, buffer, numJobs);
+        for (int m = 1; m <= numMachines; m++) {
+            put(digest, buffer, specification.getChangeOverTimes(m));
+            put(digest, buffer, specification.getCapacity(m));
+        }
+        for (int j = 1; j <= numJobs; j++) {
+            JobSpecification job = specification.getJobSpecifications(j);
+            put(digest, buffer, job.getReleaseTime());
+            put(digest, buffer, job.getNumTasks());
+            int[] specificationsForTasks = job.getSpecificationsForTasks();
+            for (int k = 1; k < specificationsForTasks.length; k++)
+                put(digest, buffer, specificationsForTasks[k]);
+        }
+        buffer.flip();
+        digest.update(buffer);
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new SpecificationFingerprint(hash.getLong(), hash.getLong());
+    }
+
+    /** put value in buffer, first handing buffer to digest if it is full */
+    private static void put(MessageDigest digest, ByteBuffer buffer, int value) {
+        if (buffer.remaining() < Integer.BYTES) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+        buffer.putInt(value);
+    }
+
+    long getHigh() {
+        return high;
+    }
+
+    long getLow() {
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof SpecificationFingerprint))
+            return false;
+        SpecificationFingerprint that = (SpecificationFingerprint) other;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) high;
+    }
+
+    /** @return the fingerprint as 32 hexadecimal digits */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -1,81 +1,175 @@
 package applications;
 
+import java.io.InputStream;
+
 import exceptions.MyInputException;
+import utilities.IntegerInput;
+import utilities.MappedIntegerReader;
 import utilities.MyInputStream;
 
+/**
+ * Reads a specification in the text format: the number of machines and
+ * jobs, the change-over time of each machine, then for each job its
+ * number of tasks followed by a (machine, time) pair per task. Input that
+ * starts with the word "stations" describes a shop of stations, and has
+ * the number of identical units of each station after the change-over
+ * times. Input whose counts follow the word "releases", after "stations"
+ * if both are given, has the release time of each job before its number
+ * of tasks.
+ */
 public class SpecificationReader {
+    /** first word of a specification whose machines are stations of several units */
+    public static final String STATIONS = "stations";
+    /** word before the counts of a specification whose jobs have release times */
+    public static final String RELEASES = "releases";
 
-    private final SimulationSpecification specification;
-    private final MyInputStream keyboard;
+    private final IntegerInput keyboard;
+    private final boolean interactive; // prompts for the input and leaves it open, as for the keyboard
+    private int numMachines; // number of machines read so far
+    private int numJobs; // number of jobs read so far
+    private boolean stations; // the input has station capacities
+    private boolean releases; // the input has release times
 
     public SpecificationReader() {
-        specification = new SimulationSpecification();
-        keyboard = new MyInputStream();
+        this(new MyInputStream());
+    }
+
+    /** create a reader that takes its input from input */
+    public SpecificationReader(IntegerInput input) {
+        this(input, true);
+    }
+
+    /**
+     * create a reader that takes its input from the file fileName, without
+     * prompting; the file is memory mapped and parsed in place
+     */
+    public SpecificationReader(String fileName) {
+        this(new MappedIntegerReader(fileName), false);
+    }
+
+    /**
+     * create a reader that takes its input from the stream in, such as the
+     * body of a request, without prompting, and closes it when done
+     */
+    public SpecificationReader(InputStream in) {
+        this(new MyInputStream(in), false);
+    }
+
+    private SpecificationReader(IntegerInput input, boolean interactive) {
+        keyboard = input;
+        this.interactive = interactive;
     }
 
-    private void readChangeOverTimes() {
+    private void prompt(String message) {
+        if (interactive)
+            System.out.println(message);
+    }
+
+    private void readChangeOverTimes(SpecificationSink sink) {
         // input the change-over times
-        int[] changeOverTimes = new int[specification.getNumMachines()+1];
+        int[] changeOverTimes = new int[numMachines+1];
 
-        System.out.println("Enter change-over times for machines");
-        for (int j = 1; j <= specification.getNumMachines(); j++) {
+        prompt("Enter change-over times for machines");
+        for (int j = 1; j <= numMachines; j++) {
             int ct = keyboard.readInteger();
             if (ct < 0)
                 throw new MyInputException(MachineShopSimulator.CHANGE_OVER_TIME_MUST_BE_AT_LEAST_0);
             changeOverTimes[j] = ct;
         }
 
-        specification.setChangeOverTimes(changeOverTimes);
+        sink.setChangeOverTimes(changeOverTimes);
     }
 
-    private void readJobSpecifications() {
-        // input the jobs
-        JobSpecification[] jobSpecifications = new JobSpecification[specification.getNumJobs()+1];
-        for (int i=1; i <= specification.getNumJobs(); i++) {
-            jobSpecifications[i] = new JobSpecification();
+    private void readCapacities(SpecificationSink sink) {
+        // input the number of units of each station
+        int[] capacities = new int[numMachines+1];
+
+        prompt("Enter number of units of each station");
+        for (int j = 1; j <= numMachines; j++) {
+            int c = keyboard.readInteger();
+            if (c < 1)
+                throw new MyInputException(MachineShopSimulator.CAPACITY_MUST_BE_AT_LEAST_1);
+            capacities[j] = c;
         }
-        specification.setJobSpecification(jobSpecifications);
-        for (int i = 1; i <= specification.getNumJobs(); i++) {
-            System.out.println("Enter number of tasks for job " + i);
+
+        sink.setCapacities(capacities);
+    }
+
+    private void readJobSpecifications(SpecificationSink sink) {
+        // input the jobs
+        for (int i = 1; i <= numJobs; i++) {
+            int releaseTime = 0;
+            if (releases) {
+                prompt("Enter release time of job " + i);
+                releaseTime = keyboard.readInteger();
+                if (releaseTime < 0)
+                    throw new MyInputException(MachineShopSimulator.RELEASE_TIME_MUST_BE_AT_LEAST_0);
+            }
+            prompt("Enter number of tasks for job " + i);
             int tasks = keyboard.readInteger(); // number of tasks
             if (tasks < 1)
                 throw new MyInputException(MachineShopSimulator.EACH_JOB_MUST_HAVE_AT_LEAST_1_TASK);
-            jobSpecifications[i].setNumTasks(tasks);
+            sink.startJob(i, tasks);
+            if (releases)
+                sink.setReleaseTime(releaseTime);
 
-            int[] specificationsForTasks = new int[2 * tasks + 1];
-
-            System.out.println("Enter the tasks (machine, time)"
+            prompt("Enter the tasks (machine, time)"
                     + " in process order");
             for (int j = 1; j <= tasks; j++) { // get tasks for job i
                 int theMachine = keyboard.readInteger();
                 int theTaskTime = keyboard.readInteger();
-                if (theMachine < 1 || theMachine > specification.getNumMachines()
+                if (theMachine < 1 || theMachine > numMachines
                         || theTaskTime < 1)
                     throw new MyInputException(MachineShopSimulator.BAD_MACHINE_NUMBER_OR_TASK_TIME);
-                specificationsForTasks[2*(j-1)+1] = theMachine;
-                specificationsForTasks[2*(j-1)+2] = theTaskTime;
+                sink.addTask(theMachine, theTaskTime);
             }
-            specification.setSpecificationsForTasks(i, specificationsForTasks);
         }
     }
 
-    private void readNumberMachinesAndJobs() {
-        System.out.println("Enter number of machines and jobs");
-        int numMachines = keyboard.readInteger();
-        int numJobs = keyboard.readInteger();
+    private void readNumberMachinesAndJobs(SpecificationSink sink) {
+        prompt("Enter number of machines and jobs");
+        stations = keyboard.skipWord(STATIONS);
+        releases = keyboard.skipWord(RELEASES);
+        numMachines = keyboard.readInteger();
+        numJobs = keyboard.readInteger();
         if (numMachines < 1 || numJobs < 1) {
             throw new MyInputException(MachineShopSimulator.NUMBER_OF_MACHINES_AND_JOBS_MUST_BE_AT_LEAST_1);
         } else {
-            specification.setNumMachines(numMachines);
-            specification.setNumJobs(numJobs);
+            sink.setNumMachinesAndJobs(numMachines, numJobs);
         }
     }
 
     /** input machine shop data */
     public SimulationSpecification readSpecification() {
-        readNumberMachinesAndJobs();
-        readChangeOverTimes();
-        readJobSpecifications();
-        return specification;
+        SpecificationBuilder builder = new SpecificationBuilder();
+        readInto(builder);
+        return builder.getSpecification();
+    }
+
+    /**
+     * input machine shop data straight into a task table, without building
+     * a {@link SimulationSpecification} first
+     */
+    public TaskTable readTaskTable() {
+        TaskTable.Builder builder = new TaskTable.Builder();
+        readInto(builder);
+        return builder.build();
+    }
+
+    /**
+     * input machine shop data, pushing every piece into sink as soon as it
+     * has been read and checked
+     */
+    public void readInto(SpecificationSink sink) {
+        try {
+            readNumberMachinesAndJobs(sink);
+            readChangeOverTimes(sink);
+            if (stations)
+                readCapacities(sink);
+            readJobSpecifications(sink);
+        } finally {
+            if (!interactive)
+                keyboard.close();
+        }
     }
 }
@@ -0,0 +1,31 @@
+package applications;
+
+/**
+ * Receives a machine shop specification piece by piece as it is read, so
+ * the reader can load it straight into whatever storage the consumer
+ * uses. The calls come in input order: the machine and job counts, the
+ * change-over times, the station capacities if the shop has stations,
+ * then for each job in turn a call to startJob, a call to setReleaseTime
+ * if the jobs have release times, and one call to addTask per task.
+ * Machines and jobs are numbered from 1.
+ */
+public interface SpecificationSink {
+    void setNumMachinesAndJobs(int numMachines, int numJobs);
+
+    /** @param changeOverTimes change-over time of machine m in element m */
+    void setChangeOverTimes(int[] changeOverTimes);
+
+    /**
+     * only called for a shop with stations
+     * @param capacities number of identical units of machine m in element m
+     */
+    void setCapacities(int[] capacities);
+
+    void startJob(int theJob, int numTasks);
+
+    /** only called for a shop with release times; set the release time of the job most recently started */
+    void setReleaseTime(int theReleaseTime);
+
+    /** add the next task of the job most recently started */
+    void addTask(int theMachine, int theTime);
+}
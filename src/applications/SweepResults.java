@@ -0,0 +1,80 @@
+package applications;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * The results of a {@link ParameterSweep}: the finish time and the total
+ * wait at each machine for every point of the grid. Only these are kept,
+ * not the job completions, in flat arrays with the points in row major
+ * order.
+ */
+public class SweepResults {
+    // data members
+    private final int numRows; // change-over settings
+    private final int numColumns; // capacity settings
+    private final int numMachines;
+    private final long[] finishTimes; // finishTimes[point]
+    private final long[] totalWaits; // totalWaits[point * numMachines + machine - 1]
+
+    SweepResults(int theNumRows, int theNumColumns, int theNumMachines) {
+        numRows = theNumRows;
+        numColumns = theNumColumns;
+        numMachines = theNumMachines;
+        finishTimes = new long[theNumRows * theNumColumns];
+        totalWaits = new long[theNumRows * theNumColumns * theNumMachines];
+    }
+
+    /** record the results of the run of point, counting in row major order */
+    void set(int point, SimulationResults results) {
+        finishTimes[point] = results.getFinishTime();
+        System.arraycopy(results.getTotalWaitTimePerMachine(), 1, totalWaits, point * numMachines, numMachines);
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    public int getNumColumns() {
+        return numColumns;
+    }
+
+    /** @return number of points of the sweep, its rows times its columns */
+    public int getNumPoints() {
+        return finishTimes.length;
+    }
+
+    public int getNumMachines() {
+        return numMachines;
+    }
+
+    public long getFinishTime(int row, int column) {
+        return finishTimes[row * numColumns + column];
+    }
+
+    public long getTotalWaitTime(int row, int column, int machine) {
+        return totalWaits[(row * numColumns + column) * numMachines + machine - 1];
+    }
+
+    /** @return the finish times, one array per row */
+    public long[][] getFinishTimes() {
+        long[][] result = new long[numRows][];
+        for (int row = 0; row < numRows; row++)
+            result[row] = Arrays.copyOfRange(finishTimes, row * numColumns, (row + 1) * numColumns);
+        return result;
+    }
+
+    /** print the matrix of finish times to out, a line per row with its columns separated by tabs */
+    public void print(PrintStream out) {
+        StringBuilder line = new StringBuilder();
+        for (int row = 0; row < numRows; row++) {
+            line.setLength(0);
+            for (int column = 0; column < numColumns; column++) {
+                if (column > 0)
+                    line.append('\t');
+                line.append(getFinishTime(row, column));
+            }
+            out.println(line);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package applications;
+
+import java.util.Arrays;
+
+/**
+ * A flattened copy of a shop: the change-over times and
+ * capacities of its machines and the release times and tasks of its jobs. The tasks of all
+ * jobs sit back to back in two parallel arrays, the tasks of job j
+ * occupying indices firstTask[j] up to (but not including)
+ * firstTask[j+1]. Jobs and machines are numbered from 1, as everywhere
+ * else in the simulator. The arrays may be longer than the shop needs.
+ *
+ * A table does not copy the arrays it is built on. The tables made by
+ * {@link #fromSpecification}, {@link #withMachines} and the
+ * {@link Builder} own their arrays, and nothing changes them. A
+ * {@link ReusableSimulator} builds its tables over arrays it pools and
+ * refills for its next run, so such a table is only valid until then.
+ */
+public final class TaskTable {
+    // package visible data members, read directly by the engines
+    final int numMachines; // number of machines
+    final int numJobs; // number of jobs
+    final int[] changeOverTimes; // changeOverTimes[m] for machines 1..numMachines
+    final int[] capacities; // capacities[m], units of machine m, for machines 1..numMachines
+    final int numUnits; // units of all machines together
+    final int[] releaseTimes; // releaseTimes[j] for jobs 1..numJobs, null if every job is there from the start
+    final int[] firstTask; // index of the first task of each job
+    final int[] taskMachine; // machine of each task
+    final int[] taskTime; // time of each task
+
+    /** theCapacities is null if every machine has one unit, theReleaseTimes if every job is released at 0 */
+    TaskTable(int theNumMachines, int theNumJobs, int[] theChangeOverTimes, int[] theCapacities,
+            int[] theReleaseTimes, int[] theFirstTask, int[] theTaskMachine, int[] theTaskTime) {
+        numMachines = theNumMachines;
+        numJobs = theNumJobs;
+        changeOverTimes = theChangeOverTimes;
+        if (theCapacities == null) {
+            theCapacities = new int[theNumMachines + 1];
+            Arrays.fill(theCapacities, 1, theNumMachines + 1, 1);
+        }
+        capacities = theCapacities;
+        int units = 0;
+        for (int m = 1; m <= theNumMachines; m++)
+            units += theCapacities[m];
+        numUnits = units;
+        releaseTimes = theReleaseTimes;
+        firstTask = theFirstTask;
+        taskMachine = theTaskMachine;
+        taskTime = theTaskTime;
+    }
+
+    /** @return a task table holding the jobs of specification */
+    public static TaskTable fromSpecification(SimulationSpecification specification) {
+        int numMachines = specification.getNumMachines();
+        int numJobs = specification.getNumJobs();
+
+        int[] changeOverTimes = new int[numMachines + 1];
+        for (int m = 1; m <= numMachines; m++)
+            changeOverTimes[m] = specification.getChangeOverTimes(m);
+        int[] capacities = null;
+        if (specification.hasStations()) {
+            capacities = new int[numMachines + 1];
+            for (int m = 1; m <= numMachines; m++)
+                capacities[m] = specification.getCapacity(m);
+        }
+        int[] releaseTimes = null;
+        if (specification.hasReleaseTimes()) {
+            releaseTimes = new int[numJobs + 1];
+            for (int j = 1; j <= numJobs; j++)
+                releaseTimes[j] = specification.getJobSpecifications(j).getReleaseTime();
+        }
+
+        int[] firstTask = new int[numJobs + 2];
+        int numTasks = 0;
+        for (int j = 1; j <= numJobs; j++) {
+            firstTask[j] = numTasks;
+            numTasks += specification.getJobSpecifications(j).getNumTasks();
+        }
+        firstTask[numJobs + 1] = numTasks;
+
+        int[] taskMachine = new int[numTasks];
+        int[] taskTime = new int[numTasks];
+        for (int j = 1; j <= numJobs; j++) {
+            JobSpecification job = specification.getJobSpecifications(j);
+            int[] specificationsForTasks = job.getSpecificationsForTasks();
+            for (int k = 1; k <= job.getNumTasks(); k++) {
+                taskMachine[firstTask[j] + k - 1] = specificationsForTasks[2*(k-1)+1];
+                taskTime[firstTask[j] + k - 1] = specificationsForTasks[2*(k-1)+2];
+            }
+        }
+
+        return new TaskTable(numMachines, numJobs, changeOverTimes, capacities, releaseTimes,
+                firstTask, taskMachine, taskTime);
+    }
+
+    /**
+     * @param theChangeOverTimes change-over time of each machine, indexed from 1
+     * @param theCapacities units of each machine, indexed from 1, null if every machine has one
+     * @return a table of the same jobs on machines with the given change-over
+     *     times and capacities; the task arrays are shared, not copied
+     */
+    public TaskTable withMachines(int[] theChangeOverTimes, int[] theCapacities) {
+        if (theChangeOverTimes.length != numMachines + 1
+                || theCapacities != null && theCapacities.length != numMachines + 1)
+            throw new IllegalArgumentException(MachineShopSimulator.WRONG_NUMBER_OF_MACHINES
+                    + ": expected " + numMachines);
+        for (int m = 1; m <= numMachines; m++) {
+            if (theChangeOverTimes[m] < 0)
+                throw new IllegalArgumentException(MachineShopSimulator.CHANGE_OVER_TIME_MUST_BE_AT_LEAST_0);
+            if (theCapacities != null && theCapacities[m] < 1)
+                throw new IllegalArgumentException(MachineShopSimulator.CAPACITY_MUST_BE_AT_LEAST_1);
+        }
+        return new TaskTable(numMachines, numJobs, theChangeOverTimes.clone(),
+                theCapacities == null ? null : theCapacities.clone(), releaseTimes, firstTask, taskMachine, taskTime);
+    }
+
+    /**
+     * Builds a task table from the pieces of a specification as they are
+     * read, without the specification ever being held in memory. The task
+     * arrays grow by doubling, since the number of tasks is only known
+     * once every job has been read.
+     */
+    public static final class Builder implements SpecificationSink {
+        // data members
+        private int numMachines;
+        private int numJobs;
+        private int[] changeOverTimes;
+        private int[] capacities; // null unless the shop has stations
+        private int[] releaseTimes; // null unless the jobs have release times
+        private int job; // job most recently started
+        private int[] firstTask;
+        private int[] taskMachine;
+        private int[] taskTime;
+        private int numTasks; // tasks added so far
+
+        public void setNumMachinesAndJobs(int theNumMachines, int theNumJobs) {
+            numMachines = theNumMachines;
+            numJobs = theNumJobs;
+            firstTask = new int[theNumJobs + 2];
+            // every job has at least one task
+            taskMachine = new int[theNumJobs];
+            taskTime = new int[theNumJobs];
+        }
+
+        public void setChangeOverTimes(int[] theChangeOverTimes) {
+            changeOverTimes = theChangeOverTimes;
+        }
+
+        public void setCapacities(int[] theCapacities) {
+            capacities = theCapacities;
+        }
+
+        public void startJob(int theJob, int theNumTasks) {
+            job = theJob;
+            firstTask[theJob] = numTasks;
+            if (numTasks + theNumTasks > taskMachine.length) {
+                int capacity = Math.max(2 * taskMachine.length, numTasks + theNumTasks);
+                taskMachine = Arrays.copyOf(taskMachine, capacity);
+                taskTime = Arrays.copyOf(taskTime, capacity);
+            }
+        }
+
+        public void setReleaseTime(int theReleaseTime) {
+            if (releaseTimes == null)
+                releaseTimes = new int[numJobs + 1];
+            releaseTimes[job] = theReleaseTime;
+        }
+
+        public void addTask(int theMachine, int theTime) {
+            taskMachine[numTasks] = theMachine;
+            taskTime[numTasks] = theTime;
+            numTasks++;
+        }
+
+        /** @return the table of everything pushed into this builder */
+        public TaskTable build() {
+            firstTask[numJobs + 1] = numTasks;
+            return new TaskTable(numMachines, numJobs, changeOverTimes, capacities, releaseTimes,
+                    firstTask, taskMachine, taskTime);
+        }
+    }
+
+    public int getNumMachines() {
+        return numMachines;
+    }
+
+    public int getNumJobs() {
+        return numJobs;
+    }
+
+    /** @return total number of tasks over all jobs */
+    public int getNumTasks() {
+        return firstTask[numJobs + 1];
+    }
+
+    public int getChangeOverTime(int theMachine) {
+        return changeOverTimes[theMachine];
+    }
+
+    /** @return number of identical units of the station theMachine */
+    public int getCapacity(int theMachine) {
+        return capacities[theMachine];
+    }
+
+    /** @return number of units of all machines together, the number of machines if none is a station */
+    public int getNumUnits() {
+        return numUnits;
+    }
+
+    /** @return true if the table has release times, though they may all be 0 */
+    public boolean hasReleaseTimes() {
+        return releaseTimes != null;
+    }
+
+    /** @return time theJob joins the queue of its first machine */
+    public int getReleaseTime(int theJob) {
+        return releaseTimes == null ? 0 : releaseTimes[theJob];
+    }
+
+    /** @return the jobs released after time 0, by release time and then by job */
+    int[] releaseOrder() {
+        long[] keys = new long[releaseTimes == null ? 0 : numJobs];
+        int[] order = new int[releaseOrder(keys)];
+        for (int i = 0; i < order.length; i++)
+            order[i] = (int) keys[i];
+        return order;
+    }
+
+    /**
+     * put the jobs released after time 0 at the front of theKeys, by
+     * release time and then by job, each as its release time in the high
+     * half of a key and the job in the low half; theKeys must have room
+     * for numJobs keys if the table has release times
+     * @return the number of jobs released after time 0
+     */
+    int releaseOrder(long[] theKeys) {
+        if (releaseTimes == null)
+            return 0;
+        // a release time and a job fit together in a long sort key
+        int numReleases = 0;
+        for (int j = 1; j <= numJobs; j++)
+            if (releaseTimes[j] > 0)
+                theKeys[numReleases++] = (long) releaseTimes[j] << 32 | j;
+        Arrays.sort(theKeys, 0, numReleases);
+        return numReleases;
+    }
+
+    public int getNumTasks(int theJob) {
+        return firstTask[theJob + 1] - firstTask[theJob];
+    }
+
+    /** @return machine of task theTask (counting from 1) of theJob */
+    public int getMachine(int theJob, int theTask) {
+        return taskMachine[firstTask[theJob] + theTask - 1];
+    }
+
+    /** @return time of task theTask (counting from 1) of theJob */
+    public int getTaskTime(int theJob, int theTask) {
+        return taskTime[firstTask[theJob] + theTask - 1];
+    }
+}
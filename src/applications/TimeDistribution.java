@@ -0,0 +1,49 @@
+package applications;
+
+import java.util.SplittableRandom;
+
+/**
+ * The distribution a task time or change-over time is drawn from in a
+ * {@link MonteCarloSimulator} replication, given the time the
+ * specification states for it. The simulator rounds each sample to a
+ * whole time, at least 1 for a task and at least 0 for a change-over.
+ */
+@FunctionalInterface
+public interface TimeDistribution {
+    /** always the time of the specification */
+    TimeDistribution FIXED = (theTime, random) -> theTime;
+
+    /** exponential with the time of the specification as its mean */
+    TimeDistribution EXPONENTIAL = (theTime, random) -> -theTime * Math.log(1 - random.nextDouble());
+
+    /**
+     * @param theTime time the specification states
+     * @param random the stream of the replication
+     * @return a sampled time
+     */
+    double sample(int theTime, SplittableRandom random);
+
+    /** @return uniform over the time of the specification plus or minus theSpread times it */
+    static TimeDistribution uniform(double theSpread) {
+        if (theSpread < 0 || theSpread > 1)
+            throw new IllegalArgumentException("spread must be between 0 and 1");
+        return (theTime, random) -> theTime * (1 + theSpread * (2 * random.nextDouble() - 1));
+    }
+
+    /**
+     * @return triangular from theLow to theHigh times the time of the
+     *         specification, peaking at the time itself
+     */
+    static TimeDistribution triangular(double theLow, double theHigh) {
+        if (theLow < 0 || theLow > 1 || theHigh < 1)
+            throw new IllegalArgumentException("need 0 <= low <= 1 <= high");
+        double peak = theHigh == theLow ? 0 : (1 - theLow) / (theHigh - theLow); // where the mode sits
+        return (theTime, random) -> {
+            double u = random.nextDouble();
+            double factor = u < peak
+                    ? theLow + Math.sqrt(u * (theHigh - theLow) * (1 - theLow))
+                    : theHigh - Math.sqrt((1 - u) * (theHigh - theLow) * (theHigh - 1));
+            return theTime * factor;
+        };
+    }
+}
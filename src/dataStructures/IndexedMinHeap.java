@@ -0,0 +1,144 @@
+/** an indexed min heap of long keys */
+
+package dataStructures;
+
+/**
+ * A binary min heap over the ids 1..maxId, each carrying a long key.
+ * Besides the usual heap operations it keeps the position of every id
+ * in the heap, so the key of an id that is already in the heap can be
+ * changed in O(log n). Ids with equal keys come out smallest id first.
+ */
+public class IndexedMinHeap {
+    // data members
+    private int[] heap; // heap[1:size] holds the ids
+    private int[] position; // position[id] is the index of id in heap, 0 if absent
+    private long[] key; // key[id] is the key of id
+    private int size; // number of ids in the heap
+
+    // constructor
+    /** create an empty heap for the ids 1..maxId */
+    public IndexedMinHeap(int maxId) {
+        if (maxId < 1)
+            throw new IllegalArgumentException("maxId must be >= 1");
+        heap = new int[maxId + 1];
+        position = new int[maxId + 1];
+        key = new long[maxId + 1];
+    }
+
+    // methods
+    /** @return true iff the heap is empty */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** @return number of ids in the heap */
+    public int size() {
+        return size;
+    }
+
+    /** @return true iff theId is in the heap */
+    public boolean contains(int theId) {
+        return position[theId] != 0;
+    }
+
+    /**
+     * @return the id with the smallest key
+     * @return 0 if the heap is empty
+     */
+    public int getMinId() {
+        return heap[1];
+    }
+
+    /** @return the key last given to theId */
+    public long getKey(int theId) {
+        return key[theId];
+    }
+
+    /**
+     * set the key of theId, inserting theId into the heap if it is not
+     * already there
+     */
+    public void put(int theId, long theKey) {
+        long oldKey = key[theId];
+        key[theId] = theKey;
+        int p = position[theId];
+        if (p == 0) {
+            // new id, start at the bottom of the heap
+            size++;
+            heap[size] = theId;
+            position[theId] = size;
+            siftUp(size);
+        } else if (theKey < oldKey)
+            siftUp(p);
+        else if (theKey > oldKey)
+            siftDown(p);
+    }
+
+    /**
+     * remove theId from the heap
+     *
+     * @return false if theId was not in the heap
+     */
+    public boolean remove(int theId) {
+        int p = position[theId];
+        if (p == 0)
+            return false;
+        position[theId] = 0;
+        int last = heap[size];
+        heap[size] = 0;
+        size--;
+        if (p <= size) {
+            // move the last id into the hole and restore the heap
+            heap[p] = last;
+            position[last] = p;
+            siftUp(p);
+            siftDown(position[last]);
+        }
+        return true;
+    }
+
+    /** remove every id from the heap, in O(size) */
+    public void clear() {
+        for (int p = 1; p <= size; p++) {
+            position[heap[p]] = 0;
+            heap[p] = 0;
+        }
+        size = 0;
+    }
+
+    /** @return true iff the element at index a must come before the one at b */
+    private boolean before(int a, int b) {
+        int idA = heap[a];
+        int idB = heap[b];
+        return key[idA] < key[idB] || (key[idA] == key[idB] && idA < idB);
+    }
+
+    private void swap(int a, int b) {
+        int id = heap[a];
+        heap[a] = heap[b];
+        heap[b] = id;
+        position[heap[a]] = a;
+        position[heap[b]] = b;
+    }
+
+    private void siftUp(int p) {
+        while (p > 1 && before(p, p / 2)) {
+            swap(p, p / 2);
+            p /= 2;
+        }
+    }
+
+    private void siftDown(int p) {
+        int child = 2 * p;
+        while (child <= size) {
+            // child is the smaller child of p
+            if (child < size && before(child + 1, child))
+                child++;
+            if (!before(child, p))
+                break;
+            swap(p, child);
+            p = child;
+            child = 2 * p;
+        }
+    }
+}
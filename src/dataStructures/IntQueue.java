@@ -0,0 +1,14 @@
+package dataStructures;
+
+/** A queue of primitive ints; the int counterpart of {@link Queue}. */
+public interface IntQueue {
+    public boolean isEmpty();
+
+    public int getFrontElement();
+
+    public int getRearElement();
+
+    public void put(int theElement);
+
+    public int remove();
+}
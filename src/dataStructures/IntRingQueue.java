@@ -0,0 +1,124 @@
+/** a growable circular array queue of ints */
+
+package dataStructures;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A queue of ints kept in a circular array that doubles when full.
+ * Unlike {@link LinkedQueue} it allocates nothing per element and
+ * never boxes, so once it has grown to its high-water mark puts and
+ * removes are allocation free.
+ */
+public class IntRingQueue implements IntQueue {
+    // data members
+    private int[] queue; // circular array holding the elements
+    private int front; // index of the front element
+    private int size; // number of elements in the queue
+
+    // constructors
+    /** create an empty queue */
+    public IntRingQueue(int initialCapacity) {
+        if (initialCapacity < 1)
+            throw new IllegalArgumentException("initialCapacity must be >= 1");
+        queue = new int[initialCapacity];
+    }
+
+    public IntRingQueue() {
+        this(10);
+    }
+
+    // methods
+    /** @return true iff queue is empty */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** @return number of elements in the queue */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the element at the front of the queue
+     * @exception NoSuchElementException if the queue is empty
+     */
+    public int getFrontElement() {
+        if (isEmpty())
+            throw new NoSuchElementException("queue is empty");
+        return queue[front];
+    }
+
+    /**
+     * @return the element at the rear of the queue
+     * @exception NoSuchElementException if the queue is empty
+     */
+    public int getRearElement() {
+        if (isEmpty())
+            throw new NoSuchElementException("queue is empty");
+        return queue[(front + size - 1) % queue.length];
+    }
+
+    /**
+     * @return the element index places behind the front, 0 being the front
+     * @exception IndexOutOfBoundsException if there is no such element
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index = " + index + " size = " + size);
+        int i = front + index;
+        return queue[i >= queue.length ? i - queue.length : i];
+    }
+
+    /** insert theElement at the rear of the queue */
+    public void put(int theElement) {
+        if (size == queue.length)
+            grow();
+        int rear = front + size;
+        if (rear >= queue.length)
+            rear -= queue.length;
+        queue[rear] = theElement;
+        size++;
+    }
+
+    /**
+     * remove an element from the front of the queue
+     *
+     * @return removed element
+     * @exception NoSuchElementException if the queue is empty
+     */
+    public int remove() {
+        if (isEmpty())
+            throw new NoSuchElementException("queue is empty");
+        int frontElement = queue[front];
+        front++;
+        if (front == queue.length)
+            front = 0;
+        size--;
+        return frontElement;
+    }
+
+    /** remove all elements, keeping the storage for reuse */
+    public void clear() {
+        front = 0;
+        size = 0;
+    }
+
+    /** double the capacity, unwrapping the elements to the start */
+    private void grow() {
+        int[] newQueue = new int[2 * queue.length];
+        int firstPart = queue.length - front;
+        System.arraycopy(queue, front, newQueue, 0, firstPart);
+        System.arraycopy(queue, 0, newQueue, firstPart, front);
+        queue = newQueue;
+        front = 0;
+    }
+
+    @Override public String toString() {
+        StringBuilder result = new StringBuilder("<");
+        for (int i = 0; i < size; i++)
+            result.append(queue[(front + i) % queue.length]).append(", ");
+        result.append(">");
+        return result.toString();
+    }
+}
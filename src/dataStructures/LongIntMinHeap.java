@@ -0,0 +1,116 @@
+/** a min heap of long keys carrying int values */
+
+package dataStructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min heap of (long key, int value) entries kept in two parallel
+ * arrays that double when full, so it allocates nothing per entry and
+ * never boxes. Entries with equal keys come out smallest value first.
+ */
+public class LongIntMinHeap {
+    // data members
+    private long[] keys; // keys[1:size] holds the keys, in heap order
+    private int[] values; // values[i] is the value of keys[i]
+    private int size; // number of entries in the heap
+
+    // constructors
+    /** create an empty heap */
+    public LongIntMinHeap(int initialCapacity) {
+        if (initialCapacity < 1)
+            throw new IllegalArgumentException("initialCapacity must be >= 1");
+        keys = new long[initialCapacity + 1];
+        values = new int[initialCapacity + 1];
+    }
+
+    public LongIntMinHeap() {
+        this(10);
+    }
+
+    // methods
+    /** @return true iff the heap is empty */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** @return number of entries in the heap */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public long getMinKey() {
+        if (size == 0)
+            throw new NoSuchElementException("heap is empty");
+        return keys[1];
+    }
+
+    /**
+     * @return the value of the entry with the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int getMinValue() {
+        if (size == 0)
+            throw new NoSuchElementException("heap is empty");
+        return values[1];
+    }
+
+    /** add an entry */
+    public void put(long theKey, int theValue) {
+        if (size + 1 == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * keys.length);
+            values = Arrays.copyOf(values, 2 * values.length);
+        }
+        // sift the hole up from the new leaf
+        int hole = ++size;
+        while (hole > 1 && less(theKey, theValue, keys[hole / 2], values[hole / 2])) {
+            keys[hole] = keys[hole / 2];
+            values[hole] = values[hole / 2];
+            hole /= 2;
+        }
+        keys[hole] = theKey;
+        values[hole] = theValue;
+    }
+
+    /**
+     * remove the entry with the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public void removeMin() {
+        if (size == 0)
+            throw new NoSuchElementException("heap is empty");
+        long lastKey = keys[size];
+        int lastValue = values[size];
+        size--;
+        // sift the hole down from the root, then fill it with the last entry
+        int hole = 1;
+        int child = 2;
+        while (child <= size) {
+            if (child < size && less(keys[child + 1], values[child + 1], keys[child], values[child]))
+                child++;
+            if (!less(keys[child], values[child], lastKey, lastValue))
+                break;
+            keys[hole] = keys[child];
+            values[hole] = values[child];
+            hole = child;
+            child *= 2;
+        }
+        keys[hole] = lastKey;
+        values[hole] = lastValue;
+    }
+
+    /** @return true iff entry (key1, value1) comes out before (key2, value2) */
+    private static boolean less(long key1, int value1, long key2, int value2) {
+        return key1 < key2 || key1 == key2 && value1 < value2;
+    }
+
+    /** remove every entry */
+    public void clear() {
+        size = 0;
+    }
+}
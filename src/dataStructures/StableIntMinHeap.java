@@ -0,0 +1,133 @@
+/** a min heap of int elements by long key, stable for equal keys */
+
+package dataStructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min heap of int elements, each put with a long key, kept in
+ * parallel arrays that double when full. Elements with equal keys come
+ * out in the order they were put, so with all keys equal it behaves as a
+ * FIFO queue. Like {@link LongIntMinHeap} it allocates nothing per
+ * element and never boxes.
+ */
+public class StableIntMinHeap {
+    // data members
+    private int[] elements; // elements[1:size] holds the elements, in heap order
+    private long[] keys; // keys[i] is the key of elements[i]
+    private long[] order; // order[i] numbers elements[i] in the order of the puts
+    private long puts; // number of puts so far
+    private int size; // number of elements in the heap
+
+    // constructors
+    /** create an empty heap */
+    public StableIntMinHeap(int initialCapacity) {
+        if (initialCapacity < 1)
+            throw new IllegalArgumentException("initialCapacity must be >= 1");
+        elements = new int[initialCapacity + 1];
+        keys = new long[initialCapacity + 1];
+        order = new long[initialCapacity + 1];
+    }
+
+    public StableIntMinHeap() {
+        this(10);
+    }
+
+    // methods
+    /** @return true iff the heap is empty */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** @return number of elements in the heap */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the element with the smallest key, the first put if several have it
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int getMin() {
+        if (size == 0)
+            throw new NoSuchElementException("heap is empty");
+        return elements[1];
+    }
+
+    /** add theElement with theKey */
+    public void put(int theElement, long theKey) {
+        if (size + 1 == elements.length) {
+            elements = Arrays.copyOf(elements, 2 * elements.length);
+            keys = Arrays.copyOf(keys, 2 * keys.length);
+            order = Arrays.copyOf(order, 2 * order.length);
+        }
+        long theOrder = puts++;
+        // sift the hole up from the new leaf
+        int hole = ++size;
+        while (hole > 1 && less(theKey, theOrder, keys[hole / 2], order[hole / 2])) {
+            move(hole / 2, hole);
+            hole /= 2;
+        }
+        elements[hole] = theElement;
+        keys[hole] = theKey;
+        order[hole] = theOrder;
+    }
+
+    /**
+     * remove the element with the smallest key
+     * @return the removed element
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int removeMin() {
+        int min = getMin();
+        int lastElement = elements[size];
+        long lastKey = keys[size];
+        long lastOrder = order[size];
+        size--;
+        // sift the hole down from the root, then fill it with the last element
+        int hole = 1;
+        int child = 2;
+        while (child <= size) {
+            if (child < size && less(keys[child + 1], order[child + 1], keys[child], order[child]))
+                child++;
+            if (!less(keys[child], order[child], lastKey, lastOrder))
+                break;
+            move(child, hole);
+            hole = child;
+            child *= 2;
+        }
+        elements[hole] = lastElement;
+        keys[hole] = lastKey;
+        order[hole] = lastOrder;
+        return min;
+    }
+
+    /** @return the elements in the order they would be removed */
+    public int[] toArray() {
+        StableIntMinHeap copy = new StableIntMinHeap(Math.max(size, 1));
+        copy.elements = Arrays.copyOf(elements, elements.length);
+        copy.keys = Arrays.copyOf(keys, keys.length);
+        copy.order = Arrays.copyOf(order, order.length);
+        copy.size = size;
+        int[] result = new int[size];
+        for (int i = 0; i < result.length; i++)
+            result[i] = copy.removeMin();
+        return result;
+    }
+
+    /** remove every element */
+    public void clear() {
+        size = 0;
+    }
+
+    private void move(int from, int to) {
+        elements[to] = elements[from];
+        keys[to] = keys[from];
+        order[to] = order[from];
+    }
+
+    private static boolean less(long key1, long order1, long key2, long order2) {
+        return key1 < key2 || key1 == key2 && order1 < order2;
+    }
+}
@@ -0,0 +1,98 @@
+/** a histogram of non-negative longs */
+
+package utilities;
+
+/**
+ * Counts non-negative values in power of two buckets: bucket 0 holds the
+ * value 0 and bucket b > 0 holds the values from 2^(b-1) up to 2^b - 1.
+ * Recording a value is a few arithmetic operations and no allocation, so
+ * a histogram can sit on a hot path. The exact count, sum, minimum and
+ * maximum are kept alongside the buckets.
+ */
+public class Histogram {
+    private static final int NUM_BUCKETS = 64;
+
+    // data members
+    private final long[] buckets = new long[NUM_BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * Record one value.
+     *
+     * @exception IllegalArgumentException
+     *                if value is negative
+     */
+    public void record(long value) {
+        if (value < 0)
+            throw new IllegalArgumentException("negative value " + value);
+        buckets[NUM_BUCKETS - Long.numberOfLeadingZeros(value)]++;
+        count++;
+        sum += value;
+        if (value < min)
+            min = value;
+        if (value > max)
+            max = value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /** @return smallest value recorded, 0 if none */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /** @return largest value recorded, 0 if none */
+    public long getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @return an upper bound on the value below which the fraction p of the
+     *         recorded values fall, exact to within a factor of two
+     */
+    public long getPercentile(double p) {
+        if (count == 0)
+            return 0;
+        long rank = (long) Math.ceil(p * count);
+        long seen = 0;
+        for (int b = 0; b < NUM_BUCKETS; b++) {
+            seen += buckets[b];
+            if (seen >= rank && seen > 0)
+                return Math.min(max, b == 0 ? 0 : (1L << b) - 1);
+        }
+        return max;
+    }
+
+    /** @return number of values recorded in bucket b */
+    public long getBucketCount(int b) {
+        return buckets[b];
+    }
+
+    /** @return number of buckets up to the last one that may hold values */
+    public int getNumBuckets() {
+        return NUM_BUCKETS - Long.numberOfLeadingZeros(getMax()) + 1;
+    }
+
+    /** add the values recorded in other to this histogram */
+    public void add(Histogram other) {
+        for (int b = 0; b < NUM_BUCKETS; b++)
+            buckets[b] += other.buckets[b];
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+}
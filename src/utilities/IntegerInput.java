@@ -0,0 +1,30 @@
+package utilities;
+
+/**
+ * A source of whitespace separated integers, such as a
+ * {@link MyInputStream} or a {@link MappedIntegerReader}.
+ */
+public interface IntegerInput {
+    /**
+     * Input an integer.
+     *
+     * @exception exceptions.MyInputException
+     *                if the end of the input is reached or it cannot be read
+     * @exception NumberFormatException
+     *                if the next token is not an integer
+     * @return next token as an integer number
+     */
+    public int readInteger();
+
+    /**
+     * Read past the next token if it is word.
+     *
+     * @exception exceptions.MyInputException
+     *                if the end of the input is reached or it cannot be read
+     * @return true if the next token was word, false if it was left to be read
+     */
+    public boolean skipWord(String word);
+
+    /** Close the underlying input. */
+    public void close();
+}
@@ -0,0 +1,186 @@
+/** fast integer input from a file */
+
+package utilities;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import exceptions.MyInputException;
+
+/**
+ * Reads whitespace separated ASCII integers from a file by memory mapping
+ * it and parsing the digits straight out of the mapped bytes. Unlike
+ * {@link MyInputStream} it creates no Strings or other objects per token,
+ * so it suits very large input files. Files larger than one mapping
+ * window are mapped one window at a time.
+ *
+ * Tokens are separated by the same characters as in {@link MyInputStream}
+ * (space, tab, newline, carriage return and form feed), and the same
+ * exceptions are thrown: MyInputException at the end of the file or on
+ * an I/O error, NumberFormatException for a token that is not an int.
+ */
+public class MappedIntegerReader implements IntegerInput {
+    private static final long DEFAULT_WINDOW_SIZE = 64L << 20; // 64 MB
+
+    // data members
+    private final FileChannel channel; // the file being read
+    private final long fileSize; // size of the file in bytes
+    private final long windowSize; // most bytes mapped at once
+    private MappedByteBuffer window; // currently mapped part of the file
+    private long windowStart; // file position of the start of window
+
+    /** Constructor to map the file fileName for input. */
+    public MappedIntegerReader(String fileName) {
+        this(fileName, DEFAULT_WINDOW_SIZE);
+    }
+
+    /** Constructor to map the file fileName at most windowSize bytes at a time. */
+    MappedIntegerReader(String fileName, long windowSize) {
+        this.windowSize = windowSize;
+        try {
+            // opening through FileInputStream gives the same message for a
+            // missing file as MyInputStream
+            channel = new FileInputStream(fileName).getChannel();
+            fileSize = channel.size();
+            map(0);
+        } catch (FileNotFoundException e) {
+            throw new MyInputException(e.getMessage());
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+    }
+
+    /** map the window starting at file position start */
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                Math.min(windowSize, fileSize - start));
+    }
+
+    /** @return the next byte of the file, -1 at the end of the file */
+    private int nextByte() {
+        if (!window.hasRemaining()) {
+            long next = windowStart + window.limit();
+            if (next >= fileSize)
+                return -1;
+            try {
+                map(next);
+            } catch (IOException e) {
+                throw new MyInputException(e.getMessage());
+            }
+        }
+        return window.get() & 0xff;
+    }
+
+    private static boolean isDelimiter(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+
+    /**
+     * Input an integer.
+     *
+     * @exception MyInputException
+     *                if the end of the file is reached
+     * @exception NumberFormatException
+     *                if the next token is not an int
+     * @return next token as an integer number
+     */
+    public int readInteger() {
+        int c = nextByte();
+        while (isDelimiter(c))
+            c = nextByte();
+        if (c < 0)
+            throw new MyInputException("End of file");
+        long tokenStart = windowStart + window.position() - 1;
+
+        // accumulate negatively, as Integer.parseInt does, so that
+        // Integer.MIN_VALUE can be read
+        boolean negative = c == '-';
+        if (c == '-' || c == '+')
+            c = nextByte();
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int multiplyLimit = limit / 10;
+        int result = 0;
+        int digits = 0;
+        while (c >= '0' && c <= '9') {
+            int digit = c - '0';
+            if (result < multiplyLimit)
+                throw badToken(tokenStart);
+            result *= 10;
+            if (result < limit + digit)
+                throw badToken(tokenStart);
+            result -= digit;
+            digits++;
+            c = nextByte();
+        }
+        if (digits == 0 || (c >= 0 && !isDelimiter(c)))
+            throw badToken(tokenStart);
+        return negative ? result : -result;
+    }
+
+    /**
+     * Read past the next token if it is word.
+     *
+     * @exception MyInputException
+     *                if the end of the file is reached
+     * @return true if the next token was word, false if it was left to be read
+     */
+    public boolean skipWord(String word) {
+        long start = windowStart;
+        int position = window.position();
+        int c = nextByte();
+        while (isDelimiter(c))
+            c = nextByte();
+        if (c < 0)
+            throw new MyInputException("End of file");
+        int matched = 0;
+        while (matched < word.length() && c == word.charAt(matched)) {
+            matched++;
+            c = nextByte();
+        }
+        if (matched == word.length() && (c < 0 || isDelimiter(c)))
+            return true;
+        // go back to where the token started
+        try {
+            if (windowStart != start)
+                map(start);
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+        window.position(position);
+        return false;
+    }
+
+    /** @return the exception for the bad token starting at file position start */
+    private NumberFormatException badToken(long start) {
+        StringBuilder token = new StringBuilder();
+        ByteBuffer oneByte = ByteBuffer.allocate(1);
+        try {
+            for (long position = start; position < fileSize; position++) {
+                oneByte.clear();
+                channel.read(oneByte, position);
+                int c = oneByte.get(0) & 0xff;
+                if (isDelimiter(c))
+                    break;
+                token.append((char) c);
+            }
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+        return new NumberFormatException("For input string: \"" + token + "\"");
+    }
+
+    /** Close the file. */
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+        window = null;
+    }
+}
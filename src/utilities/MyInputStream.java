@@ -6,15 +6,17 @@ import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.StringTokenizer;
 
 import exceptions.MyInputException;
 
-public class MyInputStream {
+public class MyInputStream implements IntegerInput {
     // data members
     private BufferedReader in;
     private StringTokenizer line;
+    private String pushedBack; // token to return before reading on, null if none
 
     /**
      * Constructor to set up BufferedReader for standard input stream System.in.
@@ -25,6 +27,15 @@ public class MyInputStream {
         in = new BufferedReader(new InputStreamReader(System.in));
     }
 
+    /**
+     * Constructor to set up BufferedReader for input from an arbitrary
+     * input stream.
+     */
+
+    public MyInputStream(InputStream inputStream) {
+        in = new BufferedReader(new InputStreamReader(inputStream));
+    }
+
     /**
      * Constructor to set up BufferedReader for input from a file.
      */
@@ -37,9 +48,19 @@ public class MyInputStream {
         }
     }
 
+    /** Close the underlying input. */
+    public void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new MyInputException(e.getMessage());
+        }
+    }
+
     /** Discard remainder of current line. */
     public void flushCurrentLine() {
         line = null;
+        pushedBack = null;
     }
 
     /**
@@ -52,6 +73,11 @@ public class MyInputStream {
      */
 
     private String nextToken() {
+        if (pushedBack != null) {
+            String token = pushedBack;
+            pushedBack = null;
+            return token;
+        }
         // ensure that the current line has a token
         while (line == null || !line.hasMoreTokens()) {
             try {
@@ -84,6 +110,21 @@ public class MyInputStream {
         return Integer.parseInt(nextToken());
     }
 
+    /**
+     * Read past the next token if it is word.
+     * 
+     * @exception MyInputException
+     * @return true if the next token was word, false if it was left to be read
+     */
+
+    public boolean skipWord(String word) {
+        String token = nextToken();
+        if (token.equals(word))
+            return true;
+        pushedBack = token;
+        return false;
+    }
+
     /** Input a long. */
     public long readLong() {
         return Long.parseLong(nextToken());
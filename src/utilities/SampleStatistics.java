@@ -0,0 +1,96 @@
+/** running mean and variance of a sample, with a confidence interval */
+
+package utilities;
+
+/**
+ * Accumulates a sample of doubles one value at a time, keeping the count,
+ * the mean and the sum of squared deviations from it (Welford's method,
+ * which does not lose precision the way summing squares does). From those
+ * it gives the sample standard deviation and a 95% confidence interval
+ * for the mean, using Student's t distribution so that small samples get
+ * the wider interval they need.
+ */
+public class SampleStatistics {
+    /** confidence level of {@link #getHalfWidth} */
+    public static final double CONFIDENCE = 0.95;
+
+    // t quantiles for CONFIDENCE, by degrees of freedom 1 to 30
+    private static final double[] T_QUANTILES = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042 };
+    private static final double Z_QUANTILE = 1.959964; // the normal quantile for CONFIDENCE
+
+    // data members
+    private long count;
+    private double mean;
+    private double squaredDeviations; // sum of squared deviations from the mean
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /** Add value to the sample. */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /** @return mean of the sample, 0 if it is empty */
+    public double getMean() {
+        return mean;
+    }
+
+    /** @return smallest value, 0 if the sample is empty */
+    public double getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /** @return largest value, 0 if the sample is empty */
+    public double getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    /** @return sample variance, 0 for fewer than two values */
+    public double getVariance() {
+        return count < 2 ? 0 : squaredDeviations / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return half the width of the {@link #CONFIDENCE} confidence interval
+     *         for the mean, infinite for fewer than two values
+     */
+    public double getHalfWidth() {
+        if (count < 2)
+            return Double.POSITIVE_INFINITY;
+        return tQuantile(count - 1) * getStandardDeviation() / Math.sqrt(count);
+    }
+
+    public double getLower() {
+        return mean - getHalfWidth();
+    }
+
+    public double getUpper() {
+        return mean + getHalfWidth();
+    }
+
+    /** @return the t quantile for CONFIDENCE with degreesOfFreedom, from the table or its Cornish-Fisher expansion */
+    static double tQuantile(long degreesOfFreedom) {
+        if (degreesOfFreedom <= T_QUANTILES.length)
+            return T_QUANTILES[(int) degreesOfFreedom - 1];
+        double z = Z_QUANTILE;
+        double z3 = z * z * z;
+        double df = degreesOfFreedom;
+        return z + (z3 + z) / (4 * df) + (5 * z3 * z * z + 16 * z3 + 3 * z) / (96 * df * df);
+    }
+}
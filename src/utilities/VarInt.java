@@ -0,0 +1,66 @@
+/** variable length encoding of ints */
+
+package utilities;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes ints as unsigned base 128 varints: seven bits per byte, least
+ * significant group first, with the high bit set on every byte but the
+ * last. Values below 128 take one byte and no int takes more than five.
+ * Negative ints are encoded as their unsigned 32 bit value, so they
+ * always take five bytes.
+ */
+public final class VarInt {
+    /** most bytes an encoded int takes */
+    public static final int MAX_BYTES = 5;
+
+    private VarInt() {
+    }
+
+    /**
+     * Write value into buffer starting at offset.
+     *
+     * @return offset just past the last byte written
+     */
+    public static int write(int value, byte[] buffer, int offset) {
+        while ((value & ~0x7f) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+
+    /** @return number of bytes value takes when encoded */
+    public static int size(int value) {
+        int size = 1;
+        while ((value & ~0x7f) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Read one int from buffer, advancing its position past it.
+     *
+     * @exception IllegalArgumentException
+     *                if the encoding runs over five bytes
+     * @exception java.nio.BufferUnderflowException
+     *                if buffer ends in the middle of the int
+     */
+    public static int read(ByteBuffer buffer) {
+        int b = buffer.get();
+        if (b >= 0)
+            return b; // the common case of a single byte
+        int value = b & 0x7f;
+        for (int shift = 7; shift < 7 * MAX_BYTES; shift += 7) {
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("varint longer than " + MAX_BYTES + " bytes");
+    }
+}
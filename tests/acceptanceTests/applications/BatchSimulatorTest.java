@@ -0,0 +1,52 @@
+package applications;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Runs the golden input files as one batch and checks that every run
+ * matches running the same file on its own, in the same order.
+ */
+public class BatchSimulatorTest {
+
+    private static final File TEST_FILE_DIRECTORY
+        = new File("tests/acceptanceTests/Machine_shop_test_files/");
+
+    @Test
+    public void batchOfFilesMatchesSeparateRuns() {
+        File[] files = BatchSimulator.inputFiles(TEST_FILE_DIRECTORY);
+        assertTrue(files.length > 0);
+        List<SimulationResults> batchResults = new BatchSimulator(4).runDirectory(TEST_FILE_DIRECTORY);
+        assertEquals(files.length, batchResults.size());
+        for (int i = 0; i < files.length; i++) {
+            SimulationSpecification specification =
+                    new SpecificationReader(files[i].getPath()).readSpecification();
+            SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+            assertSameFinishAndMachines(files[i].getName(), expected, batchResults.get(i));
+        }
+    }
+
+    @Test
+    public void batchOfSpecificationsKeepsInputOrder() {
+        File[] files = BatchSimulator.inputFiles(TEST_FILE_DIRECTORY);
+        List<SimulationSpecification> specifications = new ArrayList<>();
+        for (File file : files)
+            specifications.add(new SpecificationReader(file.getPath()).readSpecification());
+        List<SimulationResults> batchResults = new BatchSimulator(3).runAll(specifications);
+        for (int i = 0; i < files.length; i++) {
+            SimulationResults expected = new MachineShopSimulator().runSimulation(specifications.get(i));
+            assertSameFinishAndMachines(files[i].getName(), expected, batchResults.get(i));
+        }
+    }
+
+    private static void assertSameFinishAndMachines(String file, SimulationResults expected, SimulationResults actual) {
+        assertEquals("In file " + file, expected.getFinishTime(), actual.getFinishTime());
+        assertArrayEquals("In file " + file, expected.getNumTasksPerMachine(), actual.getNumTasksPerMachine());
+        assertArrayEquals("In file " + file, expected.getTotalWaitTimePerMachine(), actual.getTotalWaitTimePerMachine());
+    }
+}
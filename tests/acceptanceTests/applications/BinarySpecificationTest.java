@@ -0,0 +1,127 @@
+package applications;
+
+import static applications.TestFiles.EXCEPTION_TEST_FILE_DIRECTORY;
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Test;
+
+import exceptions.MyInputException;
+
+/**
+ * Converts the acceptance test input files to the binary specification
+ * format and checks that loading them gives back the same shop.
+ */
+public class BinarySpecificationTest {
+
+    private static File convert(File textFile) throws IOException {
+        File binaryFile = File.createTempFile("specification", ".bin");
+        binaryFile.deleteOnExit();
+        BinarySpecificationWriter.convert(textFile.getPath(), binaryFile.getPath());
+        return binaryFile;
+    }
+
+    @Test
+    public void binaryTableMatchesTextTable() throws IOException {
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            File binaryFile = convert(file);
+            assertTrue(BinarySpecificationReader.isBinarySpecification(binaryFile.getPath()));
+            assertFalse(BinarySpecificationReader.isBinarySpecification(file.getPath()));
+
+            TaskTable expected = new SpecificationReader(file.getPath()).readTaskTable();
+            TaskTable loaded = new BinarySpecificationReader(binaryFile.getPath()).readTaskTable();
+            String message = "In file " + file.getName();
+            assertEquals(message, expected.getNumMachines(), loaded.getNumMachines());
+            assertEquals(message, expected.getNumJobs(), loaded.getNumJobs());
+            assertEquals(message, expected.getNumTasks(), loaded.getNumTasks());
+            for (int m = 1; m <= expected.getNumMachines(); m++)
+                assertEquals(message, expected.getChangeOverTime(m), loaded.getChangeOverTime(m));
+            for (int j = 1; j <= expected.getNumJobs(); j++) {
+                assertEquals(message, expected.getNumTasks(j), loaded.getNumTasks(j));
+                for (int k = 1; k <= expected.getNumTasks(j); k++) {
+                    assertEquals(message, expected.getMachine(j, k), loaded.getMachine(j, k));
+                    assertEquals(message, expected.getTaskTime(j, k), loaded.getTaskTime(j, k));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void binarySpecificationSimulatesLikeText() throws IOException {
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            SimulationSpecification specification =
+                    new BinarySpecificationReader(convert(file).getPath()).readSpecification();
+            SimulationResults expected = new MachineShopSimulator()
+                    .runSimulation(new SpecificationReader(file.getPath()).readSpecification());
+            SimulationResults actual = new MachineShopSimulator().runSimulation(specification);
+            String message = "In file " + file.getName();
+            assertEquals(message, expected.getFinishTime(), actual.getFinishTime());
+            assertArrayEquals(message, expected.getNumTasksPerMachine(), actual.getNumTasksPerMachine());
+            assertArrayEquals(message, expected.getTotalWaitTimePerMachine(), actual.getTotalWaitTimePerMachine());
+        }
+    }
+
+    @Test
+    public void badTextFileLeavesNoBinaryFile() throws IOException {
+        File binaryFile = File.createTempFile("specification", ".bin");
+        try {
+            BinarySpecificationWriter.convert(
+                    new File(EXCEPTION_TEST_FILE_DIRECTORY, "ZeroTaskTime.input").getPath(), binaryFile.getPath());
+            fail("converting a bad specification should throw");
+        } catch (MyInputException e) {
+            assertEquals(MachineShopSimulator.BAD_MACHINE_NUMBER_OR_TASK_TIME, e.getMessage());
+        }
+        assertFalse(binaryFile.exists());
+    }
+
+    @Test
+    public void textFileIsRejected() {
+        File textFile = new File(TEST_FILE_DIRECTORY, "AllOnes.input");
+        try {
+            new BinarySpecificationReader(textFile.getPath()).readTaskTable();
+            fail("a text specification is not binary");
+        } catch (MyInputException e) {
+            assertEquals(BinarySpecificationReader.NOT_A_BINARY_SPECIFICATION, e.getMessage());
+        }
+    }
+
+    @Test(expected = MyInputException.class)
+    public void truncatedFileIsRejected() throws IOException {
+        File binaryFile = convert(new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input"));
+        try (RandomAccessFile file = new RandomAccessFile(binaryFile, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        new BinarySpecificationReader(binaryFile.getPath()).readTaskTable();
+    }
+
+    @Test
+    public void otherVersionsAreRejected() throws IOException {
+        for (int version : new int[] { 0, BinarySpecificationWriter.VERSION + 1 })
+            assertHeaderRejected(Integer.BYTES, version, BinarySpecificationReader.UNSUPPORTED_VERSION);
+    }
+
+    @Test
+    public void unknownFlagsAreRejected() throws IOException {
+        assertHeaderRejected(2 * Integer.BYTES, BinarySpecificationWriter.KNOWN_FLAGS + 1,
+                BinarySpecificationReader.UNSUPPORTED_FLAGS);
+    }
+
+    /** check that a file with value written at position of its header is rejected with message */
+    private static void assertHeaderRejected(int position, int value, String message) throws IOException {
+        File binaryFile = convert(new File(TEST_FILE_DIRECTORY, "AllOnes.input"));
+        try (RandomAccessFile file = new RandomAccessFile(binaryFile, "rw")) {
+            file.seek(position);
+            file.writeInt(value);
+        }
+        try {
+            new BinarySpecificationReader(binaryFile.getPath()).readSpecification();
+            fail("header value " + value + " should throw");
+        } catch (MyInputException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package applications;
+
+import static applications.SimulationResultsAssert.assertSameResults;
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import exceptions.MyInputException;
+
+/**
+ * Checkpoints the runs of the acceptance test input files at several
+ * points and checks that resuming from each checkpoint ends with the
+ * results of the uninterrupted run.
+ */
+public class CheckpointTest {
+
+    @Test
+    public void resumedRunsMatchUninterruptedRuns() throws IOException {
+        File checkpoint = File.createTempFile("checkpoint", ".bin");
+        checkpoint.deleteOnExit();
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            SimulationSpecification specification = new SpecificationReader(file.getPath()).readSpecification();
+            MachineShopSimulator countingSimulator = new MachineShopSimulator();
+            countingSimulator.setMetricsEnabled(true);
+            SimulationResults expected = countingSimulator.runSimulation(specification);
+            long events = expected.getMetrics().getCounter(SimulationMetrics.EVENTS);
+
+            // the last checkpoint falls at the end, past the middle and near the start
+            for (long interval : new long[] { 1, events / 2 + 1, 3 }) {
+                String message = "In file " + file.getName() + " every " + interval + " events";
+                MachineShopSimulator simulator = new MachineShopSimulator();
+                simulator.setCheckpointing(checkpoint.getPath(), interval);
+                assertSameResults(message, expected, simulator.runSimulation(specification));
+                for (EventListType eventListType : EventListType.values())
+                    assertSameResults(message, expected,
+                            new MachineShopSimulator(eventListType).resumeSimulation(checkpoint.getPath()));
+            }
+        }
+    }
+
+    @Test
+    public void resumedRunCountsOnlyItsOwnEvents() throws IOException {
+        File checkpoint = File.createTempFile("checkpoint", ".bin");
+        checkpoint.deleteOnExit();
+        SimulationSpecification specification = new SpecificationReader(
+                new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input").getPath()).readSpecification();
+        MachineShopSimulator simulator = new MachineShopSimulator();
+        simulator.setMetricsEnabled(true);
+        simulator.setCheckpointing(checkpoint.getPath(), 5);
+        long events = simulator.runSimulation(specification).getMetrics().getCounter(SimulationMetrics.EVENTS);
+
+        MachineShopSimulator resumingSimulator = new MachineShopSimulator();
+        resumingSimulator.setMetricsEnabled(true);
+        SimulationResults resumed = resumingSimulator.resumeSimulation(checkpoint.getPath());
+        assertEquals(events % 5, resumed.getMetrics().getCounter(SimulationMetrics.EVENTS));
+    }
+
+    @Test
+    public void checkpointsOfLaterRunsAndResumedRunsResume() throws IOException {
+        File checkpoint = File.createTempFile("checkpoint", ".bin");
+        checkpoint.deleteOnExit();
+        File resumedCheckpoint = new File(checkpoint.getPath() + ".resumed");
+        resumedCheckpoint.deleteOnExit();
+        MachineShopSimulator simulator = new MachineShopSimulator();
+        simulator.setCheckpointing(checkpoint.getPath(), 2);
+        MachineShopSimulator resuming = new MachineShopSimulator();
+        resuming.setCheckpointing(resumedCheckpoint.getPath(), 1);
+        int numResumedCheckpoints = 0;
+        // one simulator checkpoints run after run, each from its own completions
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            String message = "In file " + file.getName();
+            SimulationSpecification specification = new SpecificationReader(file.getPath()).readSpecification();
+            SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+            checkpoint.delete();
+            assertSameResults(message, expected, simulator.runSimulation(specification));
+            if (!checkpoint.exists())
+                continue; // too few events for a checkpoint
+            // a resumed run checkpoints the completions it was resumed with too
+            resumedCheckpoint.delete();
+            assertSameResults(message, expected, resuming.resumeSimulation(checkpoint.getPath()));
+            if (resumedCheckpoint.exists()) {
+                numResumedCheckpoints++;
+                assertSameResults(message, expected,
+                        new MachineShopSimulator().resumeSimulation(resumedCheckpoint.getPath()));
+            }
+        }
+        assertTrue(numResumedCheckpoints > 0);
+    }
+
+    @Test
+    public void specificationIsNotACheckpoint() {
+        try {
+            new MachineShopSimulator().resumeSimulation(
+                    new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input").getPath());
+            fail("resuming from a specification should throw");
+        } catch (MyInputException e) {
+            assertEquals(CheckpointReader.NOT_A_CHECKPOINT, e.getMessage());
+        }
+    }
+
+    @Test
+    public void truncatedCheckpointIsCorrupt() throws IOException {
+        File checkpoint = File.createTempFile("checkpoint", ".bin");
+        checkpoint.deleteOnExit();
+        SimulationSpecification specification = new SpecificationReader(
+                new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input").getPath()).readSpecification();
+        MachineShopSimulator simulator = new MachineShopSimulator();
+        simulator.setCheckpointing(checkpoint.getPath(), 4);
+        simulator.runSimulation(specification);
+        long length = Files.size(checkpoint.toPath());
+        for (long truncatedLength : new long[] { length - 1, length / 2, 20 }) {
+            try (RandomAccessFile file = new RandomAccessFile(checkpoint, "rw")) {
+                file.setLength(truncatedLength);
+            }
+            try {
+                new MachineShopSimulator().resumeSimulation(checkpoint.getPath());
+                fail("resuming from a checkpoint cut to " + truncatedLength + " bytes should throw");
+            } catch (MyInputException e) {
+                assertEquals(CheckpointReader.CORRUPT_CHECKPOINT, e.getMessage());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void intervalMustBePositive() {
+        new MachineShopSimulator().setCheckpointing("checkpoint.bin", 0);
+    }
+}
@@ -0,0 +1,50 @@
+package applications;
+
+import static applications.TestFiles.specificationOf;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Runs four jobs of one task each, all waiting for the same machine at
+ * the start, under each dispatch policy, and checks the order they are
+ * processed in.
+ */
+public class DispatchPolicyTest {
+
+    // one machine with no change-over time, and jobs 1 to 4 with task times 5, 3, 1 and 4
+    private static final String FOUR_JOBS = "1 4\n0\n1 1 5\n1 1 3\n1 1 1\n1 1 4\n";
+
+    private static SimulationResults run(DispatchPolicy policy) {
+        MachineShopSimulator simulator = new MachineShopSimulator();
+        simulator.setDispatchPolicy(policy);
+        return simulator.runSimulation(specificationOf(FOUR_JOBS));
+    }
+
+    @Test
+    public void fifoTakesJobsInArrivalOrder() {
+        SimulationResults results = run(DispatchPolicy.FIFO);
+        assertArrayEquals(new int[] { 1, 2, 3, 4 }, results.jobNumbers().toArray());
+        assertEquals(22, results.totalWaitTimes().sum());
+    }
+
+    @Test
+    public void shortestProcessingTimeMinimizesTotalWait() {
+        SimulationResults results = run(DispatchPolicy.SHORTEST_PROCESSING_TIME);
+        assertArrayEquals(new int[] { 3, 2, 4, 1 }, results.jobNumbers().toArray());
+        assertArrayEquals(new long[] { 1, 4, 8, 13 }, results.completionTimes().toArray());
+        assertEquals(13, results.totalWaitTimes().sum());
+    }
+
+    @Test
+    public void earliestDueDateTakesJobsByDueDate() {
+        SimulationResults results = run(DispatchPolicy.earliestDueDate(new long[] { 0, 2, 9, 5, 1 }));
+        assertArrayEquals(new int[] { 4, 1, 3, 2 }, results.jobNumbers().toArray());
+    }
+
+    @Test
+    public void priorityBreaksTiesInArrivalOrder() {
+        SimulationResults results = run(DispatchPolicy.priority(new int[] { 0, 3, 1, 3, 2 }));
+        assertArrayEquals(new int[] { 2, 4, 1, 3 }, results.jobNumbers().toArray());
+    }
+}
@@ -0,0 +1,170 @@
+package applications;
+
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import exceptions.MyInputException;
+
+/**
+ * Traces the runs of the acceptance test input files and checks the
+ * trace against the specification and the results.
+ */
+public class EventTraceTest {
+
+    private static File tempTraceFile() throws IOException {
+        File file = File.createTempFile("trace", ".bin");
+        file.deleteOnExit();
+        return file;
+    }
+
+    /** @return length of a trace of numRecords records, which runs on to the end of its last chunk */
+    private static long traceLength(long numRecords) {
+        long numMapped = 0;
+        for (int numChunkRecords = EventTraceWriter.FIRST_CHUNK_RECORDS; numMapped < numRecords;
+                numChunkRecords = Math.min(2 * numChunkRecords, EventTraceWriter.RECORDS_PER_CHUNK))
+            numMapped += numChunkRecords;
+        return EventTraceWriter.HEADER_SIZE + numMapped * EventTraceWriter.RECORD_SIZE;
+    }
+
+    @Test
+    public void traceMatchesResults() throws IOException {
+        File traceFile = tempTraceFile();
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            SimulationSpecification specification = new SpecificationReader(file.getPath()).readSpecification();
+            MachineShopSimulator simulator = new MachineShopSimulator(EventListType.HEAP);
+            simulator.setTraceFile(traceFile.getPath());
+            simulator.setMetricsEnabled(true);
+            SimulationResults results = simulator.runSimulation(specification);
+            String message = "In file " + file.getName();
+
+            EventTraceReader trace = new EventTraceReader(traceFile.getPath());
+            SimulationMetrics metrics = results.getMetrics();
+            long transitions = 0;
+            for (MachineTransition transition : MachineTransition.values())
+                transitions += metrics.getCounter(SimulationMetrics.transitionCounter(transition));
+            assertEquals(message, transitions, trace.getNumRecords());
+
+            long[] taskTime = new long[specification.getNumJobs() + 1]; // per job
+            long[] lastFinish = new long[specification.getNumJobs() + 1]; // per job
+            int[] tasks = new int[specification.getNumMachines() + 1]; // per machine
+            long previousTime = 0;
+            for (long i = 0; i < trace.getNumRecords(); i++) {
+                assertTrue(message, trace.getTime(i) >= previousTime);
+                previousTime = trace.getTime(i);
+                int job = trace.getJob(i);
+                switch (trace.getTransition(i)) {
+                case TO_BUSY:
+                    taskTime[job] += trace.getDuration(i);
+                    tasks[trace.getMachine(i)]++;
+                    break;
+                case TO_CHANGE_OVER:
+                    lastFinish[job] = trace.getTime(i);
+                    assertEquals(message, specification.getChangeOverTimes(trace.getMachine(i)), trace.getDuration(i));
+                    break;
+                case TO_IDLE:
+                    assertEquals(message, 0, job);
+                    break;
+                }
+            }
+            assertArrayEquals(message, results.getNumTasksPerMachine(), tasks);
+            for (int i = 0; i < results.getNumCompletedJobs(); i++) {
+                int job = results.getJobNumber(i);
+                assertEquals(message, results.getCompletionTime(i), lastFinish[job]);
+                long releaseTime = specification.getJobSpecifications(job).getReleaseTime();
+                assertEquals(message, results.getCompletionTime(i) - releaseTime - results.getTotalWaitTime(i),
+                        taskTime[job]);
+            }
+        }
+    }
+
+    @Test
+    public void csvSelectsMachineAndJob() throws IOException {
+        File traceFile = tempTraceFile();
+        MachineShopSimulator simulator = new MachineShopSimulator();
+        simulator.setTraceFile(traceFile.getPath());
+        simulator.runSimulation(new SpecificationReader(
+                new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input").getPath()).readSpecification());
+        EventTraceReader trace = new EventTraceReader(traceFile.getPath());
+
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        trace.writeCsv(all, 0, 0);
+        String[] lines = new String(all.toByteArray(), StandardCharsets.US_ASCII).split("\n");
+        assertEquals("time,machine,job,transition,duration,queueLength", lines[0]);
+        assertEquals(trace.getNumRecords() + 1, lines.length);
+        assertEquals(trace.getTime(0) + "," + trace.getMachine(0) + "," + trace.getJob(0) + ","
+                + trace.getTransition(0) + "," + trace.getDuration(0) + "," + trace.getQueueLength(0), lines[1]);
+
+        ByteArrayOutputStream selected = new ByteArrayOutputStream();
+        trace.writeCsv(selected, 2, 1);
+        lines = new String(selected.toByteArray(), StandardCharsets.US_ASCII).split("\n");
+        assertTrue(lines.length > 1);
+        for (int i = 1; i < lines.length; i++)
+            assertTrue(lines[i], lines[i].matches("\\d+,2,1,.*"));
+    }
+
+    @Test
+    public void recordsCrossChunkBoundaries() throws IOException {
+        File traceFile = tempTraceFile();
+        EventTraceWriter writer = new EventTraceWriter(traceFile.getPath());
+        int numRecords = EventTraceWriter.RECORDS_PER_CHUNK + 3;
+        MachineTransition[] transitions = MachineTransition.values();
+        for (int i = 0; i < numRecords; i++)
+            writer.stateChanged(i % 7 + 1, transitions[i % transitions.length], 3L * i << 20, i % 5, i, i / 2);
+        writer.close();
+        assertEquals(traceLength(numRecords), traceFile.length());
+
+        EventTraceReader trace = new EventTraceReader(traceFile.getPath());
+        assertEquals(numRecords, trace.getNumRecords());
+        for (int i = EventTraceWriter.RECORDS_PER_CHUNK - 2; i < numRecords; i++) {
+            assertEquals(3L * i << 20, trace.getTime(i));
+            assertEquals(i % 7 + 1, trace.getMachine(i));
+            assertEquals(i, trace.getJob(i));
+            assertEquals(i / 2, trace.getDuration(i));
+            assertEquals(i % 5, trace.getQueueLength(i));
+            assertEquals(transitions[i % transitions.length], trace.getTransition(i));
+        }
+    }
+
+    @Test
+    public void shortTracesLeaveShortFiles() throws IOException {
+        File traceFile = tempTraceFile();
+        int first = EventTraceWriter.FIRST_CHUNK_RECORDS;
+        int[] numsRecords = { 0, 1, first, first + 1, 3 * first, 3 * first + 1 };
+        long[] numsMapped = { 0, first, first, 3 * first, 3 * first, 7 * first };
+        for (int n = 0; n < numsRecords.length; n++) {
+            EventTraceWriter writer = new EventTraceWriter(traceFile.getPath());
+            for (int i = 0; i < numsRecords[n]; i++)
+                writer.stateChanged(1, MachineTransition.TO_IDLE, i, 0, 0, 0);
+            writer.close();
+            assertEquals(EventTraceWriter.HEADER_SIZE + numsMapped[n] * EventTraceWriter.RECORD_SIZE,
+                    traceFile.length());
+            assertEquals(numsRecords[n], new EventTraceReader(traceFile.getPath()).getNumRecords());
+        }
+
+        MachineShopSimulator simulator = new MachineShopSimulator();
+        simulator.setTraceFile(traceFile.getPath());
+        simulator.runSimulation(new SpecificationReader(
+                new File(TEST_FILE_DIRECTORY, "RandTest3.input").getPath()).readSpecification());
+        long numRecords = new EventTraceReader(traceFile.getPath()).getNumRecords();
+        assertEquals(traceLength(numRecords), traceFile.length());
+        assertTrue(traceFile.length() <= EventTraceWriter.HEADER_SIZE
+                + Math.max(EventTraceWriter.FIRST_CHUNK_RECORDS, 2 * numRecords) * EventTraceWriter.RECORD_SIZE);
+    }
+
+    @Test
+    public void specificationIsNotATrace() {
+        try {
+            new EventTraceReader(new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input").getPath());
+            fail("reading a specification as a trace should throw");
+        } catch (MyInputException e) {
+            assertEquals(EventTraceReader.NOT_A_TRACE, e.getMessage());
+        }
+    }
+}
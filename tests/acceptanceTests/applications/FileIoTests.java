@@ -149,6 +149,20 @@ public class FileIoTests {
         runExceptionTest(inputFile, expectedMessage);
     }
 
+    @Test
+    public void zeroCapacityShouldThrowException() throws IOException {
+        String inputFile = "ZeroCapacity.input";
+        String expectedMessage = MachineShopSimulator.CAPACITY_MUST_BE_AT_LEAST_1;
+        runExceptionTest(inputFile, expectedMessage);
+    }
+
+    @Test
+    public void negativeReleaseTimeShouldThrowException() throws IOException {
+        String inputFile = "NegativeReleaseTime.input";
+        String expectedMessage = MachineShopSimulator.RELEASE_TIME_MUST_BE_AT_LEAST_0;
+        runExceptionTest(inputFile, expectedMessage);
+    }
+
     private void runExceptionTest(String inputFile, String expectedMessage)
             throws IOException {
         try {
@@ -0,0 +1,68 @@
+package applications;
+
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+
+public class FinishTimeQueryTest {
+
+    @Test
+    public void boundsContainTheFinishTime() {
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            SimulationSpecification specification = new SpecificationReader(file.getPath()).readSpecification();
+            long finishTime = new MachineShopSimulator().runSimulation(specification).getFinishTime();
+            FinishTimeBounds bounds = FinishTimeBounds.of(specification);
+            assertTrue("In file " + file.getName() + ": " + finishTime + " not in " + bounds,
+                    bounds.getLowerBound() <= finishTime && finishTime <= bounds.getUpperBound());
+        }
+    }
+
+    @Test
+    public void queriesAnswerAsTheFullRunDoes() {
+        for (EventListType type : EventListType.values()) {
+            FinishTimeQuery query = new FinishTimeQuery(type);
+            for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+                SimulationSpecification specification = new SpecificationReader(file.getPath()).readSpecification();
+                long finishTime = new MachineShopSimulator().runSimulation(specification).getFinishTime();
+                for (long deadline = finishTime - 3; deadline <= finishTime + 3; deadline++)
+                    assertEquals("In file " + file.getName() + " by " + deadline + " on " + type,
+                            finishTime <= deadline, query.finishesBy(specification, deadline));
+            }
+        }
+    }
+
+    @Test
+    public void boundsSettleFarDeadlinesWithoutRunning() {
+        SimulationSpecification specification = new SpecificationReader(
+                new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input").getPath()).readSpecification();
+        FinishTimeBounds bounds = FinishTimeBounds.of(specification);
+        FinishTimeQuery query = new FinishTimeQuery();
+        assertFalse(query.finishesBy(specification, bounds.getLowerBound() - 1));
+        assertTrue(query.finishesBy(specification, bounds.getUpperBound()));
+        assertEquals(2, query.getNumSettledByBounds());
+        assertEquals(0, query.getNumSimulated());
+        query.finishesBy(specification, bounds.getLowerBound());
+        assertEquals(1, query.getNumSimulated());
+    }
+
+    @Test
+    public void boundsOfAHandWorkedShop() {
+        // machine 1 runs tasks of 2, 3 and 4 with change-overs of 5 on one
+        // unit; the longest job is 4 + 1 = 5 long, released at 6
+        SimulationSpecification specification = new JsonSpecificationReader(
+                "{\"changeOverTimes\": [5, 0], \"jobs\": ["
+                + "{\"releaseTime\": 0, \"tasks\": [[1, 2]]},"
+                + "{\"releaseTime\": 1, \"tasks\": [[1, 3], [2, 1]]},"
+                + "{\"releaseTime\": 6, \"tasks\": [[1, 4], [2, 1]]}]}").readSpecification();
+        FinishTimeBounds bounds = FinishTimeBounds.of(specification);
+        assertEquals(11, bounds.getJobLengthBound());
+        assertEquals(2 + 3 + 4 + 2 * 5, bounds.getMachineLoadBound());
+        assertEquals(19, bounds.getLowerBound());
+        assertEquals(6 + (2 + 5) + (3 + 5) + (4 + 5) + 1 + 1, bounds.getUpperBound());
+        // machine 1 runs until 19, and job 3 then needs 1 on machine 2
+        assertEquals(20, new MachineShopSimulator().runSimulation(specification).getFinishTime());
+    }
+}
@@ -0,0 +1,74 @@
+package applications;
+
+import static applications.TestFiles.specificationOf;
+import static applications.TestFiles.taskTableOf;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Runs a shop whose times go far past Integer.MAX_VALUE on every engine
+ * and checks none of them overflows.
+ */
+public class LongTimelineTest {
+
+    private static final long MAX = Integer.MAX_VALUE;
+
+    // two machines with the largest change-over time, two jobs that each
+    // run a task of the largest time on machine 1 and then on machine 2
+    private static final String SPECIFICATION = "2 2\n" + MAX + " " + MAX + "\n"
+            + "2 1 " + MAX + " 2 " + MAX + "\n"
+            + "2 1 " + MAX + " 2 " + MAX + "\n";
+
+    // one machine with the largest change-over time and one job with a
+    // task of the largest time
+    private static final String SINGLE_TASK_SPECIFICATION = "1 1\n" + MAX + "\n1 1 " + MAX + "\n";
+
+    private static void assertLongResults(SimulationResults results) {
+        assertEquals(4 * MAX, results.getFinishTime());
+        assertEquals(2, results.getNumCompletedJobs());
+        assertEquals(1, results.getJobNumber(0));
+        assertEquals(2 * MAX, results.getCompletionTime(0));
+        assertEquals(0, results.getTotalWaitTime(0));
+        assertEquals(2, results.getJobNumber(1));
+        assertEquals(4 * MAX, results.getCompletionTime(1));
+        assertEquals(2 * MAX, results.getTotalWaitTime(1));
+        assertArrayEquals(new long[] { 0, 2 * MAX, 0 }, results.getTotalWaitTimePerMachine());
+        assertArrayEquals(new int[] { 0, 2, 2 }, results.getNumTasksPerMachine());
+    }
+
+    @Test
+    public void machineShopSimulatorDoesNotOverflow() {
+        SimulationSpecification specification = specificationOf(SPECIFICATION);
+        for (EventListType eventListType : EventListType.values())
+            assertLongResults(new MachineShopSimulator(eventListType).runSimulation(specification));
+    }
+
+    @Test
+    public void compactSimulatorDoesNotOverflow() {
+        TaskTable table = taskTableOf(SPECIFICATION);
+        for (EventListType eventListType : EventListType.values())
+            assertLongResults(new CompactSimulator(eventListType).runSimulation(table));
+    }
+
+    @Test
+    public void parallelSimulatorDoesNotOverflow() {
+        TaskTable table = taskTableOf(SPECIFICATION);
+        for (int partitions = 1; partitions <= 2; partitions++)
+            assertLongResults(new ParallelSimulator(partitions).runSimulation(table));
+    }
+
+    @Test
+    public void finishTimeBoundsDoNotOverflow() {
+        SimulationSpecification specification = specificationOf(SINGLE_TASK_SPECIFICATION);
+        FinishTimeBounds bounds = FinishTimeBounds.of(specification);
+        assertEquals(MAX, bounds.getLowerBound());
+        assertEquals(2 * MAX, bounds.getUpperBound());
+        FinishTimeQuery query = new FinishTimeQuery();
+        assertFalse(query.finishesBy(specification, 0));
+        assertFalse(query.finishesBy(specification, MAX - 1));
+        assertTrue(query.finishesBy(specification, MAX));
+        assertTrue(query.finishesBy(specification, 2 * MAX));
+        assertEquals(MAX, new MachineShopSimulator().runSimulation(specification).getFinishTime());
+    }
+}
@@ -0,0 +1,105 @@
+package applications;
+
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import utilities.SampleStatistics;
+
+public class MonteCarloTest {
+
+    private static SimulationSpecification readSpecification(String fileName) {
+        return new SpecificationReader(new File(TEST_FILE_DIRECTORY, fileName).getPath()).readSpecification();
+    }
+
+    @Test
+    public void fixedTimesReplicateTheSimulation() {
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            SimulationSpecification specification = readSpecification(file.getName());
+            SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+            MonteCarloResults results = new MonteCarloSimulator(specification, 2).run(5, 1);
+            String message = "In file " + file.getName();
+            assertEquals(message, 5, results.getNumReplications());
+            assertEquals(message, expected.getFinishTime(), results.getFinishTime().getMean(), 1e-9);
+            assertEquals(message, 0.0, results.getFinishTime().getHalfWidth(), 0.0);
+            for (int m = 1; m <= specification.getNumMachines(); m++)
+                assertEquals(message, expected.getTotalWaitTimePerMachine()[m],
+                        results.getTotalWaitTime(m).getMean(), 1e-9);
+        }
+    }
+
+    @Test
+    public void seedAloneDecidesTheResults() {
+        SimulationSpecification specification = readSpecification("RandTest3.input");
+        MonteCarloResults[] runs = new MonteCarloResults[3];
+        for (int i = 0; i < runs.length; i++) {
+            // one, two and five threads
+            MonteCarloSimulator simulator = new MonteCarloSimulator(specification, i * i + 1);
+            simulator.setTaskTimes(TimeDistribution.EXPONENTIAL);
+            simulator.setChangeOverTimes(TimeDistribution.uniform(0.5));
+            runs[i] = simulator.run(40, 2024);
+        }
+        for (int i = 1; i < runs.length; i++) {
+            assertSameSample(runs[0].getFinishTime(), runs[i].getFinishTime());
+            for (int m = 1; m <= specification.getNumMachines(); m++)
+                assertSameSample(runs[0].getTotalWaitTime(m), runs[i].getTotalWaitTime(m));
+        }
+        assertTrue(runs[0].getFinishTime().getStandardDeviation() > 0);
+
+        MonteCarloSimulator simulator = new MonteCarloSimulator(specification, 1);
+        simulator.setTaskTimes(TimeDistribution.EXPONENTIAL);
+        simulator.setChangeOverTimes(TimeDistribution.uniform(0.5));
+        assertTrue(runs[0].getFinishTime().getMean() != simulator.run(40, 2025).getFinishTime().getMean());
+    }
+
+    @Test
+    public void eachTaskDrawsFromItsOwnDistribution() {
+        SimulationSpecification specification = readSpecification("MachineShopSimulator.input");
+        MonteCarloSimulator simulator = new MonteCarloSimulator(specification, 1);
+        simulator.setTaskTime(3, 2, (theTime, random) -> 100 * theTime);
+        simulator.setChangeOverTime(1, (theTime, random) -> -5);
+        SimulationSpecification sampled = simulator.sample(new SplittableRandom(1));
+        for (int j = 1; j <= specification.getNumJobs(); j++) {
+            int[] expected = specification.getJobSpecifications(j).getSpecificationsForTasks().clone();
+            if (j == 3)
+                expected[4] *= 100;
+            assertArrayEquals(expected, sampled.getJobSpecifications(j).getSpecificationsForTasks());
+        }
+        assertEquals(0, sampled.getChangeOverTimes(1));
+        for (int m = 2; m <= specification.getNumMachines(); m++)
+            assertEquals(specification.getChangeOverTimes(m), sampled.getChangeOverTimes(m));
+    }
+
+    @Test
+    public void sampledTimesStayInRange() {
+        SimulationSpecification specification = readSpecification("AllOnes.input");
+        MonteCarloSimulator simulator = new MonteCarloSimulator(specification, 1);
+        simulator.setTaskTimes(TimeDistribution.triangular(0, 3));
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 100; i++) {
+            SimulationSpecification sampled = simulator.sample(random);
+            for (int j = 1; j <= sampled.getNumJobs(); j++) {
+                int[] tasks = sampled.getJobSpecifications(j).getSpecificationsForTasks();
+                for (int k = 2; k < tasks.length; k += 2)
+                    assertTrue(tasks[k] >= 1 && tasks[k] <= 3);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noReplicationsIsRejected() {
+        new MonteCarloSimulator(readSpecification("AllOnes.input"), 1).run(0, 1);
+    }
+
+    private static void assertSameSample(SampleStatistics expected, SampleStatistics actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMean(), actual.getMean(), 0.0);
+        assertEquals(expected.getVariance(), actual.getVariance(), 0.0);
+        assertEquals(expected.getMin(), actual.getMin(), 0.0);
+        assertEquals(expected.getMax(), actual.getMax(), 0.0);
+    }
+}
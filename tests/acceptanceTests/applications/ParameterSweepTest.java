@@ -0,0 +1,88 @@
+package applications;
+
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+
+public class ParameterSweepTest {
+
+    @Test
+    public void everyPointMatchesItsOwnRun() {
+        SimulationSpecification specification =
+                new SpecificationReader(new File(TEST_FILE_DIRECTORY, "RandTest3.input").getPath()).readSpecification();
+        TaskTable table = TaskTable.fromSpecification(specification);
+        int[][] changeOverTimes = ParameterSweep.scaledChangeOverTimes(table, new double[] { 0, 1, 2.5 });
+        int[][] capacities = ParameterSweep.uniformCapacities(table.getNumMachines(), new int[] { 1, 2 });
+        capacities[1][1] = 4;
+
+        SweepResults results = new ParameterSweep(table, 3).run(changeOverTimes, capacities);
+        assertEquals(3, results.getNumRows());
+        assertEquals(2, results.getNumColumns());
+        for (int row = 0; row < 3; row++)
+            for (int column = 0; column < 2; column++) {
+                specification.setChangeOverTimes(changeOverTimes[row]);
+                specification.setCapacities(capacities[column]);
+                SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+                String message = "At row " + row + ", column " + column;
+                assertEquals(message, expected.getFinishTime(), results.getFinishTime(row, column));
+                assertEquals(message, expected.getFinishTime(), results.getFinishTimes()[row][column]);
+                for (int m = 1; m <= table.getNumMachines(); m++)
+                    assertEquals(message, expected.getTotalWaitTimePerMachine()[m],
+                            results.getTotalWaitTime(row, column, m));
+            }
+    }
+
+    @Test
+    public void pointsShareTheTasksOfTheTable() {
+        SimulationSpecification specification =
+                new SpecificationReader(new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input").getPath())
+                        .readSpecification();
+        TaskTable table = TaskTable.fromSpecification(specification);
+        int[] changeOverTimes = { 0, 7, 7, 7 };
+        TaskTable point = table.withMachines(changeOverTimes, null);
+        changeOverTimes[1] = 0;
+        assertSame(table.taskTime, point.taskTime);
+        assertSame(table.taskMachine, point.taskMachine);
+        assertEquals(7, point.getChangeOverTime(1));
+        assertEquals(table.getNumMachines(), point.getNumUnits());
+        assertEquals(2, table.getChangeOverTime(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeChangeOverTimeIsRejected() {
+        TaskTable table = new SpecificationReader(new File(TEST_FILE_DIRECTORY, "AllOnes.input").getPath())
+                .readTaskTable();
+        int[][] changeOverTimes = ParameterSweep.scaledChangeOverTimes(table, new double[] { -1 });
+        new ParameterSweep(table, 1).run(changeOverTimes,
+                ParameterSweep.uniformCapacities(table.getNumMachines(), new int[] { 1 }));
+    }
+
+    @Test
+    public void badFactorsAreRejected() {
+        TaskTable table = new SpecificationReader(new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input").getPath())
+                .readTaskTable();
+        for (double factor : new double[] { Double.NaN, Double.POSITIVE_INFINITY, -0.5 })
+            assertScalingRejected(table, factor, ParameterSweep.FACTOR_MUST_BE_FINITE_AND_AT_LEAST_0);
+        // machine 1 has change-over time 2
+        assertScalingRejected(table, Integer.MAX_VALUE / 2 + 1.0, ParameterSweep.SCALED_CHANGE_OVER_TIME_TOO_LARGE);
+    }
+
+    private static void assertScalingRejected(TaskTable table, double factor, String message) {
+        try {
+            ParameterSweep.scaledChangeOverTimes(table, new double[] { 1, factor });
+            fail("scaling by " + factor + " should throw");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongNumberOfMachinesIsRejected() {
+        TaskTable table = new SpecificationReader(new File(TEST_FILE_DIRECTORY, "AllOnes.input").getPath())
+                .readTaskTable();
+        table.withMachines(new int[table.getNumMachines() + 2], null);
+    }
+}
@@ -0,0 +1,111 @@
+package applications;
+
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+
+public class ReleasesTest {
+
+    private static final File RELEASES_FILE = new File(TEST_FILE_DIRECTORY, "Releases.input");
+
+    private static SimulationSpecification readSpecification(File file) {
+        return new SpecificationReader(file.getPath()).readSpecification();
+    }
+
+    @Test
+    public void releaseTimesAreRead() {
+        SimulationSpecification specification = readSpecification(RELEASES_FILE);
+        assertTrue(specification.hasReleaseTimes());
+        assertEquals(0, specification.getJobSpecifications(1).getReleaseTime());
+        assertEquals(5, specification.getJobSpecifications(2).getReleaseTime());
+        assertEquals(2, specification.getJobSpecifications(3).getReleaseTime());
+        TaskTable table = new SpecificationReader(RELEASES_FILE.getPath()).readTaskTable();
+        assertEquals(5, table.getReleaseTime(2));
+        assertArrayEquals(new int[] { 3, 2 }, table.releaseOrder());
+    }
+
+    @Test
+    public void releasesAtTimeZeroChangeNothing() {
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            SimulationSpecification specification = readSpecification(file);
+            if (specification.hasReleaseTimes())
+                continue;
+            SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+            TaskTable table = TaskTable.fromSpecification(specification);
+            int[] releaseTimes = new int[specification.getNumJobs() + 1];
+            TaskTable released = new TaskTable(table.numMachines, table.numJobs, table.changeOverTimes,
+                    table.capacities, releaseTimes, table.firstTask, table.taskMachine, table.taskTime);
+            assertEquals("In file " + file.getName(), expected.getFinishTime(),
+                    new CompactSimulator().runSimulation(released).getFinishTime());
+        }
+    }
+
+    @Test
+    public void jobsReleasedLaterWaitLess() {
+        SimulationSpecification specification = readSpecification(new File(TEST_FILE_DIRECTORY, "RandTest3.input"));
+        SimulationResults atOnce = new MachineShopSimulator().runSimulation(specification);
+        for (int j = 1; j <= specification.getNumJobs(); j++)
+            specification.getJobSpecifications(j).setReleaseTime(10 * j);
+        SimulationResults spread = new MachineShopSimulator().runSimulation(specification);
+        assertTrue(spread.totalWaitTimes().sum() < atOnce.totalWaitTimes().sum());
+        assertTrue(spread.getFinishTime() >= 10 * specification.getNumJobs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelSimulatorRejectsReleaseTimes() {
+        new ParallelSimulator(2).runSimulation(readSpecification(RELEASES_FILE));
+    }
+
+    @Test
+    public void openShopStopsAtTheHorizon() {
+        SimulationSpecification specification = readSpecification(RELEASES_FILE);
+        OpenShopResults results =
+                new OpenShopSimulator(specification).run(JobSource.fromSpecification(specification), 4);
+        assertEquals(4, results.getEndTime());
+        assertEquals(2, results.getNumReleased());
+        assertEquals(0, results.getNumCompleted());
+        assertEquals(2, results.getNumJobsInShop());
+        assertEquals(2, results.getTotalWaitTime(1));
+    }
+
+    @Test
+    public void openShopMemoryDoesNotGrowWithTheHorizon() {
+        SimulationSpecification specification =
+                readSpecification(new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input"));
+        OpenShopResults shortRun = new OpenShopSimulator(specification)
+                .run(JobSource.sampling(specification, 8, 3), 10000);
+        OpenShopResults longRun = new OpenShopSimulator(specification)
+                .run(JobSource.sampling(specification, 8, 3), 1000000);
+        assertTrue(longRun.getNumReleased() > 100000);
+        assertTrue(longRun.getNumReleased() - longRun.getNumCompleted() <= longRun.getMaxJobsInShop());
+        // slots double only when every one is in use
+        assertTrue(longRun.getNumSlots() < 2 * longRun.getMaxJobsInShop() + 16);
+        assertTrue(longRun.getNumSlots() <= 4 * shortRun.getNumSlots());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decreasingReleaseTimesAreRejected() {
+        SimulationSpecification specification = readSpecification(RELEASES_FILE);
+        int[] tasks = specification.getJobSpecifications(1).getSpecificationsForTasks();
+        JobSource backwards = new JobSource() {
+            private long time = 10;
+
+            public boolean advance() {
+                time--;
+                return time > 0;
+            }
+
+            public long getReleaseTime() {
+                return time;
+            }
+
+            public int[] getSpecificationsForTasks() {
+                return tasks;
+            }
+        };
+        new OpenShopSimulator(specification).run(backwards, 100);
+    }
+}
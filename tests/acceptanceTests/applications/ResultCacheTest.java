@@ -0,0 +1,262 @@
+package applications;
+
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static applications.TestWaits.awaitCount;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResultCacheTest {
+
+    private static final long LARGE = 1L << 30;
+
+    private File directory;
+    private final AtomicInteger numRuns = new AtomicInteger();
+    private final Function<SimulationSpecification, SimulationResults> simulator = specification -> {
+        numRuns.incrementAndGet();
+        return new MachineShopSimulator().runSimulation(specification);
+    };
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("ResultCacheTest").toFile();
+    }
+
+    @After
+    public void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null)
+            for (File file : files)
+                file.delete();
+        directory.delete();
+    }
+
+    @Test
+    public void repeatedSpecificationsAreRunOnce() {
+        ResultCache cache = new ResultCache(LARGE);
+        for (int round = 0; round < 2; round++)
+            for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+                SimulationSpecification specification = read(file);
+                assertEquals("In file " + file.getName(), expectedJson(specification),
+                        cache.getOrRun(specification, simulator).toJson());
+            }
+        int numFiles = BatchSimulator.inputFiles(TEST_FILE_DIRECTORY).length;
+        assertEquals(numFiles, numRuns.get());
+        assertEquals(numFiles, cache.getMisses());
+        assertEquals(numFiles, cache.getHits());
+        assertEquals(numFiles, cache.getNumEntries());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    public void callersGetTheirOwnCopies() {
+        ResultCache cache = new ResultCache(LARGE);
+        SimulationSpecification specification = read(new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input"));
+        SimulationResults first = cache.getOrRun(specification, simulator);
+        first.setFinishTime(-1);
+        assertEquals(expectedJson(specification), cache.getOrRun(specification, simulator).toJson());
+    }
+
+    @Test
+    public void reusedResultsAreCopiedIn() {
+        ResultCache cache = new ResultCache(LARGE);
+        ReusableSimulator reusable = new ReusableSimulator();
+        File[] files = BatchSimulator.inputFiles(TEST_FILE_DIRECTORY);
+        for (File file : files)
+            cache.getOrRun(read(file), reusable::runSimulation);
+        for (File file : files) {
+            SimulationSpecification specification = read(file);
+            assertEquals("In file " + file.getName(), expectedJson(specification),
+                    cache.getOrRun(specification, simulator).toJson());
+        }
+        assertEquals(0, numRuns.get());
+    }
+
+    @Test
+    public void fingerprintsFollowContent() {
+        File file = new File(TEST_FILE_DIRECTORY, "RandTest3.input");
+        SimulationSpecification specification = read(file);
+        assertEquals(SpecificationFingerprint.of(specification), SpecificationFingerprint.of(read(file)));
+
+        SimulationSpecification changed = read(file);
+        changed.getJobSpecifications(1).getSpecificationsForTasks()[2]++;
+        assertNotEquals(SpecificationFingerprint.of(specification), SpecificationFingerprint.of(changed));
+
+        // one unit per station and every job released at 0 is the same shop
+        SimulationSpecification explicit = read(file);
+        int[] capacities = new int[explicit.getNumMachines() + 1];
+        Arrays.fill(capacities, 1);
+        explicit.setCapacities(capacities);
+        assertEquals(SpecificationFingerprint.of(specification), SpecificationFingerprint.of(explicit));
+        assertEquals(32, SpecificationFingerprint.of(specification).toString().length());
+    }
+
+    @Test
+    public void variantsKeepTheirOwnResults() {
+        SimulationSpecification specification = read(new File(TEST_FILE_DIRECTORY, "RandTest3.input"));
+        Function<SimulationSpecification, SimulationResults> shortestFirst = s -> {
+            numRuns.incrementAndGet();
+            MachineShopSimulator spt = new MachineShopSimulator();
+            spt.setDispatchPolicy(DispatchPolicy.SHORTEST_PROCESSING_TIME);
+            return spt.runSimulation(s);
+        };
+        String sptJson = shortestFirst.apply(specification).toJson();
+        assertNotEquals(expectedJson(specification), sptJson);
+
+        // caches of two variants in one directory do not answer for each other
+        ResultCache fifo = new ResultCache(LARGE, directory);
+        ResultCache spt = new ResultCache(LARGE, directory, "spt");
+        assertEquals(expectedJson(specification), fifo.getOrRun(specification, simulator).toJson());
+        assertEquals(sptJson, spt.getOrRun(specification, shortestFirst).toJson());
+        assertEquals(1, spt.getMisses());
+        assertEquals(sptJson, new ResultCache(0, directory, "spt").getOrRun(specification, simulator).toJson());
+        assertEquals(expectedJson(specification),
+                new ResultCache(0, directory).getOrRun(specification, shortestFirst).toJson());
+        assertEquals(3, numRuns.get());
+        assertEquals(2, directory.listFiles().length);
+        assertNotEquals(SpecificationFingerprint.of(specification, ResultCache.FIFO_VARIANT),
+                SpecificationFingerprint.of(specification, "spt"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchesOnlyTakeFifoResults() {
+        new BatchSimulator(1).setResultCache(new ResultCache(LARGE, null, "spt"));
+    }
+
+    @Test
+    public void leastRecentlyUsedResultsAreEvicted() {
+        SimulationSpecification first = read(new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input"));
+        SimulationSpecification second = read(new File(TEST_FILE_DIRECTORY, "RandTest3.input"));
+        SimulationSpecification third = read(new File(TEST_FILE_DIRECTORY, "RandTest4.input"));
+        long size = sizeOf(first) + sizeOf(second) + sizeOf(third);
+        ResultCache cache = new ResultCache(size - 1);
+        cache.getOrRun(first, simulator);
+        cache.getOrRun(second, simulator);
+        cache.getOrRun(first, simulator);
+        cache.getOrRun(third, simulator); // drops second, used least recently
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.getNumEntries());
+        assertEquals(sizeOf(first) + sizeOf(third), cache.getBytes());
+        cache.getOrRun(first, simulator);
+        assertEquals(3, numRuns.get());
+        cache.getOrRun(second, simulator);
+        assertEquals(4, numRuns.get());
+    }
+
+    @Test
+    public void resultsLastOnDisk() {
+        File[] files = BatchSimulator.inputFiles(TEST_FILE_DIRECTORY);
+        ResultCache cache = new ResultCache(LARGE, directory);
+        for (File file : files)
+            cache.getOrRun(read(file), simulator);
+        assertEquals(files.length, numRuns.get());
+
+        // a new cache, with nothing in memory, finds every result on disk
+        ResultCache reopened = new ResultCache(0, directory);
+        for (File file : files) {
+            SimulationSpecification specification = read(file);
+            assertEquals("In file " + file.getName(), expectedJson(specification),
+                    reopened.getOrRun(specification, simulator).toJson());
+        }
+        assertEquals(files.length, numRuns.get());
+        assertEquals(files.length, reopened.getDiskHits());
+        assertEquals(0, reopened.getNumEntries());
+    }
+
+    @Test
+    public void damagedFilesAreRunAgain() throws IOException {
+        SimulationSpecification specification = read(new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input"));
+        new ResultCache(LARGE, directory).getOrRun(specification, simulator);
+        File resultFile = new File(directory, SpecificationFingerprint.of(specification, ResultCache.FIFO_VARIANT)
+                + ResultCache.RESULT_FILE_EXTENSION);
+        byte[] bytes = Files.readAllBytes(resultFile.toPath());
+        Files.write(resultFile.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+        ResultCache reopened = new ResultCache(LARGE, directory);
+        assertEquals(expectedJson(specification), reopened.getOrRun(specification, simulator).toJson());
+        assertEquals(1, reopened.getMisses());
+        assertEquals(2, numRuns.get());
+        assertEquals(bytes.length, resultFile.length());
+    }
+
+    @Test
+    public void concurrentRequestsForOneSpecificationRunItOnce() throws Exception {
+        SimulationSpecification specification = read(new File(TEST_FILE_DIRECTORY, "RandTest3.input"));
+        CountDownLatch release = new CountDownLatch(1);
+        Function<SimulationSpecification, SimulationResults> slow = s -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return simulator.apply(s);
+        };
+        ResultCache cache = new ResultCache(LARGE, directory);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<SimulationResults>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                results.add(pool.submit((Callable<SimulationResults>) () -> cache.getOrRun(specification, slow)));
+            // nothing is in memory until the run is released, so every hit
+            // is a caller that found the run in flight and waits for it
+            awaitCount(1, cache::getMisses);
+            awaitCount(7, cache::getHits);
+            release.countDown();
+            for (Future<SimulationResults> result : results)
+                assertEquals(expectedJson(specification), result.get().toJson());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+        assertEquals(1, numRuns.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(7, cache.getHits());
+    }
+
+    @Test
+    public void batchesUseTheCache() {
+        ResultCache cache = new ResultCache(LARGE);
+        BatchSimulator batch = new BatchSimulator(4);
+        batch.setResultCache(cache);
+        List<SimulationResults> first = batch.runDirectory(TEST_FILE_DIRECTORY);
+        List<SimulationResults> second = batch.runDirectory(TEST_FILE_DIRECTORY);
+        for (int i = 0; i < first.size(); i++)
+            assertEquals(first.get(i).toJson(), second.get(i).toJson());
+        assertEquals(first.size(), cache.getMisses());
+        assertEquals(first.size(), cache.getHits());
+
+        SimulationMetrics metrics = new SimulationMetrics();
+        cache.publish(metrics);
+        assertEquals(first.size(), metrics.getCounter(ResultCache.HITS));
+        assertEquals(first.size(), metrics.getCounter(ResultCache.MISSES));
+        assertEquals(first.size(), (long) metrics.getGauge(ResultCache.ENTRIES));
+    }
+
+    private static SimulationSpecification read(File file) {
+        return new SpecificationReader(file.getPath()).readSpecification();
+    }
+
+    private static long sizeOf(SimulationSpecification specification) {
+        return ResultCache.sizeOf(new MachineShopSimulator().runSimulation(specification));
+    }
+
+    private static String expectedJson(SimulationSpecification specification) {
+        return new MachineShopSimulator().runSimulation(specification).toJson();
+    }
+}
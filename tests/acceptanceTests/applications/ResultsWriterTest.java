@@ -0,0 +1,77 @@
+package applications;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Writes the results of the acceptance test input files to a file and
+ * checks them against the expected output files, and checks that the
+ * writer produces exactly the bytes of printing each line on its own.
+ */
+public class ResultsWriterTest {
+
+    private static final File TEST_FILE_DIRECTORY
+        = new File("tests/acceptanceTests/Machine_shop_test_files/");
+    private static final String PROMPT_PREFIX = "Enter ";
+
+    @Test
+    public void outputFileMatchesExpectedOutput() throws IOException {
+        for (File inputFile : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            File outputFile = File.createTempFile("results", ".output");
+            outputFile.deleteOnExit();
+            MachineShopSimulator.main(new String[] {
+                    CompactSimulator.STREAM_OPTION, inputFile.getPath(),
+                    ResultsWriter.OUTPUT_OPTION, outputFile.getPath() });
+
+            File expectedFile = new File(inputFile.getPath().replace(".input", ".output"));
+            List<String> expected = Files.readAllLines(expectedFile.toPath());
+            // reading from a file prints no prompts
+            expected.removeIf(line -> line.startsWith(PROMPT_PREFIX));
+            assertEquals("In file " + inputFile.getName(), expected, Files.readAllLines(outputFile.toPath()));
+        }
+    }
+
+    @Test
+    public void writerMatchesPrintln() {
+        // enough jobs to fill the writer's buffer several times over
+        int numJobs = 20000;
+        SimulationResults results = new SimulationResults(numJobs);
+        for (int j = 1; j <= numJobs; j++)
+            results.setJobCompletionData(j, j * 104729L * 1000003 - 1000000, j % 2 == 0 ? -j : j * 31L);
+        results.setFinishTime(Long.MAX_VALUE);
+        results.setNumMachines(3);
+        results.setNumTasksPerMachine(new int[] { 0, 7, 0, Integer.MIN_VALUE });
+        results.setTotalWaitTimePerMachine(new long[] { 0, 12, 1000000000000L, Long.MIN_VALUE });
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(expected);
+        for (JobCompletionData data : results.getJobCompletionData())
+            printStream.println("Job " + data.getJobNumber() + " has completed at "
+                    + data.getCompletionTime() + " Total wait was " + data.getTotalWaitTime());
+        printStream.println("Finish time = " + results.getFinishTime());
+        for (int p = 1; p <= results.getNumMachines(); p++) {
+            printStream.println("Machine " + p + " completed "
+                    + results.getNumTasksPerMachine()[p] + " tasks");
+            printStream.println("The total wait time was "
+                    + results.getTotalWaitTimePerMachine()[p]);
+            printStream.println();
+        }
+        printStream.flush();
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        ResultsWriter writer = new ResultsWriter(actual);
+        writer.write(results);
+        writer.flush();
+        assertEquals(new String(expected.toByteArray(), StandardCharsets.US_ASCII),
+                new String(actual.toByteArray(), StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,142 @@
+package applications;
+
+import static applications.SimulationResultsAssert.assertSameResults;
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+public class ReusableSimulatorTest {
+
+    @Test
+    public void reusedStateGivesTheSameResults() {
+        for (EventListType type : EventListType.values()) {
+            ReusableSimulator simulator = new ReusableSimulator(type);
+            // twice over, so every shop runs on state left by a larger and a smaller one
+            for (int round = 0; round < 2; round++)
+                for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+                    SimulationSpecification specification =
+                            new SpecificationReader(file.getPath()).readSpecification();
+                    SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+                    assertSameResults("In file " + file.getName() + " on " + type, expected,
+                            simulator.runSimulation(specification));
+                }
+        }
+    }
+
+    @Test
+    public void resultsAreReusedAfterReset() {
+        SimulationSpecification specification = new SpecificationReader(
+                new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input").getPath()).readSpecification();
+        ReusableSimulator simulator = new ReusableSimulator();
+        SimulationResults first = simulator.runSimulation(specification);
+        assertSame(first, simulator.runSimulation(specification));
+        simulator.reset();
+        SimulationResults afterReset = simulator.runSimulation(specification);
+        assertNotSame(first, afterReset);
+        assertSameResults("After reset", new MachineShopSimulator().runSimulation(specification), afterReset);
+    }
+
+    @Test
+    public void compactSimulatorResultsOutliveItsNextRun() {
+        CompactSimulator simulator = new CompactSimulator();
+        SimulationSpecification first = new SpecificationReader(
+                new File(TEST_FILE_DIRECTORY, "RandTest3.input").getPath()).readSpecification();
+        SimulationSpecification second = new SpecificationReader(
+                new File(TEST_FILE_DIRECTORY, "MachineShopSimulator.input").getPath()).readSpecification();
+        SimulationResults firstResults = simulator.runSimulation(first);
+        simulator.runSimulation(second);
+        assertSameResults("After a second run", new MachineShopSimulator().runSimulation(first), firstResults);
+    }
+
+    @Test
+    public void steadyStateRunsAllocateLittle() {
+        com.sun.management.ThreadMXBean allocations = allocationCounter();
+        SimulationSpecification specification = BenchmarkShop.specification(20, false);
+        ReusableSimulator simulator = new ReusableSimulator(EventListType.HEAP);
+        long id = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(id);
+        simulator.runSimulation(specification);
+        long firstRun = allocations.getThreadAllocatedBytes(id) - before;
+        for (int i = 0; i < 5; i++)
+            simulator.runSimulation(specification);
+        before = allocations.getThreadAllocatedBytes(id);
+        simulator.runSimulation(specification);
+        long steadyRun = allocations.getThreadAllocatedBytes(id) - before;
+        assertTrue("first run " + firstRun + " bytes, steady run " + steadyRun, steadyRun < firstRun / 20);
+    }
+
+    @Test
+    public void shopsOfChangingSizeAllocateLittle() {
+        com.sun.management.ThreadMXBean allocations = allocationCounter();
+        // jobs released late, and fewer machines and so units in the second shop
+        SimulationSpecification large = BenchmarkShop.specification(20, true);
+        SimulationSpecification small = BenchmarkShop.specification(10, true);
+        for (EventListType type : EventListType.values()) {
+            ReusableSimulator simulator = new ReusableSimulator(type);
+            long id = Thread.currentThread().getId();
+            long before = allocations.getThreadAllocatedBytes(id);
+            simulator.runSimulation(large);
+            long firstRun = allocations.getThreadAllocatedBytes(id) - before;
+            for (int i = 0; i < 5; i++) {
+                simulator.runSimulation(small);
+                simulator.runSimulation(large);
+            }
+            SimulationResults expected = new MachineShopSimulator().runSimulation(small);
+            before = allocations.getThreadAllocatedBytes(id);
+            SimulationResults actual = simulator.runSimulation(small);
+            long steadyRun = allocations.getThreadAllocatedBytes(id) - before;
+            assertSameResults("Small shop on " + type, expected, actual);
+            before = allocations.getThreadAllocatedBytes(id);
+            simulator.runSimulation(large);
+            steadyRun = Math.max(steadyRun, allocations.getThreadAllocatedBytes(id) - before);
+            assertTrue(type + ": first run " + firstRun + " bytes, steady run " + steadyRun,
+                    steadyRun < firstRun / 20);
+        }
+    }
+
+    /** @return the allocation counter of the current thread, skipping the test if there is none */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        return allocations;
+    }
+
+    /** a shop large enough that its state dwarfs the fixed cost of a run */
+    private static final class BenchmarkShop {
+        /** @return the shop on numMachines machines, with every third job released late if withReleases */
+        static SimulationSpecification specification(int numMachines, boolean withReleases) {
+            SimulationSpecification specification = new SimulationSpecification();
+            int numJobs = 5000;
+            specification.setNumMachines(numMachines);
+            specification.setNumJobs(numJobs);
+            int[] changeOverTimes = new int[numMachines + 1];
+            for (int m = 1; m <= numMachines; m++)
+                changeOverTimes[m] = m % 4;
+            specification.setChangeOverTimes(changeOverTimes);
+            JobSpecification[] jobs = new JobSpecification[numJobs + 1];
+            specification.setJobSpecification(jobs);
+            for (int j = 1; j <= numJobs; j++) {
+                jobs[j] = new JobSpecification();
+                jobs[j].setNumTasks(4);
+                int[] tasks = new int[9];
+                for (int k = 0; k < 4; k++) {
+                    tasks[2*k+1] = (j * 7 + k * 3) % numMachines + 1;
+                    tasks[2*k+2] = (j + k) % 9 + 1;
+                }
+                jobs[j].setSpecificationsForTasks(tasks);
+                if (withReleases && j % 3 == 0)
+                    jobs[j].setReleaseTime(j % 97 + 1);
+            }
+            return specification;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package applications;
+
+import static org.junit.Assert.*;
+
+/**
+ * Asserts that two runs of a shop gave the same results: the finish
+ * time, the tasks and total wait of every machine, and the jobs in the
+ * order they completed, with their completion times and total waits.
+ */
+final class SimulationResultsAssert {
+
+    private SimulationResultsAssert() {
+    }
+
+    static void assertSameResults(SimulationResults expected, SimulationResults actual) {
+        assertSameResults(null, expected, actual);
+    }
+
+    static void assertSameResults(String message, SimulationResults expected, SimulationResults actual) {
+        assertEquals(message, expected.getFinishTime(), actual.getFinishTime());
+        assertEquals(message, expected.getNumMachines(), actual.getNumMachines());
+        assertArrayEquals(message, expected.getNumTasksPerMachine(), actual.getNumTasksPerMachine());
+        assertArrayEquals(message, expected.getTotalWaitTimePerMachine(), actual.getTotalWaitTimePerMachine());
+        assertArrayEquals(message, expected.jobNumbers().toArray(), actual.jobNumbers().toArray());
+        assertArrayEquals(message, expected.completionTimes().toArray(), actual.completionTimes().toArray());
+        assertArrayEquals(message, expected.totalWaitTimes().toArray(), actual.totalWaitTimes().toArray());
+    }
+}
@@ -0,0 +1,359 @@
+package applications;
+
+import static applications.TestFiles.EXCEPTION_TEST_FILE_DIRECTORY;
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static applications.TestWaits.awaitCount;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import exceptions.MyInputException;
+
+public class SimulationServiceTest {
+
+    private SimulationService service;
+
+    /** the response to a request: its status, body and Retry-After header */
+    private static final class Response {
+        final int status;
+        final String body;
+        final String retryAfter; // the Retry-After header, null if there is none
+
+        Response(int theStatus, String theBody, String theRetryAfter) {
+            status = theStatus;
+            body = theBody;
+            retryAfter = theRetryAfter;
+        }
+    }
+
+    @Before
+    public void startService() throws IOException {
+        service = new SimulationService(0, 2);
+        service.start();
+    }
+
+    @After
+    public void stopService() {
+        service.stop();
+    }
+
+    @Test
+    public void textSpecificationsGiveTheSimulatorsResults() throws IOException {
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            Response response = post("text/plain", Files.readAllBytes(file.toPath()));
+            assertEquals("In file " + file.getName(), 200, response.status);
+            assertEquals("In file " + file.getName(), expectedJson(file), response.body);
+        }
+    }
+
+    @Test
+    public void jsonSpecificationsGiveTheSimulatorsResults() throws IOException {
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            SimulationSpecification specification = new SpecificationReader(file.getPath()).readSpecification();
+            Response response = post(SimulationService.JSON_CONTENT_TYPE,
+                    toJson(specification).getBytes(StandardCharsets.UTF_8));
+            assertEquals("In file " + file.getName(), 200, response.status);
+            assertEquals("In file " + file.getName(), expectedJson(file), response.body);
+        }
+    }
+
+    @Test
+    public void concurrentRequestsAreBatched() throws Exception {
+        service.stop();
+        // a window long enough for every client's request to join the batch
+        service = new SimulationService(0, 2, 1024, TimeUnit.MILLISECONDS.toMicros(100), 64, 1 << 16);
+        service.start();
+        File[] files = BatchSimulator.inputFiles(TEST_FILE_DIRECTORY);
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int client = 0; client < 8; client++) {
+                int first = client;
+                results.add(clients.submit((Callable<Void>) () -> {
+                    for (int i = 0; i < 20; i++) {
+                        File file = files[(first + i) % files.length];
+                        Response response = post("text/plain", Files.readAllBytes(file.toPath()));
+                        assertEquals("In file " + file.getName(), expectedJson(file), response.body);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> result : results)
+                result.get();
+        } finally {
+            clients.shutdown();
+        }
+        assertEquals(160, service.getNumAccepted());
+        assertEquals(160, service.getNumRequests());
+        assertTrue(service.getNumBatches() + " batches", service.getNumBatches() < 160);
+        assertEquals(0, service.getNumRejected());
+    }
+
+    @Test
+    public void aFullQueueAsksClientsToRetry() throws Exception {
+        service.stop();
+        // one worker, one batch of one request waiting for it, one request
+        // held by the dispatcher and one in the queue fill the service
+        service = new SimulationService(0, 1, 1, 0, 1, 1 << 16);
+        ResultCache cache = new ResultCache(1L << 30);
+        service.setResultCache(cache);
+        service.start();
+        File file = new File(TEST_FILE_DIRECTORY, "RandTest3.input");
+        byte[] body = Files.readAllBytes(file.toPath());
+        SimulationSpecification specification = new SpecificationReader(file.getPath()).readSpecification();
+
+        // the worker waits on the cache for this run of the same specification
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(9);
+        try {
+            Future<SimulationResults> blocker = clients.submit(() -> cache.getOrRun(specification, s -> {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new MachineShopSimulator().runSimulation(s);
+            }));
+            running.await();
+            List<Future<Response>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                responses.add(clients.submit(() -> post("text/plain", body)));
+            // at most four requests fit, so at least four are turned away
+            awaitCount(4, service::getNumRejected);
+            release.countDown();
+            blocker.get();
+
+            int numRejected = 0;
+            for (Future<Response> future : responses) {
+                Response response = future.get();
+                if (response.status == 503) {
+                    numRejected++;
+                    assertEquals("1", response.retryAfter);
+                } else {
+                    assertEquals(200, response.status);
+                    assertEquals(expectedJson(file), response.body);
+                }
+            }
+            assertTrue(numRejected >= 4);
+            assertEquals(numRejected, service.getNumRejected());
+            assertEquals(8 - numRejected, service.getNumRequests());
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    @Test
+    public void stoppingAnswersTheRequestsNotYetRun() throws Exception {
+        service.stop();
+        // a long window keeps the requests in the batch being gathered
+        service = new SimulationService(0, 1, 64, TimeUnit.SECONDS.toMicros(30), 64, 1 << 16);
+        service.start();
+        File file = new File(TEST_FILE_DIRECTORY, "RandTest3.input");
+        byte[] body = Files.readAllBytes(file.toPath());
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Response>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+                responses.add(clients.submit(() -> post("text/plain", body)));
+            awaitCount(4, service::getNumAccepted);
+            service.stop();
+            for (Future<Response> response : responses) {
+                assertEquals(503, response.get().status);
+                assertEquals("1", response.get().retryAfter);
+            }
+        } finally {
+            clients.shutdown();
+        }
+        assertEquals(0, service.getNumRequests());
+    }
+
+    @Test
+    public void repeatedRequestsAreAnsweredFromTheCache() throws IOException {
+        service.stop();
+        ResultCache cache = new ResultCache(1L << 30);
+        service = new SimulationService(0, 2);
+        service.setResultCache(cache);
+        service.start();
+        File file = new File(TEST_FILE_DIRECTORY, "RandTest3.input");
+        for (int i = 0; i < 3; i++)
+            assertEquals(expectedJson(file), post("text/plain", Files.readAllBytes(file.toPath())).body);
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void badSpecificationsAreRejected() throws IOException {
+        for (File file : BatchSimulator.inputFiles(EXCEPTION_TEST_FILE_DIRECTORY)) {
+            Response response = post("text/plain", Files.readAllBytes(file.toPath()));
+            assertEquals("In file " + file.getName(), 400, response.status);
+            assertTrue(response.body, response.body.startsWith("{\"error\": "));
+        }
+        assertEquals(400, post(SimulationService.JSON_CONTENT_TYPE, bytes("{\"jobs\": []")).status);
+        assertEquals(400, post(SimulationService.JSON_CONTENT_TYPE,
+                bytes("{\"changeOverTimes\": [1], \"jobs\": [{\"tasks\": [[2, 1]]}]}")).status);
+        assertEquals(0, service.getNumRequests());
+    }
+
+    @Test
+    public void malformedRequestsAreRejected() throws IOException {
+        Response response = post("text/plain", bytes("1 2147483647\n0\n"));
+        assertEquals(400, response.status);
+        assertTrue(response.body, response.body.contains(SimulationService.COUNT_TOO_LARGE_FOR_REQUEST));
+        assertEquals(400, post("text/plain", bytes("1 500000000\n0\n")).status);
+        assertEquals(400, post("text/plain", bytes("1 1\n0\n500000000 1 1\n")).status);
+
+        byte[] nested = new byte[1 << 20];
+        Arrays.fill(nested, (byte) '[');
+        response = post(SimulationService.JSON_CONTENT_TYPE, nested);
+        assertEquals(400, response.status);
+        assertTrue(response.body, response.body.startsWith("{\"error\": "));
+
+        // a job of tasks filling the largest body, whose last task is bad
+        String task = "[1, 1], ";
+        int numTasks = (SimulationService.MAX_REQUEST_BYTES - 64) / task.length();
+        StringBuilder json = new StringBuilder(SimulationService.MAX_REQUEST_BYTES);
+        json.append("{\"changeOverTimes\": [1], \"jobs\": [{\"tasks\": [");
+        for (int k = 1; k < numTasks; k++)
+            json.append(task);
+        json.append("[1, 0]]}]}");
+        response = post(SimulationService.JSON_CONTENT_TYPE, bytes(json.toString()));
+        assertEquals(400, response.status);
+        assertTrue(response.body, response.body.contains(MachineShopSimulator.BAD_MACHINE_NUMBER_OR_TASK_TIME));
+
+        // the service still answers well formed requests
+        File file = new File(TEST_FILE_DIRECTORY, "RandTest3.input");
+        assertEquals(expectedJson(file), post("text/plain", Files.readAllBytes(file.toPath())).body);
+        assertEquals(1, service.getNumRequests());
+    }
+
+    @Test
+    public void onlyPostIsAccepted() throws IOException {
+        HttpURLConnection connection = connect();
+        connection.setRequestMethod("GET");
+        assertEquals(405, connection.getResponseCode());
+        assertEquals("POST", connection.getHeaderField("Allow"));
+    }
+
+    @Test
+    public void jsonReaderChecksAsTheTextReaderDoes() {
+        assertJsonError(MachineShopSimulator.NUMBER_OF_MACHINES_AND_JOBS_MUST_BE_AT_LEAST_1,
+                "{\"changeOverTimes\": [], \"jobs\": [{\"tasks\": [[1, 1]]}]}");
+        assertJsonError(MachineShopSimulator.CHANGE_OVER_TIME_MUST_BE_AT_LEAST_0,
+                "{\"changeOverTimes\": [-1], \"jobs\": [{\"tasks\": [[1, 1]]}]}");
+        assertJsonError(MachineShopSimulator.CAPACITY_MUST_BE_AT_LEAST_1,
+                "{\"changeOverTimes\": [1], \"capacities\": [0], \"jobs\": [{\"tasks\": [[1, 1]]}]}");
+        assertJsonError(MachineShopSimulator.RELEASE_TIME_MUST_BE_AT_LEAST_0,
+                "{\"changeOverTimes\": [1], \"jobs\": [{\"releaseTime\": -1, \"tasks\": [[1, 1]]}]}");
+        assertJsonError(MachineShopSimulator.EACH_JOB_MUST_HAVE_AT_LEAST_1_TASK,
+                "{\"changeOverTimes\": [1], \"jobs\": [{\"tasks\": []}]}");
+        assertJsonError(MachineShopSimulator.BAD_MACHINE_NUMBER_OR_TASK_TIME,
+                "{\"changeOverTimes\": [1], \"jobs\": [{\"tasks\": [[1, 0]]}]}");
+        assertJsonError(JsonSpecificationReader.UNKNOWN_FIELD + ": capacity",
+                "{\"changeOverTimes\": [1], \"capacity\": [1], \"jobs\": [{\"tasks\": [[1, 1]]}]}");
+        assertJsonError(JsonSpecificationReader.MISSING_FIELD + ": jobs", "{\"changeOverTimes\": [1]}");
+    }
+
+    @Test
+    public void jobsWithoutReleaseTimesAreReleasedAtZero() {
+        SimulationSpecification specification = new JsonSpecificationReader(
+                "{\"changeOverTimes\": [1, 2], \"jobs\": [{\"releaseTime\": 5, \"tasks\": [[1, 2]]},"
+                + " {\"tasks\": [[2, 3], [1, 1]]}]}").readSpecification();
+        assertTrue(specification.hasReleaseTimes());
+        assertFalse(specification.hasStations());
+        assertEquals(5, specification.getJobSpecifications(1).getReleaseTime());
+        assertEquals(0, specification.getJobSpecifications(2).getReleaseTime());
+        assertEquals(2, specification.getJobSpecifications(2).getNumTasks());
+    }
+
+    private static void assertJsonError(String message, String json) {
+        try {
+            new JsonSpecificationReader(json).readSpecification();
+            fail("Expected " + message);
+        } catch (MyInputException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    private static String expectedJson(File file) {
+        SimulationSpecification specification = new SpecificationReader(file.getPath()).readSpecification();
+        return new MachineShopSimulator().runSimulation(specification).toJson();
+    }
+
+    /** @return specification in the format of JsonSpecificationReader */
+    private static String toJson(SimulationSpecification specification) {
+        StringBuilder json = new StringBuilder("{\"changeOverTimes\": [");
+        for (int m = 1; m <= specification.getNumMachines(); m++)
+            json.append(m == 1 ? "" : ", ").append(specification.getChangeOverTimes(m));
+        json.append(']');
+        if (specification.hasStations()) {
+            json.append(", \"capacities\": [");
+            for (int m = 1; m <= specification.getNumMachines(); m++)
+                json.append(m == 1 ? "" : ", ").append(specification.getCapacity(m));
+            json.append(']');
+        }
+        json.append(", \"jobs\": [");
+        for (int j = 1; j <= specification.getNumJobs(); j++) {
+            JobSpecification job = specification.getJobSpecifications(j);
+            json.append(j == 1 ? "{" : ", {");
+            if (specification.hasReleaseTimes())
+                json.append("\"releaseTime\": ").append(job.getReleaseTime()).append(", ");
+            json.append("\"tasks\": [");
+            int[] tasks = job.getSpecificationsForTasks();
+            for (int k = 1; k < tasks.length; k += 2)
+                json.append(k == 1 ? "[" : ", [").append(tasks[k]).append(", ").append(tasks[k + 1]).append(']');
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private HttpURLConnection connect() throws IOException {
+        return (HttpURLConnection) new URL("http://localhost:" + service.getPort() + SimulationService.PATH)
+                .openConnection();
+    }
+
+    private Response post(String contentType, byte[] body) throws IOException {
+        HttpURLConnection connection = connect();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", contentType);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) > 0; )
+                response.write(buffer, 0, n);
+            return new Response(status, new String(response.toByteArray(), StandardCharsets.UTF_8),
+                    connection.getHeaderField("Retry-After"));
+        }
+    }
+}
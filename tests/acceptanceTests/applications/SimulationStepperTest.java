@@ -0,0 +1,69 @@
+package applications;
+
+import static applications.SimulationResultsAssert.assertSameResults;
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static applications.TestFiles.specificationOf;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+
+public class SimulationStepperTest {
+
+    // one machine with change-over time 2 and two jobs of one task of
+    // time 3: busy 0-3, changing over 3-5, busy 5-8
+    private static final String TWO_JOBS = "1 2\n2\n1 1 3\n1 1 3\n";
+
+    @Test
+    public void queueLengthAndUtilizationBetweenSteps() {
+        SimulationStepper stepper = new SimulationStepper(specificationOf(TWO_JOBS));
+        assertEquals(0, stepper.getTime());
+        assertEquals(1, stepper.getQueueLength(1));
+        assertEquals(0, stepper.getUtilization(1), 0);
+
+        assertEquals(1, stepper.advanceUntil(4));
+        assertEquals(4, stepper.getTime());
+        assertEquals(1, stepper.getQueueLength(1));
+        assertEquals(0.75, stepper.getUtilization(1), 1e-12);
+
+        assertEquals(1, stepper.advanceEvents(1));
+        assertEquals(5, stepper.getTime());
+        assertEquals(0, stepper.getQueueLength(1));
+        assertEquals(0.6, stepper.getUtilization(1), 1e-12);
+        assertFalse(stepper.isFinished());
+
+        assertEquals(1, stepper.advanceUntil(100));
+        assertTrue(stepper.isFinished());
+        assertEquals(8, stepper.getTime());
+        assertEquals(2, stepper.getNumCompletedJobs());
+        assertEquals(0.75, stepper.getUtilization(1), 1e-12);
+        assertEquals(0, stepper.advanceEvents(1));
+        assertEquals(8, stepper.finish().getFinishTime());
+    }
+
+    @Test
+    public void steppedRunsMatchRunSimulation() {
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            SimulationSpecification specification = new SpecificationReader(file.getPath()).readSpecification();
+            SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+            String message = "In file " + file.getName();
+
+            SimulationStepper stepper = new SimulationStepper(specification, EventListType.HEAP);
+            for (int step = 1; !stepper.isFinished(); step++) {
+                long before = stepper.getTime();
+                if (step % 2 == 0)
+                    stepper.advanceEvents(step);
+                else
+                    stepper.advanceUntil(before + step);
+                assertTrue(message, stepper.getTime() >= before);
+                for (int m = 1; m <= specification.getNumMachines(); m++) {
+                    assertTrue(message, stepper.getQueueLength(m) >= 0);
+                    assertTrue(message, stepper.getUtilization(m) >= 0 && stepper.getUtilization(m) <= 1);
+                }
+            }
+            SimulationResults actual = stepper.finish();
+            assertSameResults(message, expected, actual);
+        }
+    }
+}
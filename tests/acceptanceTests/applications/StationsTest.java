@@ -0,0 +1,88 @@
+package applications;
+
+import static applications.SimulationResultsAssert.assertSameResults;
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static applications.TestFiles.specificationOf;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Runs shops whose machines are stations of several units, and checks
+ * the stations in every format and engine that supports them.
+ */
+public class StationsTest {
+
+    private static final File STATIONS_FILE = new File(TEST_FILE_DIRECTORY, "Stations.input");
+
+    // one station of two units with change-over time 1, and three jobs of
+    // one task of times 4, 2 and 3: the units take jobs 1 and 2 at time 0,
+    // the second is changed over at 3 and takes job 3, waiting since 0
+    private static final String TWO_UNITS = "stations\n1 3\n1\n2\n1 1 4\n1 1 2\n1 1 3\n";
+
+    @Test
+    public void unitsShareTheQueue() {
+        SimulationSpecification specification = specificationOf(TWO_UNITS);
+        assertTrue(specification.hasStations());
+        assertEquals(2, specification.getCapacity(1));
+        SimulationResults results = new MachineShopSimulator().runSimulation(specification);
+        assertArrayEquals(new int[] { 2, 1, 3 }, results.jobNumbers().toArray());
+        assertArrayEquals(new long[] { 2, 4, 6 }, results.completionTimes().toArray());
+        assertArrayEquals(new long[] { 0, 0, 3 }, results.totalWaitTimes().toArray());
+        assertEquals(6, results.getFinishTime());
+        assertEquals(3, results.getTotalWaitTimePerMachine()[1]);
+    }
+
+    @Test
+    public void enginesAndFormatsAgree() throws IOException {
+        SimulationSpecification specification = new SpecificationReader(STATIONS_FILE.getPath()).readSpecification();
+        SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+        assertSameResults(expected, new MachineShopSimulator(EventListType.HEAP).runSimulation(specification));
+        assertSameResults(expected, new CompactSimulator().runSimulation(specification));
+
+        File binaryFile = File.createTempFile("specification", ".bin");
+        binaryFile.deleteOnExit();
+        BinarySpecificationWriter.convert(STATIONS_FILE.getPath(), binaryFile.getPath());
+        TaskTable table = new BinarySpecificationReader(binaryFile.getPath()).readTaskTable();
+        assertEquals(5, table.getNumUnits());
+        for (int m = 1; m <= specification.getNumMachines(); m++)
+            assertEquals(specification.getCapacity(m), table.getCapacity(m));
+        assertSameResults(expected, new CompactSimulator(EventListType.HEAP).runSimulation(table));
+        assertSameResults(expected, new MachineShopSimulator().runSimulation(
+                new BinarySpecificationReader(binaryFile.getPath()).readSpecification()));
+    }
+
+    @Test
+    public void resumedRunKeepsTheUnits() throws IOException {
+        SimulationSpecification specification = new SpecificationReader(STATIONS_FILE.getPath()).readSpecification();
+        SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+        File checkpoint = File.createTempFile("checkpoint", ".bin");
+        try {
+            for (long interval = 1; interval <= 20; interval++) {
+                MachineShopSimulator simulator = new MachineShopSimulator();
+                simulator.setCheckpointing(checkpoint.getPath(), interval);
+                simulator.runSimulation(specification);
+                assertSameResults(expected, new MachineShopSimulator().resumeSimulation(checkpoint.getPath()));
+            }
+        } finally {
+            checkpoint.delete();
+        }
+    }
+
+    @Test
+    public void steppedUtilizationIsPerUnit() {
+        SimulationStepper stepper = new SimulationStepper(specificationOf(TWO_UNITS));
+        stepper.advanceUntil(4);
+        // unit 1 busy 0-4, unit 2 busy 0-2 and 3-4
+        assertEquals(7.0 / 8, stepper.getUtilization(1), 1e-12);
+        assertEquals(0, stepper.getQueueLength(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelSimulatorRejectsStations() {
+        new ParallelSimulator(2).runSimulation(new SpecificationReader(STATIONS_FILE.getPath()).readSpecification());
+    }
+}
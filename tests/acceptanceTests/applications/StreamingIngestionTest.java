@@ -0,0 +1,67 @@
+package applications;
+
+import static applications.TestFiles.EXCEPTION_TEST_FILE_DIRECTORY;
+import static applications.TestFiles.TEST_FILE_DIRECTORY;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import exceptions.MyInputException;
+
+/**
+ * Streams the acceptance test input files straight into task tables and
+ * checks they hold the same shop, and simulate the same way, as going
+ * through a {@link SimulationSpecification}.
+ */
+public class StreamingIngestionTest {
+
+    @Test
+    public void streamedTableMatchesSpecification() {
+        for (File file : BatchSimulator.inputFiles(TEST_FILE_DIRECTORY)) {
+            TaskTable streamed = new SpecificationReader(file.getPath()).readTaskTable();
+            SimulationSpecification specification = new SpecificationReader(file.getPath()).readSpecification();
+            TaskTable expected = TaskTable.fromSpecification(specification);
+
+            String message = "In file " + file.getName();
+            assertEquals(message, expected.getNumMachines(), streamed.getNumMachines());
+            assertEquals(message, expected.getNumJobs(), streamed.getNumJobs());
+            assertEquals(message, expected.getNumTasks(), streamed.getNumTasks());
+            for (int m = 1; m <= expected.getNumMachines(); m++)
+                assertEquals(message, expected.getChangeOverTime(m), streamed.getChangeOverTime(m));
+            for (int j = 1; j <= expected.getNumJobs(); j++) {
+                assertEquals(message, expected.getNumTasks(j), streamed.getNumTasks(j));
+                for (int k = 1; k <= expected.getNumTasks(j); k++) {
+                    assertEquals(message, expected.getMachine(j, k), streamed.getMachine(j, k));
+                    assertEquals(message, expected.getTaskTime(j, k), streamed.getTaskTime(j, k));
+                }
+            }
+
+            SimulationResults expectedResults = new MachineShopSimulator().runSimulation(specification);
+            SimulationResults streamedResults = new CompactSimulator().runSimulation(streamed);
+            assertEquals(message, expectedResults.getFinishTime(), streamedResults.getFinishTime());
+            assertArrayEquals(message, expectedResults.getTotalWaitTimePerMachine(),
+                    streamedResults.getTotalWaitTimePerMachine());
+        }
+    }
+
+    @Test
+    public void streamingReportsTheSameInputErrors() {
+        for (File file : BatchSimulator.inputFiles(EXCEPTION_TEST_FILE_DIRECTORY)) {
+            String expectedMessage = null;
+            try {
+                new SpecificationReader(file.getPath()).readSpecification();
+            } catch (MyInputException e) {
+                expectedMessage = e.getMessage();
+            }
+            assertNotNull("In file " + file.getName(), expectedMessage);
+            try {
+                new SpecificationReader(file.getPath()).readTaskTable();
+                fail("Streaming \"" + file.getName() + "\" should have thrown an exception.");
+            } catch (MyInputException e) {
+                assertEquals(expectedMessage, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package applications;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The directories of the acceptance test input files, and readers of the
+ * small specifications that tests give as text.
+ */
+final class TestFiles {
+
+    static final File TEST_FILE_DIRECTORY
+        = new File("tests/acceptanceTests/Machine_shop_test_files/");
+    static final File EXCEPTION_TEST_FILE_DIRECTORY
+        = new File("tests/acceptanceTests/Machine_shop_exception_test_files/");
+
+    private TestFiles() {
+    }
+
+    /** @return the specification given in the text format by text */
+    static SimulationSpecification specificationOf(String text) {
+        return reader(text).readSpecification();
+    }
+
+    /** @return the task table of the specification given in the text format by text */
+    static TaskTable taskTableOf(String text) {
+        return reader(text).readTaskTable();
+    }
+
+    private static SpecificationReader reader(String text) {
+        return new SpecificationReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
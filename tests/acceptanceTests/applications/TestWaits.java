@@ -0,0 +1,25 @@
+package applications;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Waits in a test for other threads to get somewhere, by watching a
+ * count they advance, rather than sleeping and hoping they got there.
+ */
+final class TestWaits {
+
+    private TestWaits() {
+    }
+
+    /** wait until count reaches at least expected, failing after half a minute */
+    static void awaitCount(long expected, LongSupplier count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (count.getAsLong() < expected) {
+            assertTrue("count stayed at " + count.getAsLong(), System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -5,7 +5,13 @@ import com.pholser.junit.quickcheck.Property;
 import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
 import org.junit.runner.RunWith;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static applications.SimulationResultsAssert.assertSameResults;
 import static junit.framework.TestCase.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
@@ -19,9 +25,9 @@ public class SimulationProperties {
     {
         MachineShopSimulator simulator = new MachineShopSimulator();
         final SimulationResults results = simulator.runSimulation(specification);
-        final int finishTime = results.getFinishTime();
+        final long finishTime = results.getFinishTime();
         final JobCompletionData[] jobCompletionData = results.getJobCompletionData();
-        final int lastJobCompletionTime = jobCompletionData[jobCompletionData.length-1].getCompletionTime();
+        final long lastJobCompletionTime = jobCompletionData[jobCompletionData.length-1].getCompletionTime();
         assertEquals(finishTime, lastJobCompletionTime);
     }
 
@@ -33,16 +39,16 @@ public class SimulationProperties {
         MachineShopSimulator simulator = new MachineShopSimulator();
         final SimulationResults results = simulator.runSimulation(specification);
 
-        int totalMachineWaitTime = 0;
-        for (int waitTime : results.getTotalWaitTimePerMachine()) {
-            assertThat(waitTime, greaterThanOrEqualTo(0));
+        long totalMachineWaitTime = 0;
+        for (long waitTime : results.getTotalWaitTimePerMachine()) {
+            assertThat(waitTime, greaterThanOrEqualTo(0L));
             totalMachineWaitTime += waitTime;
         }
 
-        int totalJobWaitTime = 0;
+        long totalJobWaitTime = 0;
         for (JobCompletionData jobCompletionData : results.getJobCompletionData()) {
-            final int jobWaitTime = jobCompletionData.getTotalWaitTime();
-            assertThat(jobWaitTime, greaterThanOrEqualTo(0));
+            final long jobWaitTime = jobCompletionData.getTotalWaitTime();
+            assertThat(jobWaitTime, greaterThanOrEqualTo(0L));
             totalJobWaitTime += jobWaitTime;
         }
 
@@ -91,4 +97,228 @@ public class SimulationProperties {
             assertEquals(expectedMachineTaskCounts[i], actualMachineTasksCounts[i]);
         }
     }
+
+    @Property
+    public void heapEventListMatchesArrayEventList(
+            @From(SimulationSpecificationGenerator.class)
+                SimulationSpecification specification)
+    {
+        final SimulationResults expected = new MachineShopSimulator(EventListType.ARRAY).runSimulation(specification);
+        final SimulationResults actual = new MachineShopSimulator(EventListType.HEAP).runSimulation(specification);
+        assertSameResults(expected, actual);
+    }
+
+    @Property
+    public void compactSimulatorMatchesMachineShopSimulator(
+            @From(SimulationSpecificationGenerator.class)
+                SimulationSpecification specification)
+    {
+        final SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+        final SimulationResults actual = new CompactSimulator().runSimulation(specification);
+        assertSameResults(expected, actual);
+    }
+
+    @Property
+    public void parallelSimulatorMatchesMachineShopSimulator(
+            @From(SimulationSpecificationGenerator.class)
+                SimulationSpecification specification)
+    {
+        final SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+        for (int numPartitions = 1; numPartitions <= 4; numPartitions++) {
+            final SimulationResults actual = new ParallelSimulator(numPartitions).runSimulation(specification);
+            assertSameResults(expected, actual);
+        }
+    }
+
+    @Property
+    public void jobCompletionViewsAgree(
+            @From(SimulationSpecificationGenerator.class)
+                SimulationSpecification specification)
+    {
+        final SimulationResults results = new CompactSimulator().runSimulation(specification);
+        final JobCompletionData[] jobCompletionData = results.getJobCompletionData();
+        assertEquals(specification.getNumJobs(), results.getNumCompletedJobs());
+        assertArrayEquals(results.jobNumbers().toArray(),
+                Arrays.stream(jobCompletionData).mapToInt(JobCompletionData::getJobNumber).toArray());
+        assertArrayEquals(results.completionTimes().toArray(),
+                Arrays.stream(jobCompletionData).mapToLong(JobCompletionData::getCompletionTime).toArray());
+        assertArrayEquals(results.totalWaitTimes().toArray(),
+                Arrays.stream(jobCompletionData).mapToLong(JobCompletionData::getTotalWaitTime).toArray());
+
+        final int[] next = { 0 };
+        results.forEachJobCompletion((jobNumber, completionTime, totalWaitTime) -> {
+            assertEquals(jobCompletionData[next[0]].getJobNumber(), jobNumber);
+            assertEquals(jobCompletionData[next[0]].getCompletionTime(), completionTime);
+            assertEquals(jobCompletionData[next[0]].getTotalWaitTime(), totalWaitTime);
+            next[0]++;
+        });
+        assertEquals(jobCompletionData.length, next[0]);
+    }
+
+    @Property
+    public void metricsDoNotChangeResults(
+            @From(SimulationSpecificationGenerator.class)
+                SimulationSpecification specification)
+    {
+        final SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+        final MachineShopSimulator simulator = new MachineShopSimulator();
+        simulator.setMetricsEnabled(true);
+        final SimulationResults actual = simulator.runSimulation(specification);
+        assertSameResults(expected, actual);
+        assertEquals(null, expected.getMetrics());
+
+        int totalTasks = 0;
+        for (int i=1; i<=specification.getNumJobs(); ++i)
+            totalTasks += specification.getJobSpecifications(i).getNumTasks();
+        final SimulationMetrics metrics = actual.getMetrics();
+        assertEquals(totalTasks, metrics.getCounter(SimulationMetrics.transitionCounter(MachineTransition.TO_BUSY)));
+        assertEquals(totalTasks, metrics.getCounter(SimulationMetrics.transitionCounter(MachineTransition.TO_CHANGE_OVER)));
+        assertEquals(totalTasks, metrics.histogram(SimulationMetrics.QUEUE_DEPTH).getCount());
+        assertThat(metrics.getCounter(SimulationMetrics.EVENTS), greaterThanOrEqualTo((long) totalTasks));
+        assertEquals(specification.getNumMachines() + 1, metrics.getSeries(SimulationMetrics.MAX_QUEUE_DEPTH).length);
+    }
+
+    @Property
+    public void resumedRunMatchesUninterruptedRun(
+            @From(SimulationSpecificationGenerator.class)
+                SimulationSpecification specification) throws IOException
+    {
+        final MachineShopSimulator countingSimulator = new MachineShopSimulator();
+        countingSimulator.setMetricsEnabled(true);
+        final SimulationResults expected = countingSimulator.runSimulation(specification);
+        final long events = expected.getMetrics().getCounter(SimulationMetrics.EVENTS);
+
+        final File checkpoint = File.createTempFile("checkpoint", ".bin");
+        try {
+            final MachineShopSimulator simulator = new MachineShopSimulator();
+            // the last checkpoint is taken about two thirds of the way through
+            simulator.setCheckpointing(checkpoint.getPath(), Math.max(1, 2 * events / 3));
+            assertSameResults(expected, simulator.runSimulation(specification));
+            final SimulationResults resumed
+                    = new MachineShopSimulator(EventListType.HEAP).resumeSimulation(checkpoint.getPath());
+            assertSameResults(expected, resumed);
+        } finally {
+            checkpoint.delete();
+        }
+    }
+
+    @Property
+    public void dispatchPoliciesCompleteEveryTask(
+            @From(SimulationSpecificationGenerator.class)
+                SimulationSpecification specification) throws IOException
+    {
+        final SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+        final MachineShopSimulator fifoSimulator = new MachineShopSimulator(EventListType.HEAP);
+        fifoSimulator.setDispatchPolicy(DispatchPolicy.FIFO);
+        assertSameResults(expected, fifoSimulator.runSimulation(specification));
+
+        final int[] priorities = new int[specification.getNumJobs() + 1];
+        for (int i=1; i<priorities.length; ++i)
+            priorities[i] = (i * 7) % 3;
+        for (DispatchPolicy policy : new DispatchPolicy[] {
+                DispatchPolicy.SHORTEST_PROCESSING_TIME, DispatchPolicy.priority(priorities) }) {
+            final MachineShopSimulator simulator = new MachineShopSimulator();
+            simulator.setDispatchPolicy(policy);
+            final SimulationResults results = simulator.runSimulation(specification);
+            assertEquals(specification.getNumJobs(), results.getNumCompletedJobs());
+            assertArrayEquals(expected.getNumTasksPerMachine(), results.getNumTasksPerMachine());
+            assertEquals(results.totalWaitTimes().sum(), Arrays.stream(results.getTotalWaitTimePerMachine()).sum());
+
+            // a run resumed from a checkpoint keeps to the policy
+            final File checkpoint = File.createTempFile("checkpoint", ".bin");
+            try {
+                final MachineShopSimulator checkpointing = new MachineShopSimulator();
+                checkpointing.setDispatchPolicy(policy);
+                checkpointing.setCheckpointing(checkpoint.getPath(), Math.max(1, specification.getNumJobs() / 2));
+                checkpointing.runSimulation(specification);
+                final MachineShopSimulator resuming = new MachineShopSimulator(EventListType.HEAP);
+                resuming.setDispatchPolicy(policy);
+                assertSameResults(results, resuming.resumeSimulation(checkpoint.getPath()));
+            } finally {
+                checkpoint.delete();
+            }
+        }
+    }
+
+    @Property
+    public void stationsMatchAcrossEngines(
+            @From(SimulationSpecificationGenerator.class)
+                SimulationSpecification specification)
+    {
+        final int numMachines = specification.getNumMachines();
+        final int[] ones = new int[numMachines + 1];
+        Arrays.fill(ones, 1);
+        specification.setCapacities(ones);
+        final SimulationResults single = new MachineShopSimulator().runSimulation(specification);
+        specification.setCapacities(null);
+        assertSameResults(new MachineShopSimulator().runSimulation(specification), single);
+
+        final int[] capacities = new int[numMachines + 1];
+        for (int i=1; i<=numMachines; ++i)
+            capacities[i] = i % 3 + 1;
+        specification.setCapacities(capacities);
+        final SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+        assertSameResults(expected, new MachineShopSimulator(EventListType.HEAP).runSimulation(specification));
+        assertSameResults(expected, new CompactSimulator().runSimulation(specification));
+        assertSameResults(expected, new CompactSimulator(EventListType.HEAP).runSimulation(specification));
+        assertArrayEquals(single.getNumTasksPerMachine(), expected.getNumTasksPerMachine());
+        assertEquals(expected.totalWaitTimes().sum(), Arrays.stream(expected.getTotalWaitTimePerMachine()).sum());
+    }
+
+    @Property
+    public void releasesMatchAcrossEngines(
+            @From(SimulationSpecificationGenerator.class)
+                SimulationSpecification specification)
+    {
+        for (int i=1; i<=specification.getNumJobs(); ++i)
+            specification.getJobSpecifications(i).setReleaseTime(i * i * 7 % 25);
+        final SimulationResults expected = new MachineShopSimulator().runSimulation(specification);
+        assertSameResults(expected, new MachineShopSimulator(EventListType.HEAP).runSimulation(specification));
+        assertSameResults(expected, new CompactSimulator().runSimulation(specification));
+        for (JobCompletionData job : expected.getJobCompletionData()) {
+            final int releaseTime = specification.getJobSpecifications(job.getJobNumber()).getReleaseTime();
+            assertThat(job.getTotalWaitTime(), greaterThanOrEqualTo(0L));
+            assertThat(job.getCompletionTime(), greaterThanOrEqualTo(releaseTime + 1L));
+        }
+
+        final OpenShopResults open =
+                new OpenShopSimulator(specification).run(JobSource.fromSpecification(specification), Long.MAX_VALUE);
+        assertEquals(expected.getFinishTime(), open.getEndTime());
+        assertEquals(specification.getNumJobs(), open.getNumCompleted());
+        assertEquals(0, open.getNumJobsInShop());
+        for (int i=1; i<=specification.getNumMachines(); ++i) {
+            assertEquals(expected.getNumTasksPerMachine()[i], open.getNumTasks(i));
+            assertEquals(expected.getTotalWaitTimePerMachine()[i], open.getTotalWaitTime(i));
+        }
+        assertEquals(expected.totalWaitTimes().sum(),
+                Math.round(open.getWaitTime().getMean() * open.getNumCompleted()));
+    }
+
+    @Property
+    public void finishTimeBoundsHoldAndQueriesMatch(
+            @From(SimulationSpecificationGenerator.class)
+                SimulationSpecification specification)
+    {
+        assertFinishTimeBoundsHold(specification);
+        final int[] capacities = new int[specification.getNumMachines() + 1];
+        for (int i=1; i<=specification.getNumMachines(); ++i)
+            capacities[i] = i % 3 + 1;
+        specification.setCapacities(capacities);
+        assertFinishTimeBoundsHold(specification);
+        for (int i=1; i<=specification.getNumJobs(); ++i)
+            specification.getJobSpecifications(i).setReleaseTime(i * i * 7 % 25);
+        assertFinishTimeBoundsHold(specification);
+    }
+
+    private static void assertFinishTimeBoundsHold(SimulationSpecification specification) {
+        final long finishTime = new MachineShopSimulator().runSimulation(specification).getFinishTime();
+        final FinishTimeBounds bounds = FinishTimeBounds.of(specification);
+        assertThat(finishTime, greaterThanOrEqualTo(bounds.getLowerBound()));
+        assertThat(finishTime, lessThanOrEqualTo(bounds.getUpperBound()));
+        final FinishTimeQuery query = new FinishTimeQuery();
+        for (long deadline : new long[] { bounds.getLowerBound() - 1, finishTime - 1, finishTime,
+                bounds.getUpperBound() }) {
+            assertEquals(finishTime <= deadline, query.finishesBy(specification, deadline));
+        }
+    }
 }
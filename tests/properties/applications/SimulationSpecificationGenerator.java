@@ -18,7 +18,7 @@ public class SimulationSpecificationGenerator extends Generator<SimulationSpecif
     public static final int MAX_JOBS = 10;
     public static final int MAX_TASKS = 10;
     public static final int MAX_CHANGEOVER_TIME = 10;
-    private static final int MAX_TASK_TIME = 10;
+    public static final int MAX_TASK_TIME = 10;
 
     public SimulationSpecificationGenerator() {
         super(SimulationSpecification.class);
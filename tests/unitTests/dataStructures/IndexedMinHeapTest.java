@@ -0,0 +1,87 @@
+package dataStructures;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class IndexedMinHeapTest {
+
+    @Test
+    public void testEmptyHeap() {
+        IndexedMinHeap heap = new IndexedMinHeap(3);
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+        assertEquals(0, heap.getMinId());
+        assertFalse(heap.contains(2));
+        assertFalse(heap.remove(2));
+    }
+
+    @Test
+    public void testPutAndChangeKey() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.put(1, 40);
+        heap.put(2, 20);
+        heap.put(3, 30);
+        heap.put(4, 10);
+        assertEquals(4, heap.size());
+        assertEquals(4, heap.getMinId());
+
+        // increase the key of the minimum
+        heap.put(4, 50);
+        assertEquals(2, heap.getMinId());
+        assertEquals(50, heap.getKey(4));
+
+        // decrease a key below the minimum
+        heap.put(1, 5);
+        assertEquals(1, heap.getMinId());
+        assertEquals(4, heap.size());
+    }
+
+    @Test
+    public void testEqualKeysComeOutSmallestIdFirst() {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.put(5, 7);
+        heap.put(3, 7);
+        heap.put(4, 7);
+        assertEquals(3, heap.getMinId());
+        heap.remove(3);
+        assertEquals(4, heap.getMinId());
+        heap.put(1, 7);
+        assertEquals(1, heap.getMinId());
+    }
+
+    @Test
+    public void testRemove() {
+        IndexedMinHeap heap = new IndexedMinHeap(6);
+        for (int id = 1; id <= 6; id++)
+            heap.put(id, 100 - id);
+        assertTrue(heap.remove(6));
+        assertFalse(heap.contains(6));
+        assertEquals(5, heap.getMinId());
+        assertTrue(heap.remove(2));
+        int expectedSize = 4;
+        int[] expectedOrder = { 5, 4, 3, 1 };
+        for (int expectedId : expectedOrder) {
+            assertEquals(expectedSize, heap.size());
+            assertEquals(expectedId, heap.getMinId());
+            heap.remove(expectedId);
+            expectedSize--;
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testClear() {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        for (int id = 1; id <= 4; id++)
+            heap.put(id, 10 * id);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        for (int id = 1; id <= 5; id++)
+            assertFalse(heap.contains(id));
+        heap.put(3, 7);
+        heap.put(5, 2);
+        assertEquals(2, heap.size());
+        assertEquals(5, heap.getMinId());
+    }
+}
@@ -0,0 +1,97 @@
+package dataStructures;
+
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+public class IntRingQueueTest {
+
+    @Test
+    public void testIsEmpty() {
+        IntRingQueue queue = new IntRingQueue();
+        assertTrue(queue.isEmpty());
+        queue.put(7);
+        assertFalse(queue.isEmpty());
+        queue.remove();
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testQueueOperations() {
+        IntRingQueue queue = new IntRingQueue(2);
+        queue.put(1);
+        assertEquals(1, queue.getFrontElement());
+        assertEquals(1, queue.getRearElement());
+        queue.put(2);
+        assertEquals(1, queue.getFrontElement());
+        assertEquals(2, queue.getRearElement());
+        assertEquals(1, queue.remove());
+        assertEquals(2, queue.getFrontElement());
+        assertEquals(2, queue.getRearElement());
+        assertEquals(2, queue.remove());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testGrowingWhileWrappedAround() {
+        IntRingQueue queue = new IntRingQueue(3);
+        queue.put(1);
+        queue.put(2);
+        queue.put(3);
+        assertEquals(1, queue.remove());
+        assertEquals(2, queue.remove());
+        // the rear now wraps to the start of the array
+        queue.put(4);
+        queue.put(5);
+        // and this put has to grow the array
+        queue.put(6);
+        assertEquals(4, queue.size());
+        assertEquals(6, queue.getRearElement());
+        for (int expected = 3; expected <= 6; expected++)
+            assertEquals(expected, queue.remove());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testGetWhileWrappedAround() {
+        IntRingQueue queue = new IntRingQueue(3);
+        queue.put(1);
+        queue.put(2);
+        assertEquals(1, queue.remove());
+        queue.put(3);
+        queue.put(4);
+        for (int i = 0; i < 3; i++)
+            assertEquals(i + 2, queue.get(i));
+        assertEquals(2, queue.remove());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetPastRear() {
+        IntRingQueue queue = new IntRingQueue();
+        queue.put(1);
+        queue.get(1);
+    }
+
+    @Test
+    public void testClear() {
+        IntRingQueue queue = new IntRingQueue();
+        queue.put(1);
+        queue.put(2);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        queue.put(3);
+        assertEquals(3, queue.getFrontElement());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testRemoveFromEmptyQueue() {
+        new IntRingQueue().remove();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testFrontOfEmptyQueue() {
+        new IntRingQueue().getFrontElement();
+    }
+}
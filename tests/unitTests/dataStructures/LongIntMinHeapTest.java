@@ -0,0 +1,82 @@
+package dataStructures;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongIntMinHeapTest {
+
+    @Test
+    public void testEmptyHeap() {
+        LongIntMinHeap heap = new LongIntMinHeap();
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    public void testRemovesInKeyOrder() {
+        LongIntMinHeap heap = new LongIntMinHeap(1);
+        Random random = new Random(12);
+        long[] keys = new long[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            // the value of each entry is its key's low bits, to check they travel together
+            heap.put(keys[i], (int) keys[i]);
+        }
+        assertEquals(keys.length, heap.size());
+        Arrays.sort(keys);
+        for (long key : keys) {
+            assertEquals(key, heap.getMinKey());
+            assertEquals((int) key, heap.getMinValue());
+            heap.removeMin();
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testEqualKeysRemovedInValueOrder() {
+        LongIntMinHeap heap = new LongIntMinHeap();
+        int[] values = { 9, 2, 7, 4, 1, 8 };
+        for (int value : values)
+            heap.put(3, value);
+        heap.put(5, 0);
+        Arrays.sort(values);
+        for (int value : values) {
+            assertEquals(3, heap.getMinKey());
+            assertEquals(value, heap.getMinValue());
+            heap.removeMin();
+        }
+        assertEquals(0, heap.getMinValue());
+    }
+
+    @Test
+    public void testClear() {
+        LongIntMinHeap heap = new LongIntMinHeap();
+        heap.put(5, 1);
+        heap.put(3, 2);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        heap.put(7, 3);
+        assertEquals(7, heap.getMinKey());
+        assertEquals(3, heap.getMinValue());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testGetMinKeyOfEmptyHeap() {
+        new LongIntMinHeap().getMinKey();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testRemoveMinOfEmptyHeap() {
+        new LongIntMinHeap().removeMin();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadCapacity() {
+        new LongIntMinHeap(0);
+    }
+}
@@ -0,0 +1,86 @@
+package dataStructures;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class StableIntMinHeapTest {
+
+    @Test
+    public void testEmptyHeap() {
+        StableIntMinHeap heap = new StableIntMinHeap();
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+        assertEquals(0, heap.toArray().length);
+    }
+
+    @Test
+    public void testRemovesInKeyOrder() {
+        StableIntMinHeap heap = new StableIntMinHeap(1);
+        Random random = new Random(17);
+        long[] keys = new long[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            // each element is its key's low bits, to check they travel together
+            heap.put((int) keys[i], keys[i]);
+        }
+        assertEquals(keys.length, heap.size());
+        Arrays.sort(keys);
+        for (long key : keys)
+            assertEquals((int) key, heap.removeMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testEqualKeysRemovedInPutOrder() {
+        StableIntMinHeap heap = new StableIntMinHeap();
+        int[] elements = { 9, 2, 7, 4, 1, 8, 6, 3 };
+        for (int element : elements)
+            heap.put(element, 3);
+        heap.put(0, 5);
+        heap.put(5, 1);
+        assertEquals(5, heap.removeMin());
+        for (int element : elements) {
+            assertEquals(element, heap.getMin());
+            assertEquals(element, heap.removeMin());
+        }
+        assertEquals(0, heap.removeMin());
+    }
+
+    @Test
+    public void testToArrayInRemovalOrderLeavesHeapUnchanged() {
+        StableIntMinHeap heap = new StableIntMinHeap();
+        heap.put(4, 2);
+        heap.put(1, 7);
+        heap.put(3, 2);
+        heap.put(2, 0);
+        assertArrayEquals(new int[] { 2, 4, 3, 1 }, heap.toArray());
+        assertEquals(4, heap.size());
+        assertEquals(2, heap.removeMin());
+    }
+
+    @Test
+    public void testClear() {
+        StableIntMinHeap heap = new StableIntMinHeap();
+        heap.put(5, 1);
+        heap.put(3, 2);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        heap.put(7, 9);
+        assertEquals(7, heap.getMin());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testRemoveFromEmptyHeap() {
+        new StableIntMinHeap().removeMin();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadInitialCapacity() {
+        new StableIntMinHeap(0);
+    }
+}
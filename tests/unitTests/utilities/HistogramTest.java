@@ -0,0 +1,66 @@
+package utilities;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(0.0, histogram.getMean(), 0.0);
+    }
+
+    @Test
+    public void testBuckets() {
+        Histogram histogram = new Histogram();
+        for (long value : new long[] { 0, 1, 2, 3, 4, 7, 8, 1000 })
+            histogram.record(value);
+        assertEquals(8, histogram.getCount());
+        assertEquals(1025, histogram.getSum());
+        assertEquals(0, histogram.getMin());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(1, histogram.getBucketCount(0));
+        assertEquals(1, histogram.getBucketCount(1));
+        assertEquals(2, histogram.getBucketCount(2));
+        assertEquals(2, histogram.getBucketCount(3));
+        assertEquals(1, histogram.getBucketCount(4));
+        assertEquals(1, histogram.getBucketCount(10));
+        assertEquals(11, histogram.getNumBuckets());
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int value = 1; value <= 100; value++)
+            histogram.record(value);
+        long median = histogram.getPercentile(0.5);
+        assertTrue(median >= 50 && median < 100);
+        assertEquals(100, histogram.getPercentile(1.0));
+        assertEquals(1, histogram.getPercentile(0.0));
+    }
+
+    @Test
+    public void testAdd() {
+        Histogram first = new Histogram();
+        Histogram second = new Histogram();
+        first.record(5);
+        second.record(1);
+        second.record(9);
+        first.add(second);
+        assertEquals(3, first.getCount());
+        assertEquals(15, first.getSum());
+        assertEquals(1, first.getMin());
+        assertEquals(9, first.getMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegative() {
+        new Histogram().record(-1);
+    }
+}
@@ -0,0 +1,134 @@
+package utilities;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import exceptions.MyInputException;
+
+public class MappedIntegerReaderTest {
+
+    private static String writeTempFile(String contents) throws IOException {
+        File file = File.createTempFile("mapped", ".input");
+        file.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(contents.getBytes(StandardCharsets.US_ASCII));
+        }
+        return file.getPath();
+    }
+
+    @Test
+    public void testReadsIntegersAcrossDelimiters() throws IOException {
+        String fileName = writeTempFile("  3 -4\r\n+5\t\f6\n\n" + Integer.MIN_VALUE + " " + Integer.MAX_VALUE);
+        MappedIntegerReader reader = new MappedIntegerReader(fileName);
+        assertEquals(3, reader.readInteger());
+        assertEquals(-4, reader.readInteger());
+        assertEquals(5, reader.readInteger());
+        assertEquals(6, reader.readInteger());
+        assertEquals(Integer.MIN_VALUE, reader.readInteger());
+        assertEquals(Integer.MAX_VALUE, reader.readInteger());
+        reader.close();
+    }
+
+    @Test
+    public void testMatchesMyInputStreamAcrossWindows() throws IOException {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 500; i++)
+            contents.append(i * 7919 - 100000).append(i % 3 == 0 ? "\n" : " ");
+        String fileName = writeTempFile(contents.toString());
+        // a tiny window makes tokens straddle window boundaries
+        MappedIntegerReader mapped = new MappedIntegerReader(fileName, 7);
+        MyInputStream expected = new MyInputStream(fileName);
+        for (int i = 0; i < 500; i++)
+            assertEquals(expected.readInteger(), mapped.readInteger());
+        mapped.close();
+        expected.close();
+    }
+
+    @Test
+    public void testSkipWord() throws IOException {
+        MappedIntegerReader reader = new MappedIntegerReader(writeTempFile(" stations 3\n4 stationsx station"));
+        assertTrue(reader.skipWord("stations"));
+        assertEquals(3, reader.readInteger());
+        assertFalse(reader.skipWord("stations"));
+        assertEquals(4, reader.readInteger());
+        assertFalse(reader.skipWord("stations"));
+        assertTrue(reader.skipWord("stationsx"));
+        // a word cut short by the end of the file
+        assertFalse(reader.skipWord("stations"));
+        assertTrue(reader.skipWord("station"));
+        reader.close();
+    }
+
+    @Test
+    public void testSkipWordMatchesMyInputStreamAcrossWindows() throws IOException {
+        String fileName = writeTempFile("stations 12 stations\n34 stations 56 stations");
+        // a tiny window makes the words straddle window boundaries
+        MappedIntegerReader mapped = new MappedIntegerReader(fileName, 3);
+        MyInputStream expected = new MyInputStream(fileName);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(expected.skipWord("stations"));
+            assertTrue(mapped.skipWord("stations"));
+            assertFalse(expected.skipWord("stations"));
+            assertFalse(mapped.skipWord("stations"));
+            assertEquals(expected.readInteger(), mapped.readInteger());
+        }
+        assertTrue(mapped.skipWord("stations"));
+        mapped.close();
+        expected.close();
+    }
+
+    @Test
+    public void testEndOfFile() throws IOException {
+        MappedIntegerReader reader = new MappedIntegerReader(writeTempFile("1 \n "));
+        reader.readInteger();
+        try {
+            reader.readInteger();
+            fail("reading past the end should throw");
+        } catch (MyInputException e) {
+            assertEquals("End of file", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        MappedIntegerReader reader = new MappedIntegerReader(writeTempFile(""));
+        try {
+            reader.readInteger();
+            fail("reading an empty file should throw");
+        } catch (MyInputException e) {
+            assertEquals("End of file", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBadTokens() throws IOException {
+        MappedIntegerReader reader = new MappedIntegerReader(writeTempFile("12x 2147483648 - 7"));
+        try {
+            reader.readInteger();
+            fail("12x is not an integer");
+        } catch (NumberFormatException e) {
+            assertEquals("For input string: \"12x\"", e.getMessage());
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testOverflow() throws IOException {
+        new MappedIntegerReader(writeTempFile("2147483648")).readInteger();
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testSignWithoutDigits() throws IOException {
+        new MappedIntegerReader(writeTempFile("- 7")).readInteger();
+    }
+
+    @Test(expected = MyInputException.class)
+    public void testMissingFile() {
+        new MappedIntegerReader("no/such/file.input");
+    }
+}
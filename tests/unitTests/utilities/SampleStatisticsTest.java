@@ -0,0 +1,62 @@
+package utilities;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class SampleStatisticsTest {
+
+    @Test
+    public void testEmpty() {
+        SampleStatistics sample = new SampleStatistics();
+        assertEquals(0, sample.getCount());
+        assertEquals(0.0, sample.getMean(), 0.0);
+        assertEquals(0.0, sample.getVariance(), 0.0);
+        assertEquals(0.0, sample.getMin(), 0.0);
+        assertEquals(0.0, sample.getMax(), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, sample.getHalfWidth(), 0.0);
+    }
+
+    @Test
+    public void testMeanAndVariance() {
+        SampleStatistics sample = new SampleStatistics();
+        for (double value : new double[] { 2, 4, 4, 4, 5, 5, 7, 9 })
+            sample.add(value);
+        assertEquals(8, sample.getCount());
+        assertEquals(5.0, sample.getMean(), 1e-12);
+        assertEquals(32.0 / 7, sample.getVariance(), 1e-12);
+        assertEquals(2.0, sample.getMin(), 0.0);
+        assertEquals(9.0, sample.getMax(), 0.0);
+        double halfWidth = 2.365 * Math.sqrt(32.0 / 7) / Math.sqrt(8);
+        assertEquals(halfWidth, sample.getHalfWidth(), 1e-12);
+        assertEquals(5.0 - halfWidth, sample.getLower(), 1e-12);
+        assertEquals(5.0 + halfWidth, sample.getUpper(), 1e-12);
+    }
+
+    @Test
+    public void testLargeOffsetKeepsPrecision() {
+        SampleStatistics sample = new SampleStatistics();
+        for (int i = 0; i < 1000; i++)
+            sample.add(1e12 + (i % 2));
+        assertEquals(1e12 + 0.5, sample.getMean(), 1e-3);
+        assertEquals(0.25 * 1000 / 999, sample.getVariance(), 1e-6);
+    }
+
+    @Test
+    public void testTQuantiles() {
+        assertEquals(12.706, SampleStatistics.tQuantile(1), 0.0);
+        assertEquals(2.042, SampleStatistics.tQuantile(30), 0.0);
+        // past the table, the expansion continues it smoothly down to the normal quantile
+        assertEquals(2.0395, SampleStatistics.tQuantile(31), 1e-3);
+        assertEquals(1.9840, SampleStatistics.tQuantile(100), 1e-3);
+        assertEquals(1.96, SampleStatistics.tQuantile(1000000), 1e-3);
+    }
+
+    @Test
+    public void testConstantSampleHasZeroWidth() {
+        SampleStatistics sample = new SampleStatistics();
+        sample.add(3);
+        sample.add(3);
+        assertEquals(0.0, sample.getHalfWidth(), 0.0);
+    }
+}
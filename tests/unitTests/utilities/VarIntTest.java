@@ -0,0 +1,50 @@
+package utilities;
+
+import static org.junit.Assert.*;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class VarIntTest {
+
+    private static final int[] VALUES = { 0, 1, 127, 128, 300, 16383, 16384,
+            (1 << 21) - 1, 1 << 21, (1 << 28) - 1, 1 << 28, Integer.MAX_VALUE, -1, Integer.MIN_VALUE };
+
+    @Test
+    public void testRoundTrip() {
+        byte[] buffer = new byte[VALUES.length * VarInt.MAX_BYTES];
+        int end = 0;
+        for (int value : VALUES) {
+            int start = end;
+            end = VarInt.write(value, buffer, end);
+            assertEquals(VarInt.size(value), end - start);
+        }
+        ByteBuffer input = ByteBuffer.wrap(buffer, 0, end);
+        for (int value : VALUES)
+            assertEquals(value, VarInt.read(input));
+        assertFalse(input.hasRemaining());
+    }
+
+    @Test
+    public void testSizes() {
+        assertEquals(1, VarInt.size(0));
+        assertEquals(1, VarInt.size(127));
+        assertEquals(2, VarInt.size(128));
+        assertEquals(4, VarInt.size((1 << 28) - 1));
+        assertEquals(5, VarInt.size(Integer.MAX_VALUE));
+        assertEquals(5, VarInt.size(-1));
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void testTruncated() {
+        VarInt.read(ByteBuffer.wrap(new byte[] { (byte) 0x80, (byte) 0x80 }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLong() {
+        byte[] bytes = { (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 1 };
+        VarInt.read(ByteBuffer.wrap(bytes));
+    }
+}